@@ -0,0 +1,254 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Main class analysing a file of situations without any user interaction,
+ * e.g. to label training data or to compare the output of the engine
+ * before and after a change. The input holds one situation per line in the
+ * notation of PositionNotation; empty lines and lines starting with # are
+ * skipped. The situations are analysed in parallel on all cores, each up to
+ * a depth and optionally a time limit, see PositionAnalysis.
+ *
+ * Each result is written as soon as its situation is done, so the output is
+ * not in the order of the input but carries the line number. Formats:
+ * <pre>
+ * csv    line,position,bestmove,score,depth,nodes,millis
+ * jsonl  {"line":1,"position":"...","bestmove":"a2a3","score":0.50,
+ *         "depth":3,"nodes":1234,"millis":5}
+ * </pre>
+ * The score is for the player to move, the best move is empty (csv) or null
+ * (jsonl) if the game is already over. Invalid lines and other errors
+ * during the analysis are reported on the standard error, so they do not
+ * mix with results written to the standard output.
+ */
+public final class BatchAnalysis {
+
+    private static final String USAGE = "Usage: BatchAnalysis --input <file> "
+            + "[--output <file>] [--format csv|jsonl] [--depth <n>] "
+            + "[--millis <n>] [--threads <n>]";
+
+    private static final String CSV_HEADER =
+            "line,position,bestmove,score,depth,nodes,millis";
+
+    // Situations queued per thread, so huge inputs are not read at once.
+    private static final int QUEUED_PER_THREAD = 4;
+
+    /**
+     * Main method running an analysis.
+     *
+     * @param args the options of the analysis, see USAGE.
+     * @throws InterruptedException if interrupted while waiting for
+     * results.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options;
+        String input;
+        boolean json;
+        int depth;
+        long millis;
+        int threads;
+        try {
+            options = SelfPlay.parseOptions(args);
+            input = options.get("input");
+            if (input == null) {
+                throw new IllegalArgumentException("No input given!");
+            }
+            String format = options.getOrDefault("format", "csv");
+            if (!format.equals("csv") && !format.equals("jsonl")) {
+                throw new IllegalArgumentException("Unknown format "
+                        + format + "!");
+            }
+            json = format.equals("jsonl");
+            depth = Integer.parseInt(options.getOrDefault("depth", "3"));
+            millis = Long.parseLong(options.getOrDefault("millis", "0"));
+            threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime()
+                            .availableProcessors())));
+            if (depth < 1 || millis < 0 || threads < 1) {
+                throw new IllegalArgumentException("Depth and threads must "
+                        + "be at least 1, time not negative!");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<String> results =
+                new ExecutorCompletionService<>(pool);
+        String output = options.get("output");
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(input));
+             PrintWriter out = new PrintWriter(openOutput(output))) {
+            if (!json) {
+                out.println(CSV_HEADER);
+            }
+            int pending = 0;
+            int lineNumber = 0;
+            String line;
+            while ((line = in.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                PawnBoard board;
+                try {
+                    board = PositionNotation.parse(line, 1);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error! Line " + lineNumber + ": "
+                            + e.getMessage());
+                    continue;
+                }
+                int number = lineNumber;
+                results.submit(() -> analyze(number, board, depth, millis,
+                        json));
+                pending++;
+                if (pending >= QUEUED_PER_THREAD * threads) {
+                    collect(out, results);
+                    pending--;
+                }
+            }
+            for (; pending > 0; pending--) {
+                collect(out, results);
+            }
+            if (out.checkError()) {
+                System.err.println("Error! Output not written!");
+            }
+        } catch (IOException e) {
+            System.err.println("Error! " + e.getMessage());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens the output, the standard output if no file is given, which
+     * stays open when the writer is closed.
+     *
+     * @param file the name of the output file, null if none.
+     * @return the writer.
+     * @throws IOException if the file cannot be created.
+     */
+    private static Writer openOutput(String file) throws IOException {
+        if (file == null) {
+            return new OutputStreamWriter(System.out,
+                    StandardCharsets.UTF_8) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        return Files.newBufferedWriter(Paths.get(file));
+    }
+
+    /**
+     * Analyses a situation and formats its result. A failed analysis is
+     * reported with the number of its line, so the other situations go on.
+     *
+     * @param line the number of the line of the input.
+     * @param board the situation.
+     * @param depth the maximum height of the tree.
+     * @param millis the maximum time in milliseconds, 0 if unlimited.
+     * @param json true for jsonl, false for csv.
+     * @return the line of the output, null if the analysis failed.
+     */
+    private static String analyze(int line, PawnBoard board, int depth,
+                                  long millis, boolean json) {
+        try {
+            return format(line, board, PositionAnalysis.analyze(board, depth,
+                    millis), json);
+        } catch (RuntimeException e) {
+            System.err.println("Error! Line " + line + ": Analysis failed: "
+                    + e);
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the next finished situation and writes its result, if its
+     * analysis did not fail.
+     *
+     * @param out the output.
+     * @param results the running analyses.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    private static void collect(PrintWriter out,
+                                CompletionService<String> results)
+            throws InterruptedException {
+        try {
+            String result = results.take().get();
+            if (result != null) {
+                write(out, result);
+            }
+        } catch (ExecutionException e) {
+            System.err.println("Error! Analysis failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Writes a result and hands it on right away.
+     *
+     * @param out the output.
+     * @param result the formatted result.
+     */
+    private static void write(PrintWriter out, String result) {
+        out.println(result);
+        out.flush();
+    }
+
+    /**
+     * Formats the result of a situation as a line of the output.
+     *
+     * @param line the number of the line of the input.
+     * @param board the situation.
+     * @param analysis the analysis of the situation.
+     * @param json true for jsonl, false for csv.
+     * @return the line, without line break.
+     */
+    private static String format(int line, PawnBoard board,
+                                 PositionAnalysis analysis, boolean json) {
+        // Notation has neither commas nor quotes, so nothing is escaped.
+        String position = PositionNotation.format(board);
+        String best = analysis.getBestMove();
+        long millis = analysis.getNanos() / 1_000_000;
+        if (json) {
+            return String.format(Locale.ROOT, "{\"line\":%d,\"position\":"
+                    + "\"%s\",\"bestmove\":%s,\"score\":%.4f,\"depth\":%d,"
+                    + "\"nodes\":%d,\"millis\":%d}", line, position,
+                    best == null ? "null" : "\"" + best + "\"",
+                    analysis.getScore(), analysis.getDepth(),
+                    analysis.getNodes(), millis);
+        }
+        return String.format(Locale.ROOT, "%d,%s,%s,%.4f,%d,%d,%d", line,
+                position, best == null ? "" : best, analysis.getScore(),
+                analysis.getDepth(), analysis.getNodes(), millis);
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private BatchAnalysis() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
@@ -1,17 +1,18 @@
 package controller;
 
-import model.board.Board;
 import model.board.PawnBoard;
+import model.board.PositionNotation;
 import model.exception.IllegalMoveException;
 import model.player.Color;
 import model.player.Player;
+import model.record.MoveHistory;
 import view.BoardTile;
 import view.GUIView;
 
 import javax.swing.SwingWorker;
 import javax.swing.SwingUtilities;
-import java.lang.reflect.InvocationTargetException;
-import java.util.Stack;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Class responsible for managing model and view and modifying them after
@@ -20,16 +21,18 @@ import java.util.Stack;
 public class Controller {
 
     private GUIView view;
-    private final Stack<Board> previousSituations;
+    private MoveHistory history;
     private BoardTile pawnHolding;
-    private Board game;
+    private PawnBoard game;
     private Color humanColor;
     private int difficulty;
     private int starter;
-    private SwingWorker<Board, Void> currentWorker;
+    private SwingWorker<PawnBoard, Void> currentWorker;
     private BoardTile[][] viewBoard;
     private Player human;
     private Player computer;
+    // Board waiting to be shown by the view, null if none.
+    private final AtomicReference<char[][]> pendingView;
 
     /**
      * Main method starting up the Visual interface for user-input.
@@ -46,7 +49,7 @@ public class Controller {
      */
     public Controller() {
         pawnHolding = null;
-        previousSituations = new Stack<>();
+        pendingView = new AtomicReference<>();
         humanColor = Color.WHITE;
         starter = 0;
     }
@@ -140,10 +143,7 @@ public class Controller {
         if (fromCoords == null || toCoords == null) {
             causeErrorPopUp("Couldn't perform move!");
         } else {
-            Board newBoard;
-
-            // Game situation to remember for undo(s) if the move is legal.
-            Board toStack = game.clone();
+            PawnBoard newBoard;
             try {
                 newBoard = game.move(fromCoords[0], fromCoords[1], toCoords[0],
                         toCoords[1]);
@@ -155,7 +155,8 @@ public class Controller {
                 pawnHolding = null;
                 return;
             }
-            addToHistory(toStack);
+            addToHistory(PositionNotation.packMove(fromCoords[0],
+                    fromCoords[1], toCoords[0], toCoords[1]), true, newBoard);
 
             // Game over after humans turn or machine cant move after turn?
             if (newBoard.isGameOver()) {
@@ -189,61 +190,52 @@ public class Controller {
      * model.
      */
     private void directMoveComputer() {
-        SwingWorker<Board, Void> worker = new SwingWorker<>() {
+        PawnBoard start = game;
+        Player human = start.getNextPlayer();
+        SwingWorker<PawnBoard, Void> worker = new SwingWorker<>() {
 
             /**
-             * Lets the model calculate the best move for the computer and
-             * reacts after getting a result.
+             * Lets the model calculate the best move for the computer. Only
+             * the search runs in the background, the result is applied to
+             * the game and its history on the event dispatch thread by done.
              *
-             * @return the board with the best move performed.
-             * @throws InvocationTargetException if the target couldn't get
-             *                                   invocation failed.
-             * @throws InterruptedException if the Thread got interrupted.
+             * @return the board with the best move performed, null if the
+             * machine could not move.
              */
             @Override
-            protected Board doInBackground() throws InvocationTargetException,
-                    InterruptedException {
-                Player human = game.getNextPlayer();
+            protected PawnBoard doInBackground() {
 
                 // Machine(move) working?
-                Board board;
                 try {
-                    board = game.machineMove();
+                    return start.machineMove();
                 } catch (IllegalMoveException e) {
                     causeErrorPopUp(e.getMessage()
                             + "Start a new game please!");
                     return null;
                 }
-
-                // Game over after machine?
-                if (board.isGameOver()) {
-                    if (board.getWinner() == null) {
-                        causePopUp("Nobody wins. Draw.");
-                    } else {
-                        causePopUp("Sorry! Machine wins.");
-                    }
-                    game = board;
-                    updateView();
-                    allSwitch(false);
-                } else if (board.getNextPlayer() == human) {
-                    game = board;
-                    updateView();
-                    SwingUtilities.invokeAndWait(view::skipTurnPopUp);
-                    game = doInBackground();
-                } else {
-                    game = board;
-                    updateView();
-                    hPawnsSwitch(true);
-                }
-                refreshPawnCounter();
-                return game;
             }
 
             /**
-             * Changing the level in the model if it has been changed.
+             * Reacting to the board found by the machine, unless the search
+             * got cancelled or replaced meanwhile by an undo, redo or new
+             * game, even if it had already finished then, and changing the
+             * level in the model if it has been changed.
              */
             @Override
             protected void done() {
+                if (currentWorker == this && !isCancelled()) {
+                    PawnBoard board;
+                    try {
+                        board = get();
+                    } catch (InterruptedException | ExecutionException e) {
+                        causeErrorPopUp("Computer couldn't move: "
+                                + e.getCause());
+                        board = null;
+                    }
+                    if (board != null) {
+                        applyComputerMove(start, board, human);
+                    }
+                }
                 game.setLevel(difficulty);
                 cPawnsSwitch(false);
             }
@@ -253,6 +245,38 @@ public class Controller {
         worker.execute();
     }
 
+    /**
+     * Taking over the move of the computer into the game and its history and
+     * updating the view, letting the computer move again if the human has
+     * to skip his turn. Called on the event dispatch thread only.
+     *
+     * @param start the situation the computer searched.
+     * @param board the situation after the move of the computer.
+     * @param human the human player.
+     */
+    private void applyComputerMove(PawnBoard start, PawnBoard board,
+                                   Player human) {
+        addToHistory(PositionNotation.findMove(start, board), false, board);
+        game = board;
+        updateView();
+        refreshPawnCounter();
+
+        // Game over after machine?
+        if (board.isGameOver()) {
+            if (board.getWinner() == null) {
+                causePopUp("Nobody wins. Draw.");
+            } else {
+                causePopUp("Sorry! Machine wins.");
+            }
+            allSwitch(false);
+        } else if (board.getNextPlayer() == human) {
+            view.skipTurnPopUp();
+            directMoveComputer();
+        } else {
+            hPawnsSwitch(true);
+        }
+    }
+
     /**
      * Instancing a new game/model and updating the view.
      */
@@ -261,16 +285,21 @@ public class Controller {
             causeErrorPopUp("Select a level!");
         } else {
             allSwitch(false);
-            previousSituations.clear();
+            enableUndo(false);
+            enableRedo(false);
             if (pawnHolding != null) {
                 highlightSwitch(false);
                 pawnHolding = null;
             }
             game = new PawnBoard(starter, difficulty, humanColor);
+            history = new MoveHistory(game);
             if (starter == 1) {
                 computer = game.getOpeningPlayer();
                 human = game.getNextPlayer();
+                PawnBoard start = game;
                 game = game.machineMove();
+                history.add(PositionNotation.findMove(start, game), false,
+                        game);
             } else {
                 computer = game.getNextPlayer();
                 human = game.getOpeningPlayer();
@@ -281,28 +310,58 @@ public class Controller {
     }
 
     /**
-     * Checking the stack containing all previous situations and popping the
-     * top element and updating the view to display the new situation.
+     * Going back in the history to the situation before the last move of
+     * the human and updating the view to display the new situation.
      */
     public void undoMove() {
-        if (!previousSituations.isEmpty()) {
-            game = previousSituations.pop();
-            game.setLevel(difficulty);
-            updateView();
-            hPawnsSwitch(true);
-            cPawnsSwitch(false);
-            if (pawnHolding != null) {
-                highlightSwitch(false);
-                pawnHolding = null;
-            }
-            if (previousSituations.isEmpty()) {
-                enableUndo(false);
-            }
+        if (history != null && history.canUndo()) {
+            showHistorySituation(history.undo(difficulty));
         } else {
             causeErrorPopUp("No turns to undo!");
         }
     }
 
+    /**
+     * Going forward in the history to the situation before the next move
+     * of the human, or to the last one, and updating the view to display
+     * the new situation.
+     */
+    public void redoMove() {
+        if (history != null && history.canRedo()) {
+            showHistorySituation(history.redo(difficulty));
+        } else {
+            causeErrorPopUp("No turns to redo!");
+        }
+    }
+
+    /**
+     * Displaying a situation rebuilt from the history and letting the
+     * computer move if it is its turn there.
+     *
+     * @param situation the situation.
+     */
+    private void showHistorySituation(PawnBoard situation) {
+        game = situation;
+        if (pawnHolding != null) {
+            highlightSwitch(false);
+            pawnHolding = null;
+        }
+        updateView();
+        refreshPawnCounter();
+        enableUndo(history.canUndo());
+        enableRedo(history.canRedo());
+        cPawnsSwitch(false);
+        if (game.isGameOver()) {
+            hPawnsSwitch(false);
+        } else if (game.getCurrentPlayer().getColor()
+                == game.getHumanColor()) {
+            hPawnsSwitch(true);
+        } else {
+            hPawnsSwitch(false);
+            directMoveComputer();
+        }
+    }
+
     /**
      * Starting a new game with the starting role and Colors reversed.
      */
@@ -355,36 +414,38 @@ public class Controller {
     }
 
     /**
-     * Method adding a model to the stack containing all previous situations
-     * to which the user can go back to via "undo".
-     * If the model to be added is the first, it also calls another method
+     * Method adding a move to the history, to which the user can go back
+     * to via "undo", dropping all moves that could be redone.
+     * If the move is the first of the human, it also calls another method
      * which enables the "undo" feature for the user.
      *
-     * @param board the model/situation to be added to the stack.
+     * @param move the move packed by PositionNotation.
+     * @param byHuman true if the human played the move.
+     * @param after the situation after the move.
      */
-    private void addToHistory(Board board) {
-        if (previousSituations.isEmpty()) {
+    private void addToHistory(int move, boolean byHuman, PawnBoard after) {
+        boolean couldUndo = history.canUndo();
+        boolean couldRedo = history.canRedo();
+        history.add(move, byHuman, after);
+        if (!couldUndo && history.canUndo()) {
             enableUndo(true);
         }
-        previousSituations.push(board);
+        if (couldRedo) {
+            enableRedo(false);
+        }
     }
 
     /**
-     * Method converting the String given by the model via its toString()
-     * method into a 2D char array to convert the model to the view easier.
+     * Method copying the pawns of the model into a 2D char array to convert
+     * the model to the view easier.
      *
      * @return the 2D char Array.
      */
     private char[][] getBoard() {
-        String print = game.toString();
-        char[] printContent = print.toCharArray();
-        char[][] board = new char[Board.SIZE][Board.SIZE];
-        int counter = 0;
+        char[][] pawns = game.getBoard();
+        char[][] board = new char[pawns.length][];
         for (int i = 0; i < board.length; i++) {
-            for (char[] current : board) {
-                current[i] = printContent[counter];
-                counter++;
-            }
+            board[i] = pawns[i].clone();
         }
         return board;
     }
@@ -407,10 +468,14 @@ public class Controller {
 
     /**
      * Advising the view to update/replace the represented board with the given
-     * one.
+     * one. Updates requested before the view got to the last one are merged,
+     * so the view only shows the newest board once.
      */
     private void updateView() {
-        SwingUtilities.invokeLater(() -> view.placePawns(getBoard()));
+        if (pendingView.getAndSet(getBoard()) == null) {
+            SwingUtilities.invokeLater(() -> view.placePawns(
+                    pendingView.getAndSet(null)));
+        }
     }
 
     /**
@@ -460,7 +525,7 @@ public class Controller {
      *
      * @param started is the SwingWorker who (is about to) start(s).
      */
-    private void swingWorkerStarting(SwingWorker<Board, Void> started) {
+    private void swingWorkerStarting(SwingWorker<PawnBoard, Void> started) {
         this.currentWorker = started;
     }
 
@@ -484,6 +549,16 @@ public class Controller {
         SwingUtilities.invokeLater(() -> view.enableUndo(toEnable));
     }
 
+    /**
+     * Advising to view to either enable or disable the "redo" button,
+     * repeating the last action undone.
+     *
+     * @param toEnable true if it shall be enabled, false otherwise.
+     */
+    private void enableRedo(boolean toEnable) {
+        SwingUtilities.invokeLater(() -> view.enableRedo(toEnable));
+    }
+
     /**
      * Directing the view to move a pawn off a tile to another one.
      *
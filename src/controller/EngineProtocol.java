@@ -0,0 +1,397 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.player.Color;
+import model.tree.MonteCarloTree;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Line based protocol, modelled after UCI, letting other programs (GUIs,
+ * match runners, scripts) drive the engine without parsing the prose of the
+ * Shell. In the start position white plays from the bottom and moves
+ * first, other situations are given in the notation of PositionNotation.
+ * Squares are written as column letter and row number counted from the
+ * bottom, e.g. a1, and moves as two squares, e.g. a1a2. Commands:
+ * <pre>
+ * protocol                            -> id, option lines, protocolok
+ * isready                             -> readyok
+ * setoption name engine value minimax|minimax+batch|mcts
+ * setoption name threads value n
+ * newgame
+ * position startpos [size n] [moves m1 m2 ...]
+ * position fen rows to-move bottom opener [moves m1 m2 ...]
+ * go [depth n] [movetime ms] [nodes n] [infinite]
+ *                                     -> info lines, bestmove m
+ * stop
+ * quit
+ * </pre>
+ * The search runs on its own thread, so stop and isready are answered
+ * while searching. The minimax engine deepens its tree one ply at a time
+ * and reports each finished ply in an info line with depth, score (for the
+ * player to move), nodes, nps, time in milliseconds and the expected
+ * variation; a ply cut off by stop, movetime or nodes is not used. If the
+ * search fails, e.g. as a tree without limits no longer fits into memory,
+ * an info string reports it and bestmove still gives the last finished ply.
+ */
+public final class EngineProtocol {
+
+    // Height searched by go without any limit.
+    private static final int DEFAULT_DEPTH = 3;
+
+    // Height at which deepening ends even without any limit.
+    private static final int MAX_DEPTH = 64;
+
+    private final BufferedReader in;
+    private final PrintWriter out;
+    private PawnBoard position;
+    private String engine = "minimax";
+    private int threads = 1;
+    private Thread searcher;
+
+    /**
+     * Constructor for a protocol session starting with the 8 x 8 board.
+     *
+     * @param in the commands.
+     * @param out the answers.
+     */
+    public EngineProtocol(BufferedReader in, PrintWriter out) {
+        this.in = in;
+        this.out = out;
+        this.position = startPosition(PawnBoard.MAX_SIZE / 2);
+    }
+
+    /**
+     * Main method running the protocol on stdin and stdout.
+     *
+     * @param args not used.
+     * @throws IOException if stdin cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        new EngineProtocol(new BufferedReader(new InputStreamReader(
+                System.in, StandardCharsets.UTF_8)), new PrintWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8)))
+                .run();
+    }
+
+    /**
+     * Reads and executes commands until quit or the end of the input.
+     *
+     * @throws IOException if the commands cannot be read.
+     */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] parts = line.trim().split("\\s+");
+            if (parts[0].isEmpty()) {
+                continue;
+            } else if (parts[0].equals("quit")) {
+                break;
+            }
+            try {
+                execute(parts);
+            } catch (IllegalArgumentException e) {
+                send("info string Error! " + e.getMessage());
+            }
+        }
+        stopSearch();
+    }
+
+    /**
+     * Executes a single command.
+     *
+     * @param parts the words of the command.
+     * @throws IllegalArgumentException if the command is invalid.
+     */
+    private void execute(String[] parts) {
+        switch (parts[0]) {
+            case "protocol" -> {
+                send("id name PawnChess");
+                send("option name engine type combo default minimax "
+                        + "var minimax var minimax+batch var mcts");
+                send("option name threads type spin default 1 min 1");
+                send("protocolok");
+            }
+            case "isready" -> send("readyok");
+            case "setoption" -> setOption(parts);
+            case "newgame" -> {
+                stopSearch();
+                position = startPosition(position.getSize());
+            }
+            case "position" -> {
+                stopSearch();
+                position = parsePosition(parts);
+            }
+            case "go" -> go(parts);
+            case "stop" -> stopSearch();
+            default -> throw new IllegalArgumentException("Unknown command "
+                    + parts[0] + "!");
+        }
+    }
+
+    /**
+     * Changes an option of the engine.
+     *
+     * @param parts the words of the command.
+     * @throws IllegalArgumentException if the option or value is invalid.
+     */
+    private void setOption(String[] parts) {
+        if (parts.length != 5 || !parts[1].equals("name")
+                || !parts[3].equals("value")) {
+            throw new IllegalArgumentException("Expected setoption name "
+                    + "<name> value <value>!");
+        }
+        String value = parts[4].toLowerCase(Locale.ROOT);
+        switch (parts[2].toLowerCase(Locale.ROOT)) {
+            case "engine" -> {
+                if (!value.equals("minimax") && !value.equals("minimax+batch")
+                        && !value.equals("mcts")) {
+                    throw new IllegalArgumentException("Unknown engine "
+                            + value + "!");
+                }
+                engine = value;
+            }
+            case "threads" -> {
+                int parsed = Integer.parseInt(value);
+                if (parsed < 1) {
+                    throw new IllegalArgumentException("At least one "
+                            + "thread is needed!");
+                }
+                threads = parsed;
+            }
+            default -> throw new IllegalArgumentException("Unknown option "
+                    + parts[2] + "!");
+        }
+    }
+
+    /**
+     * Creates the start situation, white at the bottom moving first.
+     *
+     * @param size the number of columns and rows.
+     * @return the start situation.
+     */
+    private static PawnBoard startPosition(int size) {
+        return new PawnBoard(0, DEFAULT_DEPTH, Color.WHITE, size);
+    }
+
+    /**
+     * Sets up the situation of a position command.
+     *
+     * @param parts the words of the command.
+     * @return the situation after all given moves.
+     * @throws IllegalArgumentException if the position or a move is invalid.
+     */
+    private static PawnBoard parsePosition(String[] parts) {
+        int i = 2;
+        PawnBoard toReturn;
+        if (parts.length > 1 && parts[1].equals("startpos")) {
+            int size = PawnBoard.MAX_SIZE / 2;
+            if (i + 1 < parts.length && parts[i].equals("size")) {
+                size = Integer.parseInt(parts[i + 1]);
+                i += 2;
+            }
+            toReturn = startPosition(size);
+        } else if (parts.length > 5 && parts[1].equals("fen")) {
+            i += 4;
+            toReturn = PositionNotation.parse(String.join(" ",
+                    Arrays.asList(parts).subList(2, i)), DEFAULT_DEPTH);
+        } else {
+            throw new IllegalArgumentException("Expected position startpos "
+                    + "[size <n>] or position fen <position>!");
+        }
+        if (i < parts.length) {
+            if (!parts[i].equals("moves")) {
+                throw new IllegalArgumentException("Expected moves instead "
+                        + "of " + parts[i] + "!");
+            }
+            for (i++; i < parts.length; i++) {
+                toReturn = PositionNotation.play(toReturn,
+                        PositionNotation.parseMove(parts[i], 0,
+                                parts[i].length(), toReturn.getSize()));
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Starts a search of the current situation on its own thread.
+     *
+     * @param parts the words of the command with the limits.
+     * @throws IllegalArgumentException if a limit is invalid.
+     */
+    private void go(String[] parts) {
+        int depth = 0;
+        long millis = 0;
+        long nodes = 0;
+        boolean infinite = false;
+        for (int i = 1; i < parts.length; i++) {
+            switch (parts[i]) {
+                case "depth" -> depth = Integer.parseInt(value(parts, ++i));
+                case "movetime" -> millis = Long.parseLong(value(parts, ++i));
+                case "nodes" -> nodes = Long.parseLong(value(parts, ++i));
+                case "infinite" -> infinite = true;
+                default -> throw new IllegalArgumentException("Unknown limit "
+                        + parts[i] + "!");
+            }
+        }
+        if (depth < 0 || millis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Limits must not be "
+                    + "negative!");
+        } else if (depth == 0 && millis == 0 && nodes == 0 && !infinite) {
+            depth = DEFAULT_DEPTH;
+        }
+        stopSearch();
+        PawnBoard board = position.clone();
+        int maxDepth = depth > 0 ? Math.min(depth, MAX_DEPTH) : MAX_DEPTH;
+        long maxMillis = millis;
+        long maxNodes = nodes;
+        int level = depth;
+        boolean unlimited = infinite;
+        // Options copied, as they may change while searching.
+        String searchEngine = engine;
+        int searchThreads = threads;
+        Runnable search;
+        if (searchEngine.equals("mcts")) {
+            search = () -> searchMonteCarlo(board, level, maxMillis,
+                    maxNodes, unlimited, searchThreads);
+        } else {
+            search = () -> searchMinimax(board, maxDepth, maxMillis,
+                    maxNodes, searchEngine.equals("minimax+batch"));
+        }
+        searcher = new Thread(search, "search");
+        searcher.setDaemon(true);
+        searcher.start();
+    }
+
+    /**
+     * Gets the value following a keyword.
+     *
+     * @param parts the words of the command.
+     * @param i the position of the value.
+     * @return the value.
+     * @throws IllegalArgumentException if the value is missing.
+     */
+    private static String value(String[] parts, int i) {
+        if (i >= parts.length) {
+            throw new IllegalArgumentException("Missing value of "
+                    + parts[i - 1] + "!");
+        }
+        return parts[i];
+    }
+
+    /**
+     * Deepens a DecisionTree one ply at a time until a limit is reached or
+     * the search is stopped, reporting each finished ply.
+     *
+     * @param board the situation to search.
+     * @param maxDepth the maximum height of the tree.
+     * @param millis the maximum time in milliseconds, 0 if unlimited.
+     * @param maxNodes the maximum amount of nodes, 0 if unlimited.
+     * @param batched true to evaluate all children of a node together.
+     */
+    private void searchMinimax(PawnBoard board, int maxDepth, long millis,
+                               long maxNodes, boolean batched) {
+        // Best move of the last finished ply, kept if a deeper one fails.
+        String[] best = new String[1];
+        try {
+            PositionAnalysis.analyze(board, maxDepth, millis, maxNodes,
+                    batched, ply -> {
+                        long nanos = Math.max(1, ply.getNanos());
+                        send(String.format(Locale.ROOT, "info depth %d "
+                                + "score %.2f nodes %d nps %d time %d pv %s",
+                                ply.getDepth(), ply.getScore(),
+                                ply.getNodes(),
+                                ply.getNodes() * 1_000_000_000 / nanos,
+                                nanos / 1_000_000,
+                                String.join(" ", ply.getVariation())));
+                        best[0] = ply.getBestMove();
+                    });
+        } catch (RuntimeException | OutOfMemoryError e) {
+            send("info string Error! Search failed: " + e);
+        }
+        send("bestmove " + (best[0] == null ? "none" : best[0]));
+    }
+
+    /**
+     * Runs a MonteCarloTree until a limit is reached or the search is
+     * stopped. The depth gives the playouts the same way as the level of a
+     * PawnBoard does.
+     *
+     * @param board the situation to search.
+     * @param depth the level, 0 if not given.
+     * @param millis the maximum time in milliseconds, 0 if unlimited.
+     * @param maxNodes the maximum amount of playouts, 0 if unlimited.
+     * @param infinite true to search until stopped.
+     * @param threads the amount of threads of the tree.
+     */
+    private void searchMonteCarlo(PawnBoard board, int depth, long millis,
+                                  long maxNodes, boolean infinite,
+                                  int threads) {
+        if (board.isGameOver()) {
+            send("bestmove none");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean flip = board.getCurrentPlayer().getColor()
+                != board.getComputerColor();
+        int playouts = (int) Math.min(Integer.MAX_VALUE, maxNodes > 0
+                ? maxNodes : (long) depth * MonteCarloTree.PLAYOUTS_PER_LEVEL);
+        if (infinite || (playouts == 0 && millis == 0)) {
+            playouts = Integer.MAX_VALUE;
+        }
+        MonteCarloTree tree;
+        String best;
+        try {
+            tree = new MonteCarloTree(flip ? board.flipped() : board,
+                    playouts, millis, threads);
+            PawnBoard moved = tree.bestMove();
+            best = PositionNotation.formatMove(PositionNotation.findMove(
+                    board, flip ? moved.flipped() : moved), board.getSize());
+        } catch (RuntimeException | OutOfMemoryError e) {
+            send("info string Error! Search failed: " + e);
+            send("bestmove none");
+            return;
+        }
+        long nanos = Math.max(1, System.nanoTime() - start);
+        send(String.format(Locale.ROOT, "info nodes %d nps %d time %d pv %s",
+                tree.getPlayouts(), tree.getPlayouts() * 1_000_000_000L
+                        / nanos, nanos / 1_000_000, best));
+        send("bestmove " + best);
+    }
+
+    /**
+     * Stops the running search, if any, and waits until it has sent its
+     * best move.
+     */
+    private void stopSearch() {
+        Thread running = searcher;
+        if (running == null) {
+            return;
+        }
+        running.interrupt();
+        try {
+            running.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        searcher = null;
+    }
+
+    /**
+     * Writes an answer, from the reading or the searching thread.
+     *
+     * @param line the answer.
+     */
+    private synchronized void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+}
@@ -0,0 +1,223 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.player.Color;
+import model.tree.Accumulator;
+import model.tree.BitboardFeatures;
+import model.tree.DecisionTree;
+import model.tree.Evaluator;
+import model.tree.FeatureSet;
+import model.tree.NeuralNetwork;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Main class measuring the speed of the evaluation on positions of random
+ * games, e.g. to compare changes of the terms, measuring them one by one or
+ * by BitboardFeatures, or the handcrafted Evaluator with a NeuralNetwork.
+ * The nodes of shallow DecisionTrees are counted as well, once with each
+ * Node evaluated on its own and once with all children of a Node evaluated
+ * together. Each measured variant runs for some rounds over the same
+ * positions after as many rounds of warm-up, and the best round counts.
+ */
+public final class EvalBenchmark {
+
+    // Amount of positions a tree is grown from.
+    private static final int TREE_ROOTS = 50;
+    // Height of the grown trees.
+    private static final int TREE_HEIGHT = 3;
+
+    private static final String USAGE = "Usage: EvalBenchmark "
+            + "[--positions <n>] [--size <n>] [--rounds <n>] [--seed <n>] "
+            + "[--network <file> | --hidden <n>]";
+
+    /**
+     * Main method running the benchmark.
+     *
+     * @param args the options of the benchmark, see USAGE.
+     */
+    public static void main(String[] args) {
+        int count;
+        int size;
+        int rounds;
+        long seed;
+        NeuralNetwork network;
+        try {
+            Map<String, String> options = SelfPlay.parseOptions(args);
+            count = Integer.parseInt(options.getOrDefault("positions",
+                    "20000"));
+            size = Integer.parseInt(options.getOrDefault("size", "8"));
+            rounds = Integer.parseInt(options.getOrDefault("rounds", "10"));
+            seed = Long.parseLong(options.getOrDefault("seed", "1"));
+            if (count < 1 || rounds < 1) {
+                throw new IllegalArgumentException("At least one position "
+                        + "and round are needed!");
+            }
+            if (options.containsKey("network")) {
+                network = NeuralNetwork.load(Paths.get(
+                        options.get("network")));
+                size = network.getSize();
+            } else {
+                network = NeuralNetwork.random(size, Integer.parseInt(
+                        options.getOrDefault("hidden", "32")), seed);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        } catch (IOException e) {
+            System.out.println("Error! " + e.getMessage());
+            return;
+        }
+
+        List<PawnBoard> positions = randomPositions(count, size, seed);
+        FeatureSet features = Evaluator.getFeatureSet();
+        double[] values = new double[features.size()];
+        Map<String, Runnable> variants = new LinkedHashMap<>();
+        variants.put("scalar extraction", () -> {
+            for (PawnBoard position : positions) {
+                features.extract(position, values);
+            }
+        });
+        if (size <= BitboardFeatures.MAX_SIZE) {
+            double[] designed = new double[features.size()];
+            variants.put("bitboard extraction", () -> {
+                for (PawnBoard position : positions) {
+                    BitboardFeatures.extract(position, designed);
+                }
+            });
+        }
+        variants.put("full evaluation", () -> {
+            for (PawnBoard position : positions) {
+                new Evaluator(position, 1).evaluateBoard();
+            }
+        });
+
+        // Each position with its first layer and a move to update it by.
+        Accumulator[] accumulators = new Accumulator[positions.size()];
+        int[][] moves = new int[positions.size()][];
+        for (int i = 0; i < accumulators.length; i++) {
+            PawnBoard position = positions.get(i);
+            accumulators[i] = network.refresh(position);
+            for (Map.Entry<List<Integer>, List<int[]>> entry : position
+                    .viablePawnMoves(position.getCurrentPlayer()).entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    moves[i] = new int[] {entry.getKey().get(0),
+                            entry.getKey().get(1),
+                            entry.getValue().get(0)[0],
+                            entry.getValue().get(0)[1]};
+                    break;
+                }
+            }
+        }
+        variants.put("network refresh", () -> {
+            for (PawnBoard position : positions) {
+                network.refresh(position).evaluate();
+            }
+        });
+        variants.put("network incremental", () -> {
+            for (int i = 0; i < accumulators.length; i++) {
+                int[] move = moves[i];
+                accumulators[i].moved(positions.get(i), move[0], move[1],
+                        move[2], move[3]).evaluate();
+            }
+        });
+
+        System.out.println(positions.size() + " positions of size " + size
+                + ", " + features.size() + " terms, " + network.getHidden()
+                + " hidden neurons");
+        variants.forEach((name, variant) ->
+                System.out.println(measure(name, variant, positions.size(),
+                        rounds)));
+
+        // Trees grown from some positions, measured in nodes per second.
+        List<PawnBoard> roots = positions.subList(0,
+                Math.min(TREE_ROOTS, positions.size()));
+        long leaves = 0;
+        for (PawnBoard root : roots) {
+            leaves += new DecisionTree(root, TREE_HEIGHT).getNodeCount();
+        }
+        System.out.println(roots.size() + " trees of height " + TREE_HEIGHT
+                + ", " + leaves + " nodes");
+        for (boolean batched : new boolean[] {false, true}) {
+            String name = batched ? "tree batched" : "tree per node";
+            System.out.println(measure(name, () -> {
+                for (PawnBoard root : roots) {
+                    new DecisionTree(root, TREE_HEIGHT, batched);
+                }
+            }, (int) leaves, rounds));
+        }
+    }
+
+    /**
+     * Runs a variant for the given rounds as warm-up and then for the given
+     * rounds measured.
+     *
+     * @param name the name of the variant.
+     * @param variant the variant, evaluating all positions once.
+     * @param count the amount of positions.
+     * @param rounds the amount of measured rounds.
+     * @return a line with the speed of the best round.
+     */
+    static String measure(String name, Runnable variant, int count,
+                          int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            variant.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            variant.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return String.format(Locale.ROOT,
+                "%-20s %12.0f evals/s %8.1f ns/eval", name,
+                count / (best / 1e9), (double) best / count);
+    }
+
+    /**
+     * Collects the positions of random games until enough are found.
+     *
+     * @param count the amount of positions wanted.
+     * @param size the number of columns and rows of the board.
+     * @param seed the seed of the random moves.
+     * @return the positions, none of them finished.
+     */
+    static List<PawnBoard> randomPositions(int count, int size, long seed) {
+        Random random = new Random(seed);
+        List<PawnBoard> toReturn = new ArrayList<>();
+        while (toReturn.size() < count) {
+            PawnBoard board = new PawnBoard(random.nextInt(2), 1,
+                    random.nextBoolean() ? Color.WHITE : Color.BLACK, size);
+            while (!board.isGameOver() && toReturn.size() < count) {
+                toReturn.add(board.clone());
+                List<int[]> moves = new ArrayList<>();
+                board.viablePawnMoves(board.getCurrentPlayer())
+                        .forEach((pawn, targets) -> {
+                            for (int[] target : targets) {
+                                moves.add(new int[] {pawn.get(0), pawn.get(1),
+                                        target[0], target[1]});
+                            }
+                        });
+                int[] move = moves.get(random.nextInt(moves.size()));
+                board = board.moving(move[0], move[1], move[2], move[3]);
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private EvalBenchmark() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
@@ -0,0 +1,92 @@
+package controller;
+
+import model.record.GameRecord;
+
+/**
+ * Class holding the outcome of a game between two engines, the first and the
+ * second one, together with the time they needed for their moves and the
+ * record of the game.
+ */
+public class GameResult {
+    private final int score;
+    private final long[] firstNanos;
+    private final long firstNodes;
+    private final long[] secondNanos;
+    private final long secondNodes;
+    private final GameRecord record;
+
+    /**
+     * Constructor for a finished game.
+     *
+     * @param score 1 if the first engine won, -1 if it lost, 0 for a draw.
+     * @param firstNanos the time needed for each move of the first engine.
+     * @param firstNodes the situations examined by the first engine.
+     * @param secondNanos the time needed for each move of the second engine.
+     * @param secondNodes the situations examined by the second engine.
+     * @param record the moves of the game.
+     */
+    public GameResult(int score, long[] firstNanos, long firstNodes,
+                      long[] secondNanos, long secondNodes,
+                      GameRecord record) {
+        this.score = score;
+        this.firstNanos = firstNanos;
+        this.firstNodes = firstNodes;
+        this.secondNanos = secondNanos;
+        this.secondNodes = secondNodes;
+        this.record = record;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return 1 if the first engine won, -1 if it lost, 0 for a draw.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the time needed for each move of the first engine.
+     */
+    public long[] getFirstNanos() {
+        return firstNanos;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the situations examined by the first engine.
+     */
+    public long getFirstNodes() {
+        return firstNodes;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the time needed for each move of the second engine.
+     */
+    public long[] getSecondNanos() {
+        return secondNanos;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the situations examined by the second engine.
+     */
+    public long getSecondNodes() {
+        return secondNodes;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the moves of the game.
+     */
+    public GameRecord getRecord() {
+        return record;
+    }
+}
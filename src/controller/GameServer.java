@@ -0,0 +1,261 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.tree.SearchScheduler;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless server hosting many games at once, one GameSession per
+ * connection on a socket of the local machine. Every session runs on a
+ * virtual thread where the runtime offers them (Java 21 and later, found via
+ * reflection), on a cached pool of platform threads otherwise, so idle
+ * sessions waiting for input cost hardly anything. The machine moves of all
+ * sessions share the slots of a SearchScheduler, one per core, so searches
+ * queue up instead of starving the sessions reading and answering their
+ * sockets, and games with little think time left are served first. Each
+ * search may create a limited amount of nodes, by default enough for half
+ * the heap to hold the trees of all slots, so no level or board size can
+ * run the server out of memory.
+ */
+public final class GameServer implements AutoCloseable {
+
+    private static final String USAGE = "Usage: GameServer [--port <n>] "
+            + "[--threads <n>] [--max-sessions <n>] [--max-level <n>] "
+            + "[--max-nodes <n>] [--slice-nodes <n>] [--slice-millis <n>]";
+
+    /**
+     * Highest level sessions may choose by default, as in the GUI.
+     */
+    public static final int DEFAULT_MAX_LEVEL = 5;
+
+    // Memory of a node of the DecisionTree on the largest board, rounded up.
+    private static final long BYTES_PER_NODE = 1024;
+
+    private final ServerSocket socket;
+    private final ExecutorService sessionPool;
+    private final SearchScheduler scheduler;
+    private final int maxSessions;
+    private final int maxLevel;
+    private final Map<Long, GameSession> sessions;
+    private final AtomicLong nextId;
+
+    /**
+     * Constructor opening the socket, without accepting connections yet.
+     *
+     * @param port the port on the loopback address, 0 for any free one.
+     * @param threads the amount of searches running at once.
+     * @param maxSessions the maximum amount of sessions at once.
+     * @param maxLevel the highest level a session may choose.
+     * @param maxNodes the nodes a single search may create, as its whole
+     *                 tree is kept in memory.
+     * @param sliceNodes the nodes a search may create per slice.
+     * @param sliceMillis the time a search may run per slice.
+     * @throws IOException if the socket cannot be opened.
+     */
+    public GameServer(int port, int threads, int maxSessions, int maxLevel,
+                      long maxNodes, long sliceNodes, long sliceMillis)
+            throws IOException {
+        if (threads < 1 || maxSessions < 1 || maxLevel < 1) {
+            throw new IllegalArgumentException("At least one thread, "
+                    + "session and level are needed!");
+        }
+        this.socket = new ServerSocket(port, 128,
+                InetAddress.getLoopbackAddress());
+        this.sessionPool = newSessionPool();
+        this.scheduler = new SearchScheduler(threads, maxNodes, sliceNodes,
+                sliceMillis);
+        this.maxSessions = maxSessions;
+        this.maxLevel = maxLevel;
+        this.sessions = new ConcurrentHashMap<>();
+        this.nextId = new AtomicLong();
+    }
+
+    /**
+     * Main method running a server until the process is killed.
+     *
+     * @param args the options of the server, see USAGE.
+     * @throws IOException if the socket fails.
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options;
+        int port;
+        int threads;
+        int maxSessions;
+        int maxLevel;
+        long maxNodes;
+        long sliceNodes;
+        long sliceMillis;
+        try {
+            options = SelfPlay.parseOptions(args);
+            port = Integer.parseInt(options.getOrDefault("port", "0"));
+            threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime()
+                            .availableProcessors())));
+            maxSessions = Integer.parseInt(options.getOrDefault(
+                    "max-sessions", "10000"));
+            maxLevel = Integer.parseInt(options.getOrDefault("max-level",
+                    String.valueOf(DEFAULT_MAX_LEVEL)));
+            maxNodes = Long.parseLong(options.getOrDefault("max-nodes",
+                    String.valueOf(Runtime.getRuntime().maxMemory() / 2
+                            / Math.max(1, threads) / BYTES_PER_NODE)));
+            sliceNodes = Long.parseLong(options.getOrDefault("slice-nodes",
+                    "20000"));
+            sliceMillis = Long.parseLong(options.getOrDefault(
+                    "slice-millis", "20"));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+        try (GameServer server = new GameServer(port, threads, maxSessions,
+                maxLevel, maxNodes, sliceNodes, sliceMillis)) {
+            System.out.println("Listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+    /**
+     * Creates the executor running one thread per session, preferring
+     * virtual threads.
+     *
+     * @return the executor.
+     */
+    private static ExecutorService newSessionPool() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException
+                | InvocationTargetException e) {
+            return Executors.newCachedThreadPool(session -> {
+                Thread thread = new Thread(session, "session");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the port the server listens on.
+     */
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of sessions connected right now.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Accepts connections until the server is closed, starting a session
+     * for each one.
+     *
+     * @throws IOException if accepting fails while the server is open.
+     */
+    public void serve() throws IOException {
+        while (!socket.isClosed()) {
+            Socket connection;
+            try {
+                connection = socket.accept();
+            } catch (IOException e) {
+                if (socket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            long id = nextId.incrementAndGet();
+            GameSession session = new GameSession(id, connection, this);
+            if (sessions.size() >= maxSessions) {
+                session.reject("Server full!");
+            } else {
+                sessions.put(id, session);
+                sessionPool.execute(() -> {
+                    try {
+                        session.run();
+                    } finally {
+                        sessions.remove(id);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the highest level a session may choose.
+     */
+    int getMaxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * Summarizes the load of the server.
+     *
+     * @return a single line with the sessions and the metrics of the
+     * scheduler.
+     */
+    String getMetrics() {
+        return "sessions " + sessions.size() + " " + scheduler.getMetrics();
+    }
+
+    /**
+     * Lets the computer move on the scheduler, waiting for the result
+     * without occupying a slot.
+     *
+     * @param board the situation with the computer to move.
+     * @param thinkMillis the time left for the move, UNLIMITED of
+     *                    SearchScheduler if none.
+     * @return a new board with the move of the computer performed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    PawnBoard machineMove(PawnBoard board, long thinkMillis)
+            throws InterruptedException {
+        Future<PawnBoard> move = scheduler.submit(board, thinkMillis);
+        try {
+            return move.get();
+        } catch (InterruptedException e) {
+            move.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops accepting connections and ends all sessions.
+     *
+     * @throws IOException if the socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        socket.close();
+        for (GameSession session : sessions.values()) {
+            session.close();
+        }
+        sessionPool.shutdownNow();
+        scheduler.close();
+    }
+}
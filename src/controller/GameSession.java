@@ -0,0 +1,321 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.exception.IllegalMoveException;
+import model.player.Color;
+import model.record.GameRecord;
+import model.record.MoveHistory;
+import model.tree.SearchScheduler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single game of a GameServer, played by the client of one connection
+ * against the computer. The session keeps its own board and a MoveHistory
+ * of the moves played so far for undo, redo and goto.
+ * Commands, one per line, each answered by one or more lines:
+ * <pre>
+ * new [size n] [level n] [color white|black] [first human|computer]
+ * move a1a2                  -> machine move(s), position, result if over
+ * undo                       -> position before the last move of the human
+ * redo                       -> position before the next move of the human
+ * goto n                     -> position after n plies
+ * position                   -> position in the notation of PositionNotation
+ * history                    -> history with all moves up to the position
+ * level n                    -> level n
+ * time ms                    -> time ms, think time left for the computer
+ * stats                      -> sessions and metrics of the scheduler
+ * quit
+ * </pre>
+ * Errors are answered by a line starting with error, also if the search of
+ * the computer exceeds the nodes the server allows. Then the computer is
+ * still to move, and undo or new go on with a lower level. A move after
+ * undo, redo or goto drops all moves that could still be redone. If goto
+ * ends in a situation with the computer to move, redo or goto go on from
+ * there.
+ */
+final class GameSession implements Runnable {
+
+    private final long id;
+    private final Socket connection;
+    private final GameServer server;
+    private PawnBoard board;
+    private int level;
+    // Think time left for the computer, UNLIMITED if no clock is used.
+    private long thinkMillis;
+    private MoveHistory history;
+    private PrintWriter out;
+
+    /**
+     * Constructor for a session starting with an 8 x 8 board, the human
+     * playing white and moving first.
+     *
+     * @param id the number of the session.
+     * @param connection the connection to the client.
+     * @param server the server running the searches.
+     */
+    GameSession(long id, Socket connection, GameServer server) {
+        this.id = id;
+        this.connection = connection;
+        this.server = server;
+        this.level = Math.min(3, server.getMaxLevel());
+        this.thinkMillis = SearchScheduler.UNLIMITED;
+        this.board = new PawnBoard(0, level, Color.WHITE);
+        this.history = new MoveHistory(board);
+    }
+
+    /**
+     * Reads and answers commands until the client quits or disconnects.
+     */
+    @Override
+    public void run() {
+        try (Socket toClose = connection;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     toClose.getInputStream(), StandardCharsets.UTF_8))) {
+            out = new PrintWriter(new OutputStreamWriter(
+                    toClose.getOutputStream(), StandardCharsets.UTF_8));
+            send("session " + id);
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] parts = line.trim().split("\\s+");
+                if (parts[0].equals("quit")) {
+                    break;
+                } else if (!parts[0].isEmpty()) {
+                    try {
+                        execute(parts);
+                    } catch (IllegalArgumentException
+                            | IllegalMoveException e) {
+                        send("error " + e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Client gone, nothing left to answer.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Answers a connection the server does not accept and closes it.
+     *
+     * @param reason the reason for the client.
+     */
+    void reject(String reason) {
+        try (Socket toClose = connection) {
+            toClose.getOutputStream().write(("error " + reason
+                    + System.lineSeparator()).getBytes(
+                    StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // Client gone, nothing left to answer.
+        }
+    }
+
+    /**
+     * Ends the session by closing its connection.
+     */
+    void close() {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // Closed anyway.
+        }
+    }
+
+    /**
+     * Executes a single command.
+     *
+     * @param parts the words of the command.
+     * @throws InterruptedException if interrupted while the computer moves.
+     * @throws IllegalArgumentException if the command is invalid.
+     */
+    private void execute(String[] parts) throws InterruptedException {
+        switch (parts[0]) {
+            case "new" -> newGame(parts);
+            case "move" -> {
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("Expected move "
+                            + "<move>!");
+                }
+                humanMove(parts[1]);
+            }
+            case "undo" -> {
+                if (!history.canUndo()) {
+                    throw new IllegalArgumentException("No turns to undo!");
+                }
+                board = history.undo(level);
+                sendPosition();
+            }
+            case "redo" -> {
+                if (!history.canRedo()) {
+                    throw new IllegalArgumentException("No turns to redo!");
+                }
+                board = history.redo(level);
+                sendPosition();
+            }
+            case "goto" -> {
+                int ply = Integer.parseInt(parts.length == 2 ? parts[1]
+                        : "");
+                if (ply < 0 || ply > history.getLength()) {
+                    throw new IllegalArgumentException("No ply " + ply
+                            + "!");
+                }
+                board = history.jumpTo(ply, level);
+                sendPosition();
+            }
+            case "time" -> {
+                thinkMillis = Long.parseLong(parts.length == 2 ? parts[1]
+                        : "");
+                if (thinkMillis < 0) {
+                    throw new IllegalArgumentException("Time must not be "
+                            + "negative!");
+                }
+                send("time " + thinkMillis);
+            }
+            case "stats" -> send(server.getMetrics());
+            case "position" -> sendPosition();
+            case "history" -> send(("history " + history.formatMoves(
+                    board.getSize())).trim());
+            case "level" -> {
+                level = parseLevel(parts.length == 2 ? parts[1] : "");
+                board = withLevel(board);
+                send("level " + level);
+            }
+            default -> throw new IllegalArgumentException("Unknown command "
+                    + parts[0] + "!");
+        }
+    }
+
+    /**
+     * Starts a new game, letting the computer open if wanted.
+     *
+     * @param parts the words of the command.
+     * @throws InterruptedException if interrupted while the computer moves.
+     * @throws IllegalArgumentException if an option is invalid.
+     */
+    private void newGame(String[] parts) throws InterruptedException {
+        int size = PawnBoard.MAX_SIZE / 2;
+        int newLevel = level;
+        Color color = Color.WHITE;
+        int starter = 0;
+        for (int i = 1; i + 1 < parts.length; i += 2) {
+            switch (parts[i]) {
+                case "size" -> size = Integer.parseInt(parts[i + 1]);
+                case "level" -> newLevel = parseLevel(parts[i + 1]);
+                case "color" -> color = parts[i + 1].equals("black")
+                        ? Color.BLACK : Color.WHITE;
+                case "first" -> starter = parts[i + 1].equals("computer")
+                        ? 1 : 0;
+                default -> throw new IllegalArgumentException("Unknown "
+                        + "option " + parts[i] + "!");
+            }
+        }
+        board = new PawnBoard(starter, newLevel, color, size);
+        level = newLevel;
+        history = new MoveHistory(board);
+        computerMoves();
+    }
+
+    /**
+     * Performs a move of the human and answers it by the computer.
+     *
+     * @param move the move, e.g. a1a2.
+     * @throws InterruptedException if interrupted while the computer moves.
+     * @throws IllegalArgumentException if the move is not possible.
+     */
+    private void humanMove(String move) throws InterruptedException {
+        if (board.isGameOver()) {
+            throw new IllegalMoveException("Game already over!");
+        } else if (board.getCurrentPlayer().getColor()
+                != board.getHumanColor()) {
+            throw new IllegalMoveException("Not your turn!");
+        }
+        int size = board.getSize();
+        int packed = PositionNotation.parseMove(move, 0, move.length(),
+                size);
+        board = board.move(packed >>> 24, (packed >>> 16) & 0xFF,
+                (packed >>> 8) & 0xFF, packed & 0xFF);
+        history.add(packed, true, board);
+        computerMoves();
+    }
+
+    /**
+     * Lets the computer move as long as it is its turn and reports the new
+     * situation.
+     *
+     * @throws InterruptedException if interrupted while the computer moves.
+     */
+    private void computerMoves() throws InterruptedException {
+        while (!board.isGameOver() && board.getCurrentPlayer().getColor()
+                == board.getComputerColor()) {
+            PawnBoard before = board;
+            long start = System.nanoTime();
+            board = server.machineMove(board, thinkMillis);
+            if (thinkMillis != SearchScheduler.UNLIMITED) {
+                thinkMillis = Math.max(0, thinkMillis
+                        - (System.nanoTime() - start) / 1_000_000);
+            }
+            int move = PositionNotation.findMove(before, board);
+            history.add(move, false, board);
+            send("machine " + PositionNotation.formatMove(move,
+                    board.getSize()));
+        }
+        sendPosition();
+        if (board.isGameOver()) {
+            send("result " + GameRecord.resultOf(board));
+        }
+    }
+
+    /**
+     * Parses a level of difficulty, limited by the server. The level alone
+     * does not bound the tree, which also grows with the size of the board,
+     * so the server limits the nodes of each search as well.
+     *
+     * @param text the level.
+     * @return the level, between 1 and the maximum level of the server.
+     * @throws IllegalArgumentException if the level is invalid.
+     */
+    private int parseLevel(String text) {
+        int toReturn = Integer.parseInt(text);
+        if (toReturn < 1 || toReturn > server.getMaxLevel()) {
+            throw new IllegalArgumentException("Level must be between 1 "
+                    + "and " + server.getMaxLevel() + "!");
+        }
+        return toReturn;
+    }
+
+    /**
+     * Copies a situation to be searched at the level of this session.
+     *
+     * @param situation the situation.
+     * @return the copy.
+     */
+    private PawnBoard withLevel(PawnBoard situation) {
+        return PositionNotation.parse(PositionNotation.format(situation),
+                level);
+    }
+
+    /**
+     * Sends the current situation.
+     */
+    private void sendPosition() {
+        send("position " + PositionNotation.format(board));
+    }
+
+    /**
+     * Sends a line to the client.
+     *
+     * @param line the line.
+     */
+    private void send(String line) {
+        out.println(line);
+        out.flush();
+    }
+}
@@ -0,0 +1,216 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Main class checking that the engine still plays as before, e.g. after
+ * making PawnBoard, DecisionTree or Evaluator faster. A golden file holds a
+ * fixed corpus of situations, each with a level, and the best move, score
+ * and time the engine had for it when the file was written. Each situation
+ * is searched again by a DecisionTree of its level and must give the same
+ * move and score. The time of each situation, the best of some rounds, is
+ * reported next to the golden one, so speed regressions show up in the
+ * same run and may be turned into failures by --max-slowdown.
+ *
+ * The golden file has one situation per line, fields separated by tabs:
+ * <pre>
+ * level  position  bestmove  score  millis
+ * </pre>
+ * with the position in the notation of PositionNotation. Empty lines and
+ * lines starting with # are kept as they are. Lines holding only level and
+ * position are new to the corpus; --mode update fills in or replaces the
+ * golden values of all lines with those of the current engine.
+ *
+ * The process exits with status 1 if any situation failed, so scripts can
+ * run the check after every change. GoldenRegressionTest checks the moves
+ * and scores of the same file along with the unit tests, without timing.
+ */
+public final class GoldenRegression {
+
+    private static final String USAGE = "Usage: GoldenRegression "
+            + "[--golden <file>] [--mode check|update] [--rounds <n>] "
+            + "[--max-slowdown <factor>]";
+
+    /**
+     * Golden file used if none is given, relative to the project.
+     */
+    static final String DEFAULT_GOLDEN = "golden/engine.tsv";
+
+    /**
+     * Main method running the check or the update.
+     *
+     * @param args the options, see USAGE.
+     */
+    public static void main(String[] args) {
+        Path golden;
+        boolean update;
+        int rounds;
+        double maxSlowdown;
+        List<String> lines;
+        try {
+            Map<String, String> options = SelfPlay.parseOptions(args);
+            golden = Paths.get(options.getOrDefault("golden",
+                    DEFAULT_GOLDEN));
+            String mode = options.getOrDefault("mode", "check");
+            if (!mode.equals("check") && !mode.equals("update")) {
+                throw new IllegalArgumentException("Unknown mode " + mode
+                        + "!");
+            }
+            update = mode.equals("update");
+            rounds = Integer.parseInt(options.getOrDefault("rounds", "3"));
+            maxSlowdown = Double.parseDouble(options.getOrDefault(
+                    "max-slowdown", "0"));
+            if (rounds < 1 || maxSlowdown < 0) {
+                throw new IllegalArgumentException("At least one round is "
+                        + "needed, slowdown must not be negative!");
+            }
+            lines = Files.readAllLines(golden);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        } catch (IOException e) {
+            System.out.println("Error! Golden file not read: "
+                    + e.getMessage());
+            return;
+        }
+
+        List<String> updated = new ArrayList<>();
+        int checked = 0;
+        int failed = 0;
+        int slow = 0;
+        double total = 0;
+        double goldenTotal = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                updated.add(line);
+                continue;
+            }
+            String[] fields = line.split("\t");
+            int level;
+            PawnBoard board;
+            try {
+                if (fields.length != 2 && fields.length != 5) {
+                    throw new IllegalArgumentException("Expected 2 or 5 "
+                            + "fields!");
+                }
+                level = Integer.parseInt(fields[0]);
+                if (level < 1) {
+                    throw new IllegalArgumentException("Level must be at "
+                            + "least 1!");
+                }
+                board = PositionNotation.parse(fields[1], level);
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error! Line " + (i + 1) + ": "
+                        + e.getMessage());
+                return;
+            }
+
+            String[] result = search(board, level);
+            double millis = Double.POSITIVE_INFINITY;
+            for (int round = 0; round < rounds; round++) {
+                long start = System.nanoTime();
+                search(board, level);
+                millis = Math.min(millis,
+                        (System.nanoTime() - start) / 1e6);
+            }
+            checked++;
+            total += millis;
+            String timing = String.format(Locale.ROOT, "%.3f", millis);
+            if (update) {
+                updated.add(fields[0] + "\t" + fields[1] + "\t" + result[0]
+                        + "\t" + result[1] + "\t" + timing);
+                System.out.println(String.format(Locale.ROOT,
+                        "%-6s %9.3f ms  level %d  %s", "set", millis, level,
+                        fields[1]));
+                continue;
+            }
+
+            String status = "ok";
+            String detail = "";
+            if (fields.length == 2) {
+                status = "NEW";
+                detail = "  no golden values, run --mode update";
+                failed++;
+            } else {
+                double goldenMillis = Double.parseDouble(fields[4]);
+                goldenTotal += goldenMillis;
+                double ratio = millis / Math.max(goldenMillis, 1e-3);
+                detail = String.format(Locale.ROOT, "  golden %.3f ms "
+                        + "x%.2f", goldenMillis, ratio);
+                if (!result[0].equals(fields[2])
+                        || !result[1].equals(fields[3])) {
+                    status = "FAIL";
+                    detail += "  expected " + fields[2] + " " + fields[3]
+                            + " got " + result[0] + " " + result[1];
+                    failed++;
+                } else if (maxSlowdown > 0 && ratio > maxSlowdown) {
+                    status = "SLOW";
+                    slow++;
+                }
+            }
+            System.out.println(String.format(Locale.ROOT,
+                    "%-6s %9.3f ms  level %d  %s%s", status, millis, level,
+                    fields[1], detail));
+        }
+
+        if (update) {
+            try (BufferedWriter out = Files.newBufferedWriter(golden)) {
+                for (String line : updated) {
+                    out.write(line);
+                    out.newLine();
+                }
+            } catch (IOException e) {
+                System.out.println("Error! Golden file not written: "
+                        + e.getMessage());
+                return;
+            }
+            System.out.println(String.format(Locale.ROOT,
+                    "%d positions written, %.3f ms", checked, total));
+            return;
+        }
+        System.out.println(String.format(Locale.ROOT,
+                "%d positions, %d failed, %d slow, %.3f ms (golden %.3f "
+                        + "ms)", checked, failed, slow, total, goldenTotal));
+        if (failed > 0 || slow > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Searches a situation by a single DecisionTree of the given level, as
+     * the computer does, but for the player to move, see PositionAnalysis.
+     *
+     * @param board the situation, not changed.
+     * @param level the height of the tree.
+     * @return the best move, none if the game is over, and its score with
+     * four decimals.
+     */
+    static String[] search(PawnBoard board, int level) {
+        PositionAnalysis analysis = PositionAnalysis.search(board, level,
+                false);
+        String move = analysis.getBestMove();
+        return new String[] {move == null ? "none" : move,
+                String.format(Locale.ROOT, "%.4f", analysis.getScore())};
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private GoldenRegression() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
@@ -64,6 +64,10 @@ public class Handler implements ActionListener {
                     controller.killCurrentSwingWorker();
                     controller.undoMove();
                 }
+                case "Redo" -> {
+                    controller.killCurrentSwingWorker();
+                    controller.redoMove();
+                }
                 case "Quit" -> {
                     System.exit(0);
                 }
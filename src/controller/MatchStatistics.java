@@ -0,0 +1,260 @@
+package controller;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Class collecting the results of a match between two engines, the first and
+ * the second one, and estimating their difference in playing strength. Also
+ * keeps the speed of both engines. May be fed by several threads at once.
+ */
+public class MatchStatistics {
+    private int wins;
+    private int draws;
+    private int losses;
+    private final Speed firstSpeed;
+    private final Speed secondSpeed;
+
+    /**
+     * Constructor for an empty match.
+     */
+    public MatchStatistics() {
+        firstSpeed = new Speed();
+        secondSpeed = new Speed();
+    }
+
+    /**
+     * Adds a finished game.
+     *
+     * @param result the game with its outcome and the recorded moves.
+     */
+    public synchronized void add(GameResult result) {
+        if (result.getScore() > 0) {
+            wins++;
+        } else if (result.getScore() < 0) {
+            losses++;
+        } else {
+            draws++;
+        }
+        firstSpeed.add(result.getFirstNanos(), result.getFirstNodes());
+        secondSpeed.add(result.getSecondNanos(), result.getSecondNodes());
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of games won by the first engine.
+     */
+    public synchronized int getWins() {
+        return wins;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of drawn games.
+     */
+    public synchronized int getDraws() {
+        return draws;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of games lost by the first engine.
+     */
+    public synchronized int getLosses() {
+        return losses;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of finished games.
+     */
+    public synchronized int getGames() {
+        return wins + draws + losses;
+    }
+
+    /**
+     * Calculates the share of points scored by the first engine, counting
+     * a draw as half a point.
+     *
+     * @return the score between 0 and 1.
+     */
+    public synchronized double getScore() {
+        return (wins + draws / 2.0) / getGames();
+    }
+
+    /**
+     * Estimates how much stronger the first engine is.
+     *
+     * @return the Elo difference of the first to the second engine.
+     */
+    public synchronized double getElo() {
+        return toElo(getScore());
+    }
+
+    /**
+     * Estimates the half width of the 95% confidence interval of the Elo
+     * difference, based on the spread of the single game results.
+     *
+     * @return the Elo margin, infinite if all games ended equally.
+     */
+    public synchronized double getEloMargin() {
+        int games = getGames();
+        double score = getScore();
+        if (score <= 0 || score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double variance = (wins * Math.pow(1 - score, 2)
+                + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / games;
+        double deviation = Math.sqrt(variance / games);
+        double upper = toElo(score + 1.96 * deviation);
+        double lower = toElo(score - 1.96 * deviation);
+        return (upper - lower) / 2;
+    }
+
+    /**
+     * Calculates the log-likelihood ratio of the hypothesis that the first
+     * engine is elo1 stronger against the one that it is elo0 stronger,
+     * using the normal approximation of the generalized SPRT.
+     *
+     * @param elo0 the Elo difference of the null hypothesis.
+     * @param elo1 the Elo difference of the alternative hypothesis.
+     * @return the ratio, 0 as long as the games do not differ.
+     */
+    public synchronized double getLogLikelihoodRatio(double elo0,
+                                                     double elo1) {
+        int games = getGames();
+        if (games == 0) {
+            return 0;
+        }
+        double score = getScore();
+        double variance = (wins * Math.pow(1 - score, 2)
+                + draws * Math.pow(0.5 - score, 2)
+                + losses * Math.pow(score, 2)) / games;
+        if (variance <= 0) {
+            return 0;
+        }
+        double score0 = toScore(elo0);
+        double score1 = toScore(elo1);
+        return games * (score1 - score0) * (2 * score - score0 - score1)
+                / (2 * variance);
+    }
+
+    /**
+     * Converts an Elo difference into the expected score.
+     *
+     * @param elo the Elo difference.
+     * @return the share of points between 0 and 1.
+     */
+    public static double toScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Converts a score into an Elo difference.
+     *
+     * @param score the share of points between 0 and 1.
+     * @return the Elo difference, infinite for scores of 0 or 1.
+     */
+    public static double toElo(double score) {
+        if (score <= 0) {
+            return Double.NEGATIVE_INFINITY;
+        } else if (score >= 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Creates a short line with the current standing.
+     *
+     * @return the standing as text.
+     */
+    public synchronized String standing() {
+        return String.format(Locale.ROOT,
+                "Games %d: +%d =%d -%d, score %.1f%%, Elo %.1f +/- %.1f",
+                getGames(), wins, draws, losses, 100 * getScore(), getElo(),
+                getEloMargin());
+    }
+
+    /**
+     * Creates the full report with the standing and the speed of both
+     * engines.
+     *
+     * @param first the name of the first engine.
+     * @param second the name of the second engine.
+     * @return the report as text.
+     */
+    public synchronized String report(String first, String second) {
+        return standing() + System.lineSeparator()
+                + firstSpeed.report(first) + System.lineSeparator()
+                + secondSpeed.report(second);
+    }
+
+    /**
+     * Class holding the time needed for each move of an engine and the
+     * amount of situations it examined.
+     */
+    private static final class Speed {
+        private long[] moveNanos = new long[1024];
+        private int moves;
+        private long nodes;
+        private long nanos;
+
+        /**
+         * Adds the moves of a game.
+         *
+         * @param gameNanos the time needed for each move.
+         * @param gameNodes the amount of situations examined in the game.
+         */
+        private void add(long[] gameNanos, long gameNodes) {
+            if (moves + gameNanos.length > moveNanos.length) {
+                moveNanos = Arrays.copyOf(moveNanos,
+                        Math.max(2 * moveNanos.length,
+                                moves + gameNanos.length));
+            }
+            for (long current : gameNanos) {
+                moveNanos[moves++] = current;
+                nanos += current;
+            }
+            nodes += gameNodes;
+        }
+
+        /**
+         * Creates a line with the speed of the engine.
+         *
+         * @param name the name of the engine.
+         * @return the line as text.
+         */
+        private String report(String name) {
+            long[] sorted = Arrays.copyOf(moveNanos, moves);
+            Arrays.sort(sorted);
+            double seconds = nanos / 1e9;
+            return String.format(Locale.ROOT,
+                    "%s: %d moves, %.0f nodes/s, move ms p50 %.2f p90 %.2f "
+                            + "p99 %.2f max %.2f", name, moves,
+                    seconds > 0 ? nodes / seconds : 0,
+                    percentile(sorted, 0.5), percentile(sorted, 0.9),
+                    percentile(sorted, 0.99), percentile(sorted, 1));
+        }
+
+        /**
+         * Picks a percentile out of sorted times.
+         *
+         * @param sorted the times in ascending order.
+         * @param share the percentile between 0 and 1.
+         * @return the time in milliseconds, 0 if no times exist.
+         */
+        private static double percentile(long[] sorted, double share) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(share * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
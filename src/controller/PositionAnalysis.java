@@ -0,0 +1,208 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.tree.DecisionTree;
+import model.tree.IterativeDeepening;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Result of analysing a single situation with the minimax engine: the best
+ * move and the variation expected after it, its score for the player to
+ * move, the depth reached and the nodes and time spent. This is the one
+ * place searching a situation for the player to move, which the
+ * DecisionTree only does for the computer, so the BatchAnalysis, the
+ * EngineProtocol and the GoldenRegression all search the same way. The
+ * tree is deepened one ply at a time, and a ply cut off by a limit is not
+ * used.
+ */
+final class PositionAnalysis {
+
+    private final List<String> variation;
+    private final double score;
+    private final int depth;
+    private final long nodes;
+    private final long nanos;
+
+    /**
+     * Constructor for a finished analysis.
+     *
+     * @param variation the best move followed by the moves expected after
+     *                  it, e.g. a1a2, empty if the game is over.
+     * @param score the score of the best move for the player to move.
+     * @param depth the height of the last finished tree.
+     * @param nodes the amount of nodes of all trees.
+     * @param nanos the time spent in nanoseconds.
+     */
+    private PositionAnalysis(List<String> variation, double score,
+                             int depth, long nodes, long nanos) {
+        this.variation = variation;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Analyses a situation, deepening until the maximum depth or the time
+     * limit is reached. The first ply is always finished.
+     *
+     * @param board the situation, not changed.
+     * @param maxDepth the maximum height of the tree, at least 1.
+     * @param millis the maximum time in milliseconds, 0 if unlimited.
+     * @return the analysis.
+     */
+    static PositionAnalysis analyze(PawnBoard board, int maxDepth,
+                                    long millis) {
+        return analyze(board, maxDepth, millis, 0, false, null);
+    }
+
+    /**
+     * Analyses a situation, deepening until a limit is reached or the
+     * thread is interrupted, see IterativeDeepening.
+     *
+     * @param board the situation, not changed.
+     * @param maxDepth the maximum height of the tree, at least 1.
+     * @param millis the maximum time in milliseconds, 0 if unlimited.
+     * @param maxNodes the maximum amount of nodes of all trees, 0 if
+     *                 unlimited.
+     * @param batched true to evaluate all children of a node together.
+     * @param listener gets the analysis up to each finished ply, null if
+     *                 none.
+     * @return the analysis.
+     */
+    static PositionAnalysis analyze(PawnBoard board, int maxDepth,
+                                    long millis, long maxNodes,
+                                    boolean batched,
+                                    Consumer<PositionAnalysis> listener) {
+        long start = System.nanoTime();
+        long deadline = millis > 0 ? start + millis * 1_000_000
+                : Long.MAX_VALUE;
+        boolean flip = board.getCurrentPlayer().getColor()
+                != board.getComputerColor();
+        IterativeDeepening search = new IterativeDeepening(flip
+                ? board.flipped() : board.clone(), maxDepth, batched,
+                nodes -> Thread.currentThread().isInterrupted()
+                        || System.nanoTime() >= deadline
+                        || (maxNodes > 0 && nodes >= maxNodes),
+                listener == null ? null : ply -> listener.accept(of(board,
+                        flip, ply.getTree(), ply.getDepth(),
+                        ply.getNodeCount(), System.nanoTime() - start)));
+        if (search.getTree() == null) {
+            return new PositionAnalysis(List.of(), 0, 0,
+                    search.getNodeCount(), System.nanoTime() - start);
+        }
+        return of(board, flip, search.getTree(), search.getDepth(),
+                search.getNodeCount(), System.nanoTime() - start);
+    }
+
+    /**
+     * Searches a situation by a single DecisionTree, as the computer does,
+     * but for the player to move.
+     *
+     * @param board the situation, not changed.
+     * @param depth the height of the tree, at least 1.
+     * @param batched true to evaluate all children of a node together.
+     * @return the analysis of the tree, of depth 0 if the game is over.
+     */
+    static PositionAnalysis search(PawnBoard board, int depth,
+                                   boolean batched) {
+        long start = System.nanoTime();
+        if (board.isGameOver()) {
+            return new PositionAnalysis(List.of(), 0, 0, 0,
+                    System.nanoTime() - start);
+        }
+        boolean flip = board.getCurrentPlayer().getColor()
+                != board.getComputerColor();
+        DecisionTree tree = new DecisionTree(flip ? board.flipped()
+                : board.clone(), depth, batched);
+        tree.bestMove();
+        return of(board, flip, tree, depth, tree.getNodeCount(),
+                System.nanoTime() - start);
+    }
+
+    /**
+     * Turns a searched tree into an analysis, mapping its principal
+     * variation back onto the analysed situation.
+     *
+     * @param board the analysed situation.
+     * @param flip true if the tree searched the flipped situation.
+     * @param tree the tree, after its bestMove.
+     * @param depth the height of the tree.
+     * @param nodes the amount of nodes of all trees.
+     * @param nanos the time spent in nanoseconds.
+     * @return the analysis.
+     */
+    private static PositionAnalysis of(PawnBoard board, boolean flip,
+                                       DecisionTree tree, int depth,
+                                       long nodes, long nanos) {
+        List<String> variation = new ArrayList<>();
+        PawnBoard last = board;
+        for (PawnBoard next : tree.getPrincipalVariation()) {
+            PawnBoard shown = flip ? next.flipped() : next;
+            variation.add(PositionNotation.formatMove(PositionNotation
+                    .findMove(last, shown), board.getSize()));
+            last = shown;
+        }
+        return new PositionAnalysis(variation, tree.getBestEvaluation(),
+                depth, nodes, nanos);
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the best move, e.g. a1a2, null if the game is over.
+     */
+    String getBestMove() {
+        return variation.isEmpty() ? null : variation.get(0);
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the best move followed by the moves expected after it, empty
+     * if the game is over.
+     */
+    List<String> getVariation() {
+        return variation;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the score of the best move for the player to move.
+     */
+    double getScore() {
+        return score;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the height of the last finished tree, 0 if the game is over.
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of nodes of all trees.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the time spent in nanoseconds.
+     */
+    long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,297 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.player.Color;
+import model.record.BinaryGameWriter;
+import model.record.GameRecord;
+import model.record.GameWriter;
+import model.record.TextGameWriter;
+import model.tree.EngineSettings;
+import model.tree.MoveSearch;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Main class letting two engines play a match against each other without any
+ * user interaction. The games start from random openings, each opening is
+ * played twice with switched sides, and the games run in parallel on all
+ * cores. Reports the results, the estimated difference in playing strength
+ * and the speed of both engines. All games may be written to an archive.
+ */
+public final class SelfPlay {
+
+    private static final String USAGE = "Usage: SelfPlay [--games <n>] "
+            + "[--first <engine[+batch]:level[:millis[:threads]]>] "
+            + "[--second <engine[+batch]:level[:millis[:threads]]>] "
+            + "[--threads <n>] [--size <n>] [--opening-plies <n>] "
+            + "[--seed <n>] [--archive <file>]";
+
+    /**
+     * Main method running a match.
+     *
+     * @param args the options of the match, see USAGE.
+     * @throws InterruptedException if interrupted while waiting for games.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options;
+        EngineSettings first;
+        EngineSettings second;
+        int games;
+        int threads;
+        int size;
+        int openingPlies;
+        long seed;
+        GameWriter archive;
+        try {
+            options = parseOptions(args);
+            first = EngineSettings.parse(options.getOrDefault("first",
+                    "minimax:2"));
+            second = EngineSettings.parse(options.getOrDefault("second",
+                    "minimax:1"));
+            games = Integer.parseInt(options.getOrDefault("games", "100"));
+            threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime()
+                            .availableProcessors())));
+            size = Integer.parseInt(options.getOrDefault("size", "8"));
+            openingPlies = Integer.parseInt(options.getOrDefault(
+                    "opening-plies", "2"));
+            seed = Long.parseLong(options.getOrDefault("seed", "1"));
+            archive = openArchive(options.get("archive"));
+        } catch (IllegalArgumentException | IOException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        List<PawnBoard> openings =
+                createOpenings((games + 1) / 2, openingPlies, size, seed);
+        MatchStatistics statistics = new MatchStatistics();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CompletionService<GameResult> results =
+                new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < games; i++) {
+            PawnBoard opening = openings.get(i / 2 % openings.size());
+            boolean firstIsComputer = i % 2 == 0;
+            results.submit(() -> playGame(opening, first, second,
+                    firstIsComputer));
+        }
+        try {
+            int step = Math.max(1, games / 10);
+            for (int i = 1; i <= games; i++) {
+                GameResult result = results.take().get();
+                statistics.add(result);
+                if (archive != null) {
+                    archive.write(result.getRecord());
+                }
+                if (i % step == 0 || i == games) {
+                    System.out.println(statistics.standing());
+                }
+            }
+        } catch (ExecutionException e) {
+            System.out.println("Error! Game failed: " + e.getCause());
+        } catch (IOException e) {
+            System.out.println("Error! Archive not written: "
+                    + e.getMessage());
+        } finally {
+            pool.shutdownNow();
+            closeArchive(archive);
+        }
+        System.out.println(statistics.report(first.toString(),
+                second.toString()));
+    }
+
+    /**
+     * Opens the archive all games are written to, as text if the file name
+     * ends with .pgn and binary otherwise.
+     *
+     * @param file the name of the archive, null if none is wanted.
+     * @return the writer, null if none is wanted.
+     * @throws IOException if the file cannot be created.
+     */
+    private static GameWriter openArchive(String file) throws IOException {
+        if (file == null) {
+            return null;
+        } else if (file.endsWith(".pgn")) {
+            return new TextGameWriter(Files.newBufferedWriter(
+                    Paths.get(file)));
+        } else {
+            return new BinaryGameWriter(Paths.get(file));
+        }
+    }
+
+    /**
+     * Closes the archive, if any.
+     *
+     * @param archive the writer, null if none is used.
+     */
+    private static void closeArchive(GameWriter archive) {
+        if (archive != null) {
+            try {
+                archive.close();
+            } catch (IOException e) {
+                System.out.println("Error! Archive not closed: "
+                        + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Splits arguments of the form {@code --name value} into a map.
+     *
+     * @param args the arguments.
+     * @return the values mapped to the names without the leading dashes.
+     * @throws IllegalArgumentException if an argument has no value or no
+     * leading dashes.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> toReturn = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid option "
+                        + args[i] + "!");
+            }
+            toReturn.put(args[i].substring(2), args[i + 1]);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Creates different start situations by playing random moves from the
+     * initial board, the human starting with the white pawns.
+     *
+     * @param count the amount of openings wanted.
+     * @param plies the amount of random moves per opening.
+     * @param size the number of columns and rows of the board.
+     * @param seed the seed of the random moves.
+     * @return the openings, fewer than wanted if not enough exist.
+     */
+    static List<PawnBoard> createOpenings(int count, int plies, int size,
+                                          long seed) {
+        Random random = new Random(seed);
+        List<PawnBoard> toReturn = new ArrayList<>();
+        Set<String> known = new HashSet<>();
+        for (int attempt = 0; toReturn.size() < count
+                && attempt < 100 * count; attempt++) {
+            PawnBoard board = new PawnBoard(0, 1, Color.WHITE, size);
+            for (int i = 0; i < plies && !board.isGameOver(); i++) {
+                List<int[]> moves = new ArrayList<>();
+                board.viablePawnMoves(board.getCurrentPlayer())
+                        .forEach((pawn, targets) -> {
+                            for (int[] target : targets) {
+                                moves.add(new int[] {pawn.get(0), pawn.get(1),
+                                        target[0], target[1]});
+                            }
+                        });
+                int[] move = moves.get(random.nextInt(moves.size()));
+                board = board.moving(move[0], move[1], move[2], move[3]);
+            }
+            String key = board + board.getCurrentPlayer().getColor().name();
+            if (!board.isGameOver() && known.add(key)) {
+                toReturn.add(board);
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Plays a game between two engines. The computer's engine searches on
+     * the board itself, the human's engine on the flipped board.
+     *
+     * @param opening the situation to start from.
+     * @param first the settings of the first engine.
+     * @param second the settings of the second engine.
+     * @param firstIsComputer true if the first engine plays the pawns of the
+     *                        computer, false for the ones of the human.
+     * @return the outcome of the game seen from the first engine.
+     */
+    static GameResult playGame(PawnBoard opening, EngineSettings first,
+                               EngineSettings second,
+                               boolean firstIsComputer) {
+        EngineSettings computerSide = firstIsComputer ? first : second;
+        EngineSettings humanSide = firstIsComputer ? second : first;
+        List<Long> computerNanos = new ArrayList<>();
+        List<Long> humanNanos = new ArrayList<>();
+        long computerNodes = 0;
+        long humanNodes = 0;
+        List<PawnBoard> situations = new ArrayList<>();
+
+        PawnBoard board = opening.clone();
+        while (!board.isGameOver()) {
+            long start = System.nanoTime();
+            if (board.getCurrentPlayer().getColor()
+                    == board.getComputerColor()) {
+                MoveSearch search = computerSide.search(board);
+                board = search.bestMove();
+                computerNanos.add(System.nanoTime() - start);
+                computerNodes += search.getNodeCount();
+            } else {
+                MoveSearch search = humanSide.search(board.flipped());
+                board = search.bestMove().flipped();
+                humanNanos.add(System.nanoTime() - start);
+                humanNodes += search.getNodeCount();
+            }
+            situations.add(board);
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "SelfPlay");
+        tags.put("Date", LocalDate.now().toString());
+        boolean computerWhite = board.getComputerColor() == Color.WHITE;
+        tags.put("White", (computerWhite ? computerSide : humanSide)
+                .toString());
+        tags.put("Black", (computerWhite ? humanSide : computerSide)
+                .toString());
+        GameRecord record = GameRecord.of(tags, opening, situations);
+
+        // Computer, human win or draw?
+        int computerScore = 0;
+        if (board.getWinner() != null) {
+            if (board.getWinner().getColor() == board.getComputerColor()) {
+                computerScore = 1;
+            } else {
+                computerScore = -1;
+            }
+        }
+        if (firstIsComputer) {
+            return new GameResult(computerScore, toArray(computerNanos),
+                    computerNodes, toArray(humanNanos), humanNodes, record);
+        } else {
+            return new GameResult(-computerScore, toArray(humanNanos),
+                    humanNodes, toArray(computerNanos), computerNodes,
+                    record);
+        }
+    }
+
+    /**
+     * Converts a list of times into an array.
+     *
+     * @param times the list.
+     * @return the array with the same entries.
+     */
+    private static long[] toArray(List<Long> times) {
+        return times.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private SelfPlay() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
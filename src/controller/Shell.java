@@ -5,6 +5,9 @@ import model.board.Board;
 import model.player.Player;
 import model.player.Color;
 import model.exception.IllegalMoveException;
+import model.tree.Engine;
+import model.tree.Evaluator;
+import model.tree.TranspositionTable;
 import view.GUIView;
 
 import java.io.BufferedReader;
@@ -46,6 +49,7 @@ public final class Shell {
         int difficulty = 3;
         int starter = 0;
         Color humanColor = Color.WHITE;
+        Engine engine = Engine.MINIMAX;
 
         // Input loop handling the input and responses.
         while (!quit) {
@@ -56,6 +60,12 @@ public final class Shell {
             } else {
                 String[] parts = input.trim().split("\\s+");
 
+                // HASH shares its first letter with HELP, so matched whole.
+                if (parts[0].equalsIgnoreCase("hash")) {
+                    commandHash(parts);
+                    continue;
+                }
+
                 // Switch handling inputs.
                 switch (parts[0].toLowerCase().charAt(0)) {
                     case 'q' -> {
@@ -63,9 +73,13 @@ public final class Shell {
                         stdin.close();
                     }
                     case 'n' -> {
-                        playBoard = commandNew(starter, difficulty, humanColor);
-                        System.out.println("New game started. You are "
-                                + humanColor.name().toLowerCase() + ".");
+                        PawnBoard created = commandNew(parts, starter,
+                                difficulty, humanColor, engine);
+                        if (created != null) {
+                            playBoard = created;
+                            System.out.println("New game started. You are "
+                                    + humanColor.name().toLowerCase() + ".");
+                        }
                     }
                     case 'p' -> commandPrint(playBoard);
                     case 'l' -> commandLVLChange(parts, playBoard);
@@ -73,8 +87,11 @@ public final class Shell {
                         playBoard = commandMove(parts, playBoard);
                     }
                     case 's' -> {
-                        playBoard = commandSwitch(playBoard, difficulty);
+                        playBoard = commandSwitch(playBoard, difficulty,
+                                engine);
                     }
+                    case 'e' -> engine = commandEngine(parts, playBoard,
+                            engine);
                     case 'h' -> commandHelp();
                     default -> error("Unknown command.");
                 }
@@ -107,14 +124,111 @@ public final class Shell {
     /**
      * Creating a new PawnBoard/Game with the current difficulty, starter
      * and color, which are at the first start set as level 3, human and white.
+     * The size of the board is optionally given by the user.
      *
+     * @param inputs the input of the user, possibly containing the size.
      * @param starter the player eligible to make the first turn.
      * @param diff the level of difficulty/"power" the bot has.
      * @param human the color of the human player.
-     * @return the created PawnBoard.
+     * @param engine the search used by the bot.
+     * @return the created PawnBoard, null if the size is invalid.
      */
-    private static PawnBoard commandNew(int starter, int diff, Color human) {
-        return new PawnBoard(starter, diff, human);
+    private static PawnBoard commandNew(String[] inputs, int starter,
+                                        int diff, Color human, Engine engine) {
+        int size = Board.SIZE;
+        if (validAmount(inputs, 2)) {
+            if (!inputs[1].matches("\\d+")) {
+                error("Enter a number as size!");
+                return null;
+            }
+            size = Integer.parseInt(inputs[1]);
+        }
+        PawnBoard toReturn;
+        try {
+            toReturn = new PawnBoard(starter, diff, human, size);
+        } catch (IllegalArgumentException e) {
+            error(e.getMessage());
+            return null;
+        }
+        toReturn.setEngine(engine);
+        return toReturn;
+    }
+
+    /**
+     * Changing the search used by the bot for the current and all following
+     * games.
+     *
+     * @param inputs the input of the user containing the name of the search.
+     * @param board the current game, null if none is taking place.
+     * @param current the search used so far.
+     * @return the search to use from now on.
+     */
+    private static Engine commandEngine(String[] inputs, PawnBoard board,
+                                        Engine current) {
+        if (!validAmount(inputs, 2)) {
+            error("No engine entered!");
+            return current;
+        }
+        Engine engine;
+        switch (inputs[1].toLowerCase()) {
+            case "minimax" -> engine = Engine.MINIMAX;
+            case "mcts" -> engine = Engine.MONTE_CARLO;
+            default -> {
+                error("Unknown engine! Choose minimax or mcts.");
+                return current;
+            }
+        }
+        if (board != null) {
+            board.setEngine(engine);
+        }
+        return engine;
+    }
+
+    /**
+     * Replacing the table remembering the evaluations of the bot by a new,
+     * empty one of the entered size in megabytes, kept outside of the Java
+     * heap if wanted. A size of 0 removes the table.
+     *
+     * @param inputs the input of the user containing the size and
+     *               optionally "offheap".
+     */
+    private static void commandHash(String[] inputs) {
+        if (!validAmount(inputs, 2)) {
+            error("No size in megabytes entered!");
+            return;
+        } else if (!inputs[1].matches("\\d+")) {
+            error("Enter a number as size!");
+            return;
+        }
+        boolean offHeap = validAmount(inputs, 3)
+                && inputs[2].equalsIgnoreCase("offheap");
+        if (validAmount(inputs, 3) && !offHeap) {
+            error("Unknown option! Choose offheap or nothing.");
+            return;
+        }
+        if (inputs[1].matches("0+")) {
+            Evaluator.setTable(null);
+            System.out.println("Hash table removed.");
+            return;
+        }
+        TranspositionTable table;
+        boolean replaced = Evaluator.getTable() != null;
+        try {
+            long bytes = Math.multiplyExact(Long.parseLong(inputs[1]),
+                    1L << 20);
+            // Old table released first, so its memory is free for the new.
+            Evaluator.setTable(null);
+            table = TranspositionTable.allocate(bytes, offHeap);
+        } catch (IllegalArgumentException | ArithmeticException
+                | OutOfMemoryError e) {
+            error("Hash table could not be allocated: " + e.getMessage()
+                    + (replaced ? " The old hash table was removed." : ""));
+            return;
+        }
+        Evaluator.setTable(table);
+        System.out.println("Hash table of " + table.getEntries()
+                + " entries (" + (table.getBytes() >> 20) + " MB"
+                + (offHeap ? ", off heap" : "") + ").");
     }
 
     /**
@@ -212,9 +326,9 @@ public final class Shell {
         if ((inputs[1].matches("\\d+")) && (inputs[2].matches("\\d+"))
                 && (inputs[3].matches("\\d+")) && (inputs[4].matches("\\d+"))) {
             int fromCol = Integer.parseInt(inputs[1]) - 1;
-            int fromRow = Board.SIZE - Integer.parseInt(inputs[2]);
+            int fromRow = board.getSize() - Integer.parseInt(inputs[2]);
             int toCol = Integer.parseInt(inputs[3]) - 1;
-            int toRow = Board.SIZE - Integer.parseInt(inputs[4]);
+            int toRow = board.getSize() - Integer.parseInt(inputs[4]);
             return board.move(fromCol, fromRow, toCol, toRow);
         } else {
             return board.move(-1, -1, -1, -1);
@@ -267,12 +381,14 @@ public final class Shell {
      */
     private static void commandHelp() {
         System.out.println("Available commands:");
-        System.out.println("-Create a new game: NEW");
+        System.out.println("-Create a new game: NEW [size]");
         System.out.println("-Change the difficulty: LEVEL <lvl>");
         System.out.println("-Move a pawn: MOVE <fromCol> <fromRow> <toCol> "
                 + "toRow");
         System.out.println("-Printing the current board: PRINT");
         System.out.println("-Switch colors and start new: SWITCH");
+        System.out.println("-Change the engine: ENGINE <minimax|mcts>");
+        System.out.println("-Change the hash table: HASH <mb> [offheap]");
         System.out.println("Exit the game: QUIT");
     }
 
@@ -283,11 +399,13 @@ public final class Shell {
      *
      * @param board the current game taking place.
      * @param diff the current of level of difficulty played on.
+     * @param engine the search used by the bot.
      * @return null if no game taking place to flip, a PawnBoard with
      * reversed colors and -if the computer has the color white- a performed
      * opening move by the computer.
      */
-    public static PawnBoard commandSwitch(PawnBoard board, int diff) {
+    public static PawnBoard commandSwitch(PawnBoard board, int diff,
+                                          Engine engine) {
         if (board == null) {
             error("Start a game first!");
             return null;
@@ -306,7 +424,9 @@ public final class Shell {
             } else {
                 newStarter = 0;
             }
-            PawnBoard toReturn = new PawnBoard(newStarter, diff, newColor);
+            PawnBoard toReturn = new PawnBoard(newStarter, diff, newColor,
+                    board.getSize());
+            toReturn.setEngine(engine);
             if (newStarter == 1) {
                 toReturn = toReturn.machineMove();
             }
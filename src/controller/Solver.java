@@ -0,0 +1,120 @@
+package controller;
+
+import model.board.BitBoard;
+import model.board.PawnBoard;
+import model.player.Color;
+import model.tree.GameSolver;
+import model.tree.TranspositionTable;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Main class proving the value of the start position of small boards under
+ * perfect play by a GameSolver, once with the human and once with the
+ * computer moving first. Reports the value for the player moving first, his
+ * best first move and the speed and memory of the solver.
+ */
+public final class Solver {
+
+    private static final String USAGE = "Usage: Solver [--size <n>] "
+            + "[--max-size <n>] [--hash <megabytes>] [--off-heap <bool>]";
+
+    /**
+     * Main method solving the start positions.
+     *
+     * @param args the options of the solver, see USAGE.
+     */
+    public static void main(String[] args) {
+        int size;
+        int maxSize;
+        long megabytes;
+        boolean offHeap;
+        try {
+            Map<String, String> options = SelfPlay.parseOptions(args);
+            size = Integer.parseInt(options.getOrDefault("size", "4"));
+            maxSize = Integer.parseInt(options.getOrDefault("max-size",
+                    String.valueOf(size)));
+            megabytes = Long.parseLong(options.getOrDefault("hash", "256"));
+            offHeap = Boolean.parseBoolean(options.getOrDefault("off-heap",
+                    "false"));
+            if (size < PawnBoard.MIN_SIZE || maxSize < size) {
+                throw new IllegalArgumentException("Sizes from "
+                        + PawnBoard.MIN_SIZE + " upwards are solvable!");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        TranspositionTable table;
+        try {
+            table = TranspositionTable.allocate(Math.multiplyExact(megabytes,
+                    1L << 20), offHeap);
+        } catch (IllegalArgumentException | ArithmeticException
+                | OutOfMemoryError e) {
+            System.out.println("Error! Table could not be allocated: "
+                    + e.getMessage());
+            return;
+        }
+        System.out.println("Table of " + table.getEntries() + " entries, "
+                + (table.getBytes() >> 20) + " MB"
+                + (offHeap ? " off heap" : ""));
+        for (int current = size; current <= maxSize; current++) {
+            for (int starter = 0; starter <= 1; starter++) {
+                table.clear();
+                PawnBoard start = new PawnBoard(starter, 1, Color.WHITE,
+                        current);
+                GameSolver solver = new GameSolver(current, table);
+                long begin = System.nanoTime();
+                int value = solver.solve(start);
+                double seconds = (System.nanoTime() - begin) / 1e9;
+                System.out.println(report(current, starter == 1, value,
+                        solver.getBestMove(), solver.getPositions(),
+                        seconds));
+            }
+        }
+        Runtime runtime = Runtime.getRuntime();
+        System.out.println("Heap used: " + (runtime.totalMemory()
+                - runtime.freeMemory() >> 20) + " MB");
+    }
+
+    /**
+     * Describes the result of a solved start position.
+     *
+     * @param size the number of columns and rows.
+     * @param computerFirst true if the computer moved first.
+     * @param value the value for the player moving first.
+     * @param move the best first move.
+     * @param positions the amount of examined situations.
+     * @param seconds the time taken.
+     * @return a line with the result.
+     */
+    private static String report(int size, boolean computerFirst, int value,
+                                 int move, long positions, double seconds) {
+        String result;
+        if (value == GameSolver.WIN) {
+            result = "first player wins";
+        } else if (value == GameSolver.LOSS) {
+            result = "second player wins";
+        } else {
+            result = "draw";
+        }
+        int from = BitBoard.moveFrom(move);
+        int to = BitBoard.moveTo(move);
+        return String.format(Locale.ROOT, "%dx%d %s first: %s, best move "
+                + "%d %d %d %d, %d positions in %.2f s (%.0f positions/s)",
+                size, size, computerFirst ? "computer" : "human", result,
+                from % size + 1, size - from / size, to % size + 1,
+                size - to / size, positions, seconds, positions / seconds);
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private Solver() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
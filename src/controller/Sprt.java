@@ -0,0 +1,172 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.tree.EngineSettings;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Main class testing whether a changed engine, the first one, is stronger than
+ * the unchanged one, the second one. Instead of playing a fixed amount of
+ * games, the match is a sequential probability ratio test (SPRT): after each
+ * game the log-likelihood ratio of the hypotheses "the first engine is elo1
+ * stronger" against "the first engine is elo0 stronger" is updated, and the
+ * match stops as soon as it leaves the bounds given by the error rates alpha
+ * and beta. The games run in parallel on all cores and every result is
+ * printed at once.
+ */
+public final class Sprt {
+
+    private static final String USAGE = "Usage: Sprt [--first "
+            + "<engine[+batch]:level[:millis[:threads]]>] [--second "
+            + "<engine[+batch]:level[:millis[:threads]]>] "
+            + "[--elo0 <elo>] [--elo1 <elo>] [--alpha <p>] [--beta <p>] "
+            + "[--max-games <n>] [--threads <n>] [--size <n>] "
+            + "[--opening-plies <n>] [--seed <n>]";
+
+    /**
+     * Main method running a test.
+     *
+     * @param args the options of the test, see USAGE.
+     * @throws InterruptedException if interrupted while waiting for games.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        EngineSettings first;
+        EngineSettings second;
+        double elo0;
+        double elo1;
+        double alpha;
+        double beta;
+        int maxGames;
+        int threads;
+        int size;
+        int openingPlies;
+        long seed;
+        try {
+            Map<String, String> options = SelfPlay.parseOptions(args);
+            first = EngineSettings.parse(options.getOrDefault("first",
+                    "minimax:2"));
+            second = EngineSettings.parse(options.getOrDefault("second",
+                    "minimax:1"));
+            elo0 = Double.parseDouble(options.getOrDefault("elo0", "0"));
+            elo1 = Double.parseDouble(options.getOrDefault("elo1", "10"));
+            alpha = Double.parseDouble(options.getOrDefault("alpha", "0.05"));
+            beta = Double.parseDouble(options.getOrDefault("beta", "0.05"));
+            maxGames = Integer.parseInt(options.getOrDefault("max-games",
+                    "20000"));
+            threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime()
+                            .availableProcessors())));
+            size = Integer.parseInt(options.getOrDefault("size", "8"));
+            openingPlies = Integer.parseInt(options.getOrDefault(
+                    "opening-plies", "4"));
+            seed = Long.parseLong(options.getOrDefault("seed", "1"));
+            if (elo0 >= elo1) {
+                throw new IllegalArgumentException("elo0 must be lower than "
+                        + "elo1!");
+            } else if (alpha <= 0 || alpha >= 1 || beta <= 0 || beta >= 1) {
+                throw new IllegalArgumentException("alpha and beta must lie "
+                        + "between 0 and 1!");
+            } else if (maxGames < 2 || threads < 1) {
+                throw new IllegalArgumentException("At least two games and "
+                        + "one thread are needed!");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        double lower = Math.log(beta / (1 - alpha));
+        double upper = Math.log((1 - beta) / alpha);
+        System.out.println(String.format(Locale.ROOT,
+                "SPRT %s vs %s, elo0 %.1f elo1 %.1f, alpha %.3f beta %.3f, "
+                        + "LLR bounds [%.2f, %.2f]", first, second, elo0, elo1,
+                alpha, beta, lower, upper));
+
+        List<PawnBoard> openings =
+                SelfPlay.createOpenings((maxGames + 1) / 2, openingPlies, size,
+                        seed);
+        MatchStatistics statistics = new MatchStatistics();
+
+        // Daemon threads, so games still running at the decision do not
+        // keep the program alive.
+        ExecutorService pool = Executors.newFixedThreadPool(threads,
+                runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        CompletionService<GameResult> results =
+                new ExecutorCompletionService<>(pool);
+
+        // Only keep a few games per thread queued, so that no more games are
+        // started than needed once the test is decided.
+        int submitted = 0;
+        while (submitted < Math.min(maxGames, 2 * threads)) {
+            submit(results, openings, submitted++, first, second);
+        }
+        String decision = "Inconclusive, maximum amount of games reached.";
+        try {
+            for (int finished = 1; finished <= maxGames; finished++) {
+                statistics.add(results.take().get());
+                double ratio =
+                        statistics.getLogLikelihoodRatio(elo0, elo1);
+                System.out.println(String.format(Locale.ROOT,
+                        "%s, LLR %.2f", statistics.standing(), ratio));
+                if (ratio >= upper) {
+                    decision = "H1 accepted, the first engine is stronger.";
+                    break;
+                } else if (ratio <= lower) {
+                    decision = "H0 accepted, the first engine is not "
+                            + "stronger.";
+                    break;
+                }
+                if (submitted < maxGames) {
+                    submit(results, openings, submitted++, first, second);
+                }
+            }
+        } catch (ExecutionException e) {
+            decision = "Aborted, game failed: " + e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println(decision);
+        System.out.println(statistics.report(first.toString(),
+                second.toString()));
+    }
+
+    /**
+     * Starts a game, where consecutive games share their opening with
+     * switched sides.
+     *
+     * @param results the service running the games.
+     * @param openings the available start situations.
+     * @param index the number of the game.
+     * @param first the settings of the first engine.
+     * @param second the settings of the second engine.
+     */
+    private static void submit(CompletionService<GameResult> results,
+                               List<PawnBoard> openings, int index,
+                               EngineSettings first, EngineSettings second) {
+        PawnBoard opening = openings.get(index / 2 % openings.size());
+        boolean firstIsComputer = index % 2 == 0;
+        results.submit(() -> SelfPlay.playGame(opening, first, second,
+                firstIsComputer));
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private Sprt() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
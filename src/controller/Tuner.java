@@ -0,0 +1,477 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.tree.EngineSettings;
+import model.tree.EvaluationWeights;
+import model.tree.Evaluator;
+import model.tree.FeatureSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Main class fitting the weights of the Evaluator to the outcome of games
+ * (Texel tuning). First, self-play games are recorded as a file of positions,
+ * each one stored as the terms of the Evaluator and the final result of its
+ * game. Then the weights are fitted so that the logistic function of the
+ * evaluation predicts these results as good as possible, and written as a
+ * weights file the Evaluator loads at startup.
+ *
+ * All terms of the Evaluator's feature set are tuned, including registered
+ * ones. The positions are kept in flat primitive arrays, and each pass over
+ * them is split among all cores.
+ */
+public final class Tuner {
+
+    private static final String USAGE = "Usage: Tuner --generate <file> "
+            + "[--games <n>] "
+            + "[--engine <engine[+batch]:level[:millis[:threads]]>] "
+            + "[--size <n>] [--opening-plies <n>] [--threads <n>] "
+            + "[--seed <n>]"
+            + System.lineSeparator() + "       Tuner --tune <file> "
+            + "[--output <file>] [--epochs <n>] [--rate <r>] "
+            + "[--threads <n>]";
+
+    // Marks a file of positions, followed by the names of the terms.
+    private static final int MAGIC = 0x50415754;
+
+    // Longest array most virtual machines allocate.
+    private static final long MAX_ARRAY = Integer.MAX_VALUE - 8;
+
+    // Parameters of the Adam optimizer.
+    private static final double BETA1 = 0.9;
+    private static final double BETA2 = 0.999;
+    private static final double EPSILON = 1e-8;
+
+    /**
+     * Main method generating positions or tuning the weights.
+     *
+     * @param args the options, see USAGE.
+     * @throws InterruptedException if interrupted while waiting for games or
+     * computations.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        try {
+            Map<String, String> options = SelfPlay.parseOptions(args);
+            int threads = Integer.parseInt(options.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime()
+                            .availableProcessors())));
+            if (threads < 1) {
+                throw new IllegalArgumentException("At least one thread is "
+                        + "needed!");
+            }
+            if (options.containsKey("generate")) {
+                generate(Paths.get(options.get("generate")),
+                        Integer.parseInt(options.getOrDefault("games",
+                                "1000")),
+                        EngineSettings.parse(options.getOrDefault("engine",
+                                "minimax:1")),
+                        Integer.parseInt(options.getOrDefault("size", "8")),
+                        Integer.parseInt(options.getOrDefault(
+                                "opening-plies", "6")),
+                        Long.parseLong(options.getOrDefault("seed", "1")),
+                        threads);
+            } else if (options.containsKey("tune")) {
+                tune(Paths.get(options.get("tune")),
+                        Paths.get(options.getOrDefault("output",
+                                EvaluationWeights.DEFAULT_FILE)),
+                        Integer.parseInt(options.getOrDefault("epochs",
+                                "300")),
+                        Double.parseDouble(options.getOrDefault("rate",
+                                "0.02")), threads);
+            } else {
+                throw new IllegalArgumentException("Either --generate or "
+                        + "--tune must be given!");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error! " + e.getMessage());
+            System.out.println(USAGE);
+        } catch (IOException e) {
+            System.out.println("Error! " + e.getMessage());
+        } catch (ExecutionException e) {
+            System.out.println("Error! Computation failed: " + e.getCause());
+        }
+    }
+
+    /**
+     * Plays self-play games and writes all their positions together with the
+     * result of the game to a file.
+     *
+     * @param file the file to write.
+     * @param games the amount of games.
+     * @param engine the settings of the engine playing both sides.
+     * @param size the number of columns and rows of the board.
+     * @param openingPlies the amount of random moves starting each game.
+     * @param seed the seed of the random moves.
+     * @param threads the amount of games played at once.
+     * @throws IOException if the file cannot be written.
+     * @throws InterruptedException if interrupted while waiting for games.
+     * @throws ExecutionException if a game fails.
+     */
+    private static void generate(Path file, int games, EngineSettings engine,
+                                 int size, int openingPlies, long seed,
+                                 int threads)
+            throws IOException, InterruptedException, ExecutionException {
+        List<PawnBoard> openings =
+                SelfPlay.createOpenings(games, openingPlies, size, seed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long positions = 0;
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            String[] names = Evaluator.getFeatureSet().getNames();
+            out.writeInt(MAGIC);
+            out.writeInt(names.length);
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            List<Future<float[]>> results = new ArrayList<>();
+            for (PawnBoard opening : openings) {
+                results.add(pool.submit(() -> recordGame(opening, engine)));
+            }
+            int step = Math.max(1, results.size() / 10);
+            for (int i = 0; i < results.size(); i++) {
+                float[] records = results.get(i).get();
+                for (float value : records) {
+                    out.writeFloat(value);
+                }
+                positions += records.length / (names.length + 1);
+                if ((i + 1) % step == 0) {
+                    System.out.println("Games " + (i + 1) + ", positions "
+                            + positions);
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println("Wrote " + positions + " positions of "
+                + openings.size() + " games to " + file);
+    }
+
+    /**
+     * Plays a game with the same engine on both sides and records the terms
+     * of each reached position followed by the result of the game for the
+     * computer: 1 for a win, 0.5 for a draw, 0 for a loss.
+     *
+     * @param opening the situation to start from.
+     * @param engine the settings of the engine.
+     * @return the records of all positions one after another.
+     */
+    private static float[] recordGame(PawnBoard opening,
+                                      EngineSettings engine) {
+        List<double[]> features = new ArrayList<>();
+        PawnBoard board = opening.clone();
+        while (!board.isGameOver()) {
+            features.add(new Evaluator(board, 1).getFeatures());
+            if (board.getCurrentPlayer().getColor()
+                    == board.getComputerColor()) {
+                board = engine.search(board).bestMove();
+            } else {
+                board = engine.search(board.flipped()).bestMove().flipped();
+            }
+        }
+        float result = 0.5f;
+        if (board.getWinner() != null) {
+            result = board.getWinner().getColor() == board.getComputerColor()
+                    ? 1 : 0;
+        }
+
+        int width = Evaluator.getFeatureSet().size() + 1;
+        float[] toReturn = new float[features.size() * width];
+        for (int i = 0; i < features.size(); i++) {
+            double[] current = features.get(i);
+            for (int j = 0; j < current.length; j++) {
+                toReturn[i * width + j] = (float) current[j];
+            }
+            toReturn[i * width + width - 1] = result;
+        }
+        return toReturn;
+    }
+
+    /**
+     * Fits the weights to the positions of a file and writes them as weights
+     * file. The weights currently in use serve as start, and the scaling of
+     * the logistic function is fixed for them first, so the tuned weights
+     * keep the scale of the win and loss values.
+     *
+     * @param file the file of positions.
+     * @param output the weights file to write.
+     * @param epochs the amount of passes of the optimizer.
+     * @param rate the learning rate of the optimizer.
+     * @param threads the amount of threads sharing each pass.
+     * @throws IOException if a file cannot be read or written.
+     * @throws InterruptedException if interrupted while computing.
+     * @throws ExecutionException if a computation fails.
+     */
+    private static void tune(Path file, Path output, int epochs, double rate,
+                             int threads)
+            throws IOException, InterruptedException, ExecutionException {
+        Positions positions = Positions.read(file);
+        System.out.println("Read " + positions.count + " positions");
+        if (positions.count == 0) {
+            throw new IOException("No positions in " + file + "!");
+        }
+        FeatureSet features = Evaluator.getFeatureSet();
+        double[] weights = features.getWeights();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            double scale = fitScale(positions, weights, pool, threads);
+            double[] result = loss(positions, weights, scale, pool, threads);
+            System.out.println(String.format(Locale.ROOT,
+                    "Scale %.5f, loss of current weights %.6f", scale,
+                    result[0]));
+
+            // Adam: gradient steps scaled by running moments.
+            double[] first = new double[weights.length];
+            double[] second = new double[weights.length];
+            int step = Math.max(1, epochs / 20);
+            for (int epoch = 1; epoch <= epochs; epoch++) {
+                result = loss(positions, weights, scale, pool, threads);
+                for (int i = 0; i < weights.length; i++) {
+                    double gradient = result[i + 1];
+                    first[i] = BETA1 * first[i] + (1 - BETA1) * gradient;
+                    second[i] = BETA2 * second[i]
+                            + (1 - BETA2) * gradient * gradient;
+                    double firstHat = first[i] / (1 - Math.pow(BETA1, epoch));
+                    double secondHat =
+                            second[i] / (1 - Math.pow(BETA2, epoch));
+                    weights[i] -= rate * firstHat
+                            / (Math.sqrt(secondHat) + EPSILON);
+                }
+                if (epoch % step == 0 || epoch == epochs) {
+                    System.out.println(String.format(Locale.ROOT,
+                            "Epoch %d, loss %.6f", epoch, result[0]));
+                }
+            }
+            result = loss(positions, weights, scale, pool, threads);
+            System.out.println(String.format(Locale.ROOT,
+                    "Final loss %.6f", result[0]));
+        } finally {
+            pool.shutdownNow();
+        }
+
+        EvaluationWeights current = EvaluationWeights.loadStartup();
+        Map<String, Double> named = new LinkedHashMap<>();
+        String[] names = features.getNames();
+        for (int i = 0; i < names.length; i++) {
+            named.put(names[i], weights[i]);
+        }
+        EvaluationWeights tuned = new EvaluationWeights(named,
+                current.getWin(), current.getLoss());
+        tuned.save(output, "Tuned on " + positions.count + " positions of "
+                + file.getFileName());
+        System.out.println("Wrote " + tuned + " to " + output);
+    }
+
+    /**
+     * Finds the scaling of the logistic function fitting the given weights
+     * best, by narrowing down the interval of the scaling (golden section).
+     *
+     * @param positions the positions.
+     * @param weights the weights of the terms.
+     * @param pool the threads sharing each pass.
+     * @param threads the amount of threads.
+     * @return the best scaling.
+     * @throws InterruptedException if interrupted while computing.
+     * @throws ExecutionException if a computation fails.
+     */
+    private static double fitScale(Positions positions, double[] weights,
+                                   ExecutorService pool, int threads)
+            throws InterruptedException, ExecutionException {
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = 0;
+        double high = 2;
+        for (int i = 0; i < 40; i++) {
+            double left = high - ratio * (high - low);
+            double right = low + ratio * (high - low);
+            if (loss(positions, weights, left, pool, threads)[0]
+                    < loss(positions, weights, right, pool, threads)[0]) {
+                high = right;
+            } else {
+                low = left;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    /**
+     * Calculates the mean squared error between the predicted and the real
+     * results, together with its gradient, in one pass split among the
+     * threads.
+     *
+     * @param positions the positions.
+     * @param weights the weights of the terms.
+     * @param scale the scaling of the logistic function.
+     * @param pool the threads sharing the pass.
+     * @param threads the amount of threads.
+     * @return the error followed by its derivative for each weight.
+     * @throws InterruptedException if interrupted while computing.
+     * @throws ExecutionException if a computation fails.
+     */
+    private static double[] loss(Positions positions, double[] weights,
+                                 double scale, ExecutorService pool,
+                                 int threads)
+            throws InterruptedException, ExecutionException {
+        int chunk = (positions.count + threads - 1) / threads;
+        List<Callable<double[]>> parts = new ArrayList<>();
+        for (int start = 0; start < positions.count; start += chunk) {
+            int from = start;
+            int to = Math.min(positions.count, start + chunk);
+            parts.add(() -> positions.loss(weights, scale, from, to));
+        }
+        double[] toReturn = new double[weights.length + 1];
+        for (Future<double[]> part : pool.invokeAll(parts)) {
+            double[] sums = part.get();
+            for (int i = 0; i < sums.length; i++) {
+                toReturn[i] += sums[i];
+            }
+        }
+        for (int i = 0; i < toReturn.length; i++) {
+            toReturn[i] /= positions.count;
+        }
+        return toReturn;
+    }
+
+    /**
+     * Class holding the terms and results of all positions in flat arrays.
+     */
+    private static final class Positions {
+        private final int width;
+        private final float[] features;
+        private final float[] results;
+        private final int count;
+
+        /**
+         * Constructor for read positions.
+         *
+         * @param width the amount of terms per position.
+         * @param features the terms of all positions one after another.
+         * @param results the result of each position.
+         * @param count the amount of positions.
+         */
+        private Positions(int width, float[] features, float[] results,
+                          int count) {
+            this.width = width;
+            this.features = features;
+            this.results = results;
+            this.count = count;
+        }
+
+        /**
+         * Reads a file of positions written by generate. The arrays are
+         * allocated once for the amount of positions the size of the file
+         * allows, as growing them would need the old and new ones at once.
+         *
+         * @param file the file.
+         * @return the positions.
+         * @throws IOException if the file cannot be read, is no file of
+         * positions or holds more terms than fit into a single array.
+         */
+        private static Positions read(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException(file + " is no file of positions!");
+                }
+                int width = in.readInt();
+                String[] names = new String[width];
+                for (int i = 0; i < width; i++) {
+                    names[i] = in.readUTF();
+                }
+                if (!Arrays.equals(names,
+                        Evaluator.getFeatureSet().getNames())) {
+                    throw new IOException(file + " holds the terms "
+                            + Arrays.toString(names) + " instead of the "
+                            + "current ones!");
+                }
+                // Each position takes its terms and its result as floats.
+                long capacity = Files.size(file) / (Float.BYTES
+                        * (width + 1L));
+                if (capacity * width > MAX_ARRAY) {
+                    throw new IOException(file + " holds up to " + capacity
+                            + " positions, but only " + MAX_ARRAY / width
+                            + " of " + width + " terms fit into memory at "
+                            + "once!");
+                }
+                float[] features = new float[(int) (capacity * width)];
+                float[] results = new float[(int) capacity];
+                int count = 0;
+                while (true) {
+                    float first;
+                    try {
+                        first = in.readFloat();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (count == results.length) {
+                        throw new IOException(file + " has grown while "
+                                + "read!");
+                    }
+                    features[count * width] = first;
+                    for (int i = 1; i < width; i++) {
+                        features[count * width + i] = in.readFloat();
+                    }
+                    results[count++] = in.readFloat();
+                }
+                return new Positions(width, features, results, count);
+            }
+        }
+
+        /**
+         * Sums the squared errors and their derivatives over a range of
+         * positions.
+         *
+         * @param weights the weights of the terms.
+         * @param scale the scaling of the logistic function.
+         * @param from the first position, inclusive.
+         * @param to the last position, exclusive.
+         * @return the summed error followed by the summed derivative for
+         * each weight.
+         */
+        private double[] loss(double[] weights, double scale, int from,
+                              int to) {
+            double[] toReturn = new double[width + 1];
+            for (int p = from; p < to; p++) {
+                int offset = p * width;
+                double evaluation = 0;
+                for (int i = 0; i < width; i++) {
+                    evaluation += weights[i] * features[offset + i];
+                }
+                double predicted = 1 / (1 + Math.exp(-scale * evaluation));
+                double error = predicted - results[p];
+                toReturn[0] += error * error;
+                double derivative =
+                        2 * error * predicted * (1 - predicted) * scale;
+                for (int i = 0; i < width; i++) {
+                    toReturn[i + 1] += derivative * features[offset + i];
+                }
+            }
+            return toReturn;
+        }
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private Tuner() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
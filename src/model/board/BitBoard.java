@@ -0,0 +1,333 @@
+package model.board;
+
+import model.player.Color;
+
+/**
+ * Compact, mutable representation of a Pawns Chess situation, storing the
+ * pawns of each player as bits. Meant for engines which have to play through
+ * a huge amount of situations (e.g. random playouts), where cloning a
+ * PawnBoard for every move would be too expensive.
+ *
+ * The tile (col, row) of a PawnBoard is stored in bit row * size + col, so the
+ * computer moves towards higher, the human towards lower bits. In contrast to
+ * PawnBoard, a player has to skip exactly when he has no legal move at all.
+ *
+ * Boards with up to 64 tiles are stored in a single long per player
+ * (SmallBitBoard), larger ones in an array of longs (LargeBitBoard).
+ */
+public abstract class BitBoard {
+
+    /**
+     * Result of a won game for the computer.
+     */
+    public static final int COMPUTER_WINS = 1;
+
+    /**
+     * Result of a won game for the human.
+     */
+    public static final int HUMAN_WINS = -1;
+
+    /**
+     * Result of a game ending in a draw.
+     */
+    public static final int DRAW = 0;
+
+    // Number of columns and rows.
+    final int size;
+    boolean computerToMove;
+    private boolean gameOver;
+    private int winner;
+
+    /**
+     * Constructor for an empty board of the given size.
+     *
+     * @param size the number of columns and rows.
+     */
+    BitBoard(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Creates an empty board of the given size, using the fastest
+     * representation possible.
+     *
+     * @param size the number of columns and rows.
+     * @return a new board without pawns, to be filled via copyFrom.
+     */
+    public static BitBoard create(int size) {
+        if (size * size <= Long.SIZE) {
+            return new SmallBitBoard(size);
+        } else {
+            return new LargeBitBoard(size);
+        }
+    }
+
+    /**
+     * Creates the compact representation of a given game.
+     *
+     * @param game the game to represent.
+     * @return a new BitBoard showing the same situation.
+     */
+    public static BitBoard of(PawnBoard game) {
+        BitBoard toReturn = create(game.getSize());
+        Color computerColor = game.getComputerColor();
+        for (int col = 0; col < toReturn.size; col++) {
+            for (int row = 0; row < toReturn.size; row++) {
+                Color slot = game.getSlot(col, row);
+                if (slot != Color.NONE) {
+                    toReturn.addPawn(toReturn.square(col, row),
+                            slot == computerColor);
+                }
+            }
+        }
+        toReturn.setUp(game.getCurrentPlayer().getColor() == computerColor);
+        return toReturn;
+    }
+
+    /**
+     * Finishes placing pawns via addPawn, handing the turn to the opponent
+     * if the given player has to skip.
+     *
+     * @param computerToMove true if it is the computer's turn.
+     */
+    void setUp(boolean computerToMove) {
+        this.computerToMove = computerToMove;
+        gameOver = false;
+        winner = DRAW;
+        checkGameOver();
+        if (!gameOver && !hasMoves()) {
+            this.computerToMove = !computerToMove;
+        }
+    }
+
+    /**
+     * Overwrites this board with the situation of another one of the same
+     * size.
+     *
+     * @param other the board to copy.
+     */
+    public void copyFrom(BitBoard other) {
+        computerToMove = other.computerToMove;
+        gameOver = other.gameOver;
+        winner = other.winner;
+        copyPawns(other);
+    }
+
+    /**
+     * Getter method for the number of columns and rows.
+     *
+     * @return the size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Upper bound for the amount of moves possible in one situation.
+     *
+     * @return the size a buffer for generateMoves needs.
+     */
+    public int getMaxMoves() {
+        return size * 4;
+    }
+
+    /**
+     * Calculates the bit of a tile.
+     *
+     * @param col the column of the tile.
+     * @param row the row of the tile.
+     * @return the index of the bit representing the tile.
+     */
+    public int square(int col, int row) {
+        return row * size + col;
+    }
+
+    /**
+     * Encodes a move into a single integer.
+     *
+     * @param from the bit of the tile the pawn is moved from.
+     * @param to the bit of the targeted tile.
+     * @return the encoded move.
+     */
+    public static int encodeMove(int from, int to) {
+        return from << 8 | to;
+    }
+
+    /**
+     * Gets the bit of the tile a pawn is moved from.
+     *
+     * @param move the encoded move.
+     * @return the bit of the origin tile.
+     */
+    public static int moveFrom(int move) {
+        return move >>> 8;
+    }
+
+    /**
+     * Gets the bit of the tile a pawn is moved to.
+     *
+     * @param move the encoded move.
+     * @return the bit of the targeted tile.
+     */
+    public static int moveTo(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Getter method for the player to move next.
+     *
+     * @return true if it is the computer's turn, false otherwise.
+     */
+    public boolean isComputerToMove() {
+        return computerToMove;
+    }
+
+    /**
+     * Checks if the game is over.
+     *
+     * @return true if the game is over, false otherwise.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Gets the result of a game which is over.
+     *
+     * @return COMPUTER_WINS, HUMAN_WINS or DRAW.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Checks if a move reaches the ground line of the opponent, i.e. wins
+     * the game.
+     *
+     * @param move the encoded move.
+     * @return true if the move wins, false otherwise.
+     */
+    public boolean isWinningMove(int move) {
+        int row = moveTo(move) / size;
+        return row == 0 || row == size - 1;
+    }
+
+    /**
+     * Checks if a move captures a pawn of the opponent.
+     *
+     * @param move the encoded move.
+     * @return true if a pawn is captured, false otherwise.
+     */
+    public boolean isCapture(int move) {
+        return isOccupied(moveTo(move));
+    }
+
+    /**
+     * Executes a legal move of the player whose turn it is, and hands the turn
+     * to the opponent unless he has to skip.
+     *
+     * @param move the encoded move.
+     */
+    public void play(int move) {
+        movePawn(moveFrom(move), moveTo(move));
+        computerToMove = !computerToMove;
+        checkGameOver();
+        if (!gameOver && !hasMoves()) {
+            computerToMove = !computerToMove;
+        }
+    }
+
+    /**
+     * Collects all legal moves of the player whose turn it is.
+     *
+     * @param moves array of at least getMaxMoves() entries to write the
+     *              encoded moves into.
+     * @return the amount of moves written.
+     */
+    public abstract int generateMoves(int[] moves);
+
+    /**
+     * Counts the pawns of a player.
+     *
+     * @param ofComputer true for the pawns of the computer, false for the
+     *                   human ones.
+     * @return the amount of pawns.
+     */
+    public abstract int countPawns(boolean ofComputer);
+
+    /**
+     * Checks if a tile is occupied by a pawn of any player.
+     *
+     * @param square the bit of the tile.
+     * @return true if a pawn stands on the tile, false otherwise.
+     */
+    abstract boolean isOccupied(int square);
+
+    /**
+     * Places a pawn on an empty tile.
+     *
+     * @param square the bit of the tile.
+     * @param ofComputer true if the pawn belongs to the computer.
+     */
+    abstract void addPawn(int square, boolean ofComputer);
+
+    /**
+     * Removes all pawns, to place new ones via addPawn.
+     */
+    abstract void clearPawns();
+
+    /**
+     * Moves a pawn of the player whose turn it is, capturing a pawn of the
+     * opponent on the targeted tile.
+     *
+     * @param from the bit of the tile the pawn is moved from.
+     * @param to the bit of the targeted tile.
+     */
+    abstract void movePawn(int from, int to);
+
+    /**
+     * Overwrites the pawns of this board with the ones of another board of
+     * the same representation.
+     *
+     * @param other the board to copy.
+     */
+    abstract void copyPawns(BitBoard other);
+
+    /**
+     * Checks if a player has a pawn on the ground line of his opponent.
+     *
+     * @param ofComputer true to check the computer, false for the human.
+     * @return true if the player reached the opposite ground line.
+     */
+    abstract boolean reachedGoal(boolean ofComputer);
+
+    /**
+     * Checks if the player whose turn it is has at least one legal move.
+     *
+     * @return true if he can move, false if he has to skip.
+     */
+    abstract boolean hasMoves();
+
+    /**
+     * Checks if the game is over and sets the winner accordingly: a player
+     * reaching the opponent's ground line or capturing all opposing pawns
+     * wins, if nobody can move the player with more pawns wins.
+     */
+    private void checkGameOver() {
+        if (reachedGoal(true) || countPawns(false) == 0) {
+            gameOver = true;
+            winner = COMPUTER_WINS;
+        } else if (reachedGoal(false) || countPawns(true) == 0) {
+            gameOver = true;
+            winner = HUMAN_WINS;
+        } else if (!hasMoves()) {
+            computerToMove = !computerToMove;
+            boolean opponentMoves = hasMoves();
+            computerToMove = !computerToMove;
+            if (!opponentMoves) {
+                gameOver = true;
+                winner = Integer.signum(countPawns(true) - countPawns(false));
+            }
+        }
+    }
+}
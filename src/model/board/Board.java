@@ -15,18 +15,25 @@ import model.exception.IllegalMoveException;
  * capture rule.
  *
  * A human plays against the machine. The human's ground line is always row 1,
- * whereas the ground line of the machine is row 8. The human plays from bottom
- * to top, the machine from top to bottom. The user with the white tiles opens
- * the game.
+ * whereas the ground line of the machine is the last row, e.g. row 8. The
+ * human plays from bottom to top, the machine from top to bottom. The user
+ * with the white tiles opens the game.
  */
 public interface Board extends Cloneable {
 
     /**
-     * The number of columns (files) and rows (ranks) of the game grid.
-     * Originally 8. Here, at least 4.
+     * The default number of columns (files) and rows (ranks) of the game
+     * grid. Originally 8. Boards may have other sizes, but at least 4.
      */
     int SIZE = 8;
 
+    /**
+     * Gets the number of columns (files) and rows (ranks) of this game grid.
+     *
+     * @return The size of the grid.
+     */
+    int getSize();
+
     /**
      * Gets the player who should or already has opened the game. As an
      * invariant, this player has always the white tiles.
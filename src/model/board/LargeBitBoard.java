@@ -0,0 +1,287 @@
+package model.board;
+
+import java.util.Arrays;
+
+/**
+ * BitBoard for boards with more than 64 tiles, storing the pawns of each
+ * player in an array of longs. Shifts carry the bits over from one long to
+ * the next, so moves are found the same way as in SmallBitBoard. Uses
+ * buffers of its own and must therefore not be shared between threads.
+ */
+public final class LargeBitBoard extends BitBoard {
+
+    private final int words;
+    private final long[] all;
+    private final long[] firstRow;
+    private final long[] lastRow;
+    private final long[] notLeftCol;
+    private final long[] notRightCol;
+    private final long[] computer;
+    private final long[] human;
+    private final long[] empty;
+    private final long[] targets;
+
+    /**
+     * Constructor for an empty board of the given size.
+     *
+     * @param size the number of columns and rows, more than 8.
+     */
+    LargeBitBoard(int size) {
+        super(size);
+        int squares = size * size;
+        words = (squares + Long.SIZE - 1) / Long.SIZE;
+        all = new long[words];
+        firstRow = new long[words];
+        lastRow = new long[words];
+        notLeftCol = new long[words];
+        notRightCol = new long[words];
+        computer = new long[words];
+        human = new long[words];
+        empty = new long[words];
+        targets = new long[words];
+        for (int square = 0; square < squares; square++) {
+            int col = square % size;
+            int row = square / size;
+            setBit(all, square);
+            if (row == 0) {
+                setBit(firstRow, square);
+            } else if (row == size - 1) {
+                setBit(lastRow, square);
+            }
+            if (col != 0) {
+                setBit(notLeftCol, square);
+            }
+            if (col != size - 1) {
+                setBit(notRightCol, square);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int generateMoves(int[] moves) {
+        computeEmpty();
+        int count;
+        if (computerToMove) {
+            count = addMoves(moves, 0, computer, all, size, empty);
+            count = addMoves(moves, count, computer, firstRow, 2 * size,
+                    empty);
+            count = addMoves(moves, count, computer, notLeftCol, size - 1,
+                    human);
+            count = addMoves(moves, count, computer, notRightCol, size + 1,
+                    human);
+        } else {
+            count = addMoves(moves, 0, human, all, -size, empty);
+            count = addMoves(moves, count, human, lastRow, -2 * size, empty);
+            count = addMoves(moves, count, human, notLeftCol, -size - 1,
+                    computer);
+            count = addMoves(moves, count, human, notRightCol, -size + 1,
+                    computer);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countPawns(boolean ofComputer) {
+        long[] pawns = ofComputer ? computer : human;
+        int toReturn = 0;
+        for (long word : pawns) {
+            toReturn += Long.bitCount(word);
+        }
+        return toReturn;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isOccupied(int square) {
+        return testBit(computer, square) || testBit(human, square);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void addPawn(int square, boolean ofComputer) {
+        setBit(ofComputer ? computer : human, square);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void clearPawns() {
+        Arrays.fill(computer, 0);
+        Arrays.fill(human, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void movePawn(int from, int to) {
+        long[] own = computerToMove ? computer : human;
+        long[] opponent = computerToMove ? human : computer;
+        own[from / Long.SIZE] &= ~(1L << from);
+        own[to / Long.SIZE] |= 1L << to;
+        opponent[to / Long.SIZE] &= ~(1L << to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void copyPawns(BitBoard other) {
+        LargeBitBoard large = (LargeBitBoard) other;
+        System.arraycopy(large.computer, 0, computer, 0, words);
+        System.arraycopy(large.human, 0, human, 0, words);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean reachedGoal(boolean ofComputer) {
+        long[] pawns = ofComputer ? computer : human;
+        long[] goal = ofComputer ? lastRow : firstRow;
+        for (int i = 0; i < words; i++) {
+            if ((pawns[i] & goal[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean hasMoves() {
+        computeEmpty();
+        if (computerToMove) {
+            return anyTarget(computer, all, size, empty)
+                    || anyTarget(computer, firstRow, 2 * size, empty)
+                    || anyTarget(computer, notLeftCol, size - 1, human)
+                    || anyTarget(computer, notRightCol, size + 1, human);
+        } else {
+            return anyTarget(human, all, -size, empty)
+                    || anyTarget(human, lastRow, -2 * size, empty)
+                    || anyTarget(human, notLeftCol, -size - 1, computer)
+                    || anyTarget(human, notRightCol, -size + 1, computer);
+        }
+    }
+
+    /**
+     * Fills the buffer of empty tiles.
+     */
+    private void computeEmpty() {
+        for (int i = 0; i < words; i++) {
+            empty[i] = ~(computer[i] | human[i]) & all[i];
+        }
+    }
+
+    /**
+     * Writes a move for each tile reachable by shifting the given pawns.
+     *
+     * @param moves the array to write into.
+     * @param count the amount of moves already written.
+     * @param pawns the pawns to move.
+     * @param from the tiles a pawn may start from for this kind of move.
+     * @param shift the difference between target and origin bit.
+     * @param onto the tiles a pawn may be moved to.
+     * @return the new amount of moves written.
+     */
+    private int addMoves(int[] moves, int count, long[] pawns, long[] from,
+                         int shift, long[] onto) {
+        shiftInto(pawns, from, shift, onto);
+        for (int i = 0; i < words; i++) {
+            long word = targets[i];
+            while (word != 0) {
+                int to = i * Long.SIZE + Long.numberOfTrailingZeros(word);
+                moves[count++] = encodeMove(to - shift, to);
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks if any tile is reachable by shifting the given pawns.
+     *
+     * @param pawns the pawns to move.
+     * @param from the tiles a pawn may start from for this kind of move.
+     * @param shift the difference between target and origin bit.
+     * @param onto the tiles a pawn may be moved to.
+     * @return true if at least one move is possible.
+     */
+    private boolean anyTarget(long[] pawns, long[] from, int shift,
+                              long[] onto) {
+        shiftInto(pawns, from, shift, onto);
+        for (long word : targets) {
+            if (word != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Shifts the pawns standing on the from-tiles by the given amount of bits
+     * across the longs and keeps the ones landing on the onto-tiles in the
+     * targets buffer.
+     *
+     * @param pawns the pawns to move.
+     * @param from the tiles a pawn may start from.
+     * @param shift positive to shift towards higher bits, negative otherwise.
+     * @param onto the tiles a pawn may be moved to.
+     */
+    private void shiftInto(long[] pawns, long[] from, int shift,
+                           long[] onto) {
+        if (shift > 0) {
+            for (int i = words - 1; i >= 0; i--) {
+                long shifted = (pawns[i] & from[i]) << shift;
+                if (i > 0) {
+                    shifted |= (pawns[i - 1] & from[i - 1])
+                            >>> (Long.SIZE - shift);
+                }
+                targets[i] = shifted & onto[i];
+            }
+        } else {
+            int n = -shift;
+            for (int i = 0; i < words; i++) {
+                long shifted = (pawns[i] & from[i]) >>> n;
+                if (i < words - 1) {
+                    shifted |= (pawns[i + 1] & from[i + 1]) << (Long.SIZE - n);
+                }
+                targets[i] = shifted & onto[i];
+            }
+        }
+    }
+
+    /**
+     * Sets a bit in an array of longs.
+     *
+     * @param bits the array.
+     * @param index the index of the bit.
+     */
+    private static void setBit(long[] bits, int index) {
+        bits[index / Long.SIZE] |= 1L << index;
+    }
+
+    /**
+     * Checks a bit in an array of longs.
+     *
+     * @param bits the array.
+     * @param index the index of the bit.
+     * @return true if the bit is set.
+     */
+    private static boolean testBit(long[] bits, int index) {
+        return (bits[index / Long.SIZE] & (1L << index)) != 0;
+    }
+}
@@ -3,8 +3,13 @@ package model.board;
 import model.exception.IllegalMoveException;
 import model.player.Color;
 import model.player.Player;
+import model.tree.AnalysisCache;
 import model.tree.DecisionTree;
+import model.tree.Engine;
+import model.tree.MonteCarloTree;
+import model.tree.SearchMonitor;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -17,6 +22,16 @@ import java.util.Arrays;
  */
 public class PawnBoard implements Board {
 
+    /**
+     * The smallest number of columns and rows a board can have.
+     */
+    public static final int MIN_SIZE = 4;
+
+    /**
+     * The largest number of columns and rows a board can have.
+     */
+    public static final int MAX_SIZE = 16;
+
     // Array filled with ' ' = free tile, 'W' = white pawn, 'B' = black pawn.
     private char[][] board;
     private Player human;
@@ -25,21 +40,45 @@ public class PawnBoard implements Board {
     private Player currentPlayer;
     private Player winner;
     private int diffLevel;
+    private Engine engine;
     private final char humanSymbol;
     private final char botSymbol;
+    private final int size;
+    // Search of the last machine move, continued by the next one.
+    private DecisionTree searchTree;
 
     /**
-     * Constructor for a new Model.Board.
+     * Constructor for a new Model.Board of the default size.
      *
      * @param starter player to start with 0 = human, 1 = bot.
      * @param difficulty level of prediction of the bot.
      * @param humanColor used by the human on the bottom of the board.
      */
     public PawnBoard(int starter, int difficulty, Color humanColor) {
+        this(starter, difficulty, humanColor, Board.SIZE);
+    }
+
+    /**
+     * Constructor for a new Model.Board with a given amount of columns and
+     * rows.
+     *
+     * @param starter player to start with 0 = human, 1 = bot.
+     * @param difficulty level of prediction of the bot.
+     * @param humanColor used by the human on the bottom of the board.
+     * @param size number of columns and rows, between MIN_SIZE and MAX_SIZE.
+     */
+    public PawnBoard(int starter, int difficulty, Color humanColor,
+                     int size) {
+        if (size < MIN_SIZE || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between "
+                    + MIN_SIZE + " and " + MAX_SIZE + "!");
+        }
+        this.size = size;
         this.diffLevel = difficulty;
+        this.engine = Engine.MINIMAX;
         this.human = new Player(humanColor);
         this.winner = null;
-        this.board = new char[Board.SIZE][Board.SIZE];
+        this.board = new char[size][size];
 
         if (humanColor == Color.WHITE) {
             this.computer = new Player(Color.BLACK);
@@ -66,7 +105,7 @@ public class PawnBoard implements Board {
     private void fillBoard() {
         for (int i = 0; i < board.length; i++) {
             board[i][0] = botSymbol;
-            board[i][Board.SIZE - 1] = humanSymbol;
+            board[i][size - 1] = humanSymbol;
         }
         for (int i = 0; i < board.length; i++) {
             for (int j = 1; j < (board.length - 1); j++) {
@@ -75,6 +114,14 @@ public class PawnBoard implements Board {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getSize() {
+        return size;
+    }
+
     /**
      * Getter method for the current player object.
      *
@@ -128,6 +175,65 @@ public class PawnBoard implements Board {
         }
     }
 
+    /**
+     * Checking if another board shows the same situation, i.e. the same
+     * pawns on the same tiles and the same player to move next.
+     *
+     * @param other the board to compare with.
+     * @return true if both boards show the same situation, false otherwise.
+     */
+    public boolean isSamePosition(PawnBoard other) {
+        return currentPlayer.getColor() == other.currentPlayer.getColor()
+                && getHumanColor() == other.getHumanColor()
+                && Arrays.deepEquals(board, other.board);
+    }
+
+    /**
+     * Creates a copy of this game with the roles of human and computer
+     * swapped, i.e. with the board turned upside down. Lets the search of the
+     * computer find a move for the human, e.g. to let two engines play
+     * against each other.
+     *
+     * @return a new board with the human playing the former pawns of the
+     * computer from the bottom and vice-versa.
+     */
+    public PawnBoard flipped() {
+        PawnBoard toReturn = new PawnBoard(starter == human ? 1 : 0,
+                diffLevel, getComputerColor(), size);
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                toReturn.board[col][size - 1 - row] = board[col][row];
+            }
+        }
+        if (currentPlayer == human) {
+            toReturn.currentPlayer = toReturn.computer;
+        } else {
+            toReturn.currentPlayer = toReturn.human;
+        }
+        if (winner == human) {
+            toReturn.winner = toReturn.computer;
+        } else if (winner == computer) {
+            toReturn.winner = toReturn.human;
+        }
+        toReturn.engine = engine;
+        return toReturn;
+    }
+
+    /**
+     * Finishes placing pawns directly into the board array, handing the turn
+     * to the opponent if the given player has to skip.
+     *
+     * @param computerToMove true if it is the computer's turn.
+     */
+    void setUp(boolean computerToMove) {
+        currentPlayer = computerToMove ? computer : human;
+        winner = null;
+        if (!isGameOver() && (computerToMove ? mustSkipComputer()
+                : mustSkipHuman())) {
+            currentPlayer = getNextPlayer();
+        }
+    }
+
     /**
      * Method moving a pawn to a given spot and replacing the old spot with a
      * blank char.
@@ -178,16 +284,16 @@ public class PawnBoard implements Board {
      */
     private List<int[]> pawnMoveSetRightBorderComputer(int row) {
         List<int[]> toReturn = new ArrayList<>();
-        Color pawnColor = getSlot((Board.SIZE - 1), row);
+        Color pawnColor = getSlot((size - 1), row);
 
-        if (getSlot((Board.SIZE - 1), row + 1) == Color.NONE) {
-            int[] toAdd = new int[] {(Board.SIZE - 1), row + 1};
+        if (getSlot((size - 1), row + 1) == Color.NONE) {
+            int[] toAdd = new int[] {(size - 1), row + 1};
             toReturn.add(toAdd);
         }
 
-        Color across = getSlot((Board.SIZE - 2), row + 1);
+        Color across = getSlot((size - 2), row + 1);
         if (across != pawnColor && across != Color.NONE) {
-            int[] toAdd = new int[] {(Board.SIZE - 2), row + 1};
+            int[] toAdd = new int[] {(size - 2), row + 1};
             toReturn.add(toAdd);
         }
         return toReturn;
@@ -206,7 +312,7 @@ public class PawnBoard implements Board {
 
         if (col == 0) {
             toReturn = pawnMoveSetLeftBorderComputer(0);
-        } else if (col == 7) {
+        } else if (col == size - 1) {
             toReturn = pawnMoveSetRightBorderComputer(0);
         } else {
             toReturn = pawnMoveSetRegularComputer(col, 0);
@@ -301,7 +407,7 @@ public class PawnBoard implements Board {
             } else if (current[0] == 0) {
                 moves = pawnMoveSetLeftBorderComputer(current[1]);
                 toReturn.put(currentKey, moves);
-            } else if (current[0] == (Board.SIZE - 1)) {
+            } else if (current[0] == (size - 1)) {
                 moves = pawnMoveSetRightBorderComputer(current[1]);
                 toReturn.put(currentKey, moves);
             } else {
@@ -335,13 +441,13 @@ public class PawnBoard implements Board {
             currentKey.add(current[0]);
             currentKey.add(current[1]);
             if (current[0] >= 0 && current[1] >= 0) {
-                if (current[1] == Board.SIZE - 1) {
+                if (current[1] == size - 1) {
                     moves = pawnMoveSetStartPlayer(current[0]);
                     toReturn.put(currentKey, moves);
                 } else if (current[0] == 0) {
                     moves = pawnMoveSetLeftBorderPlayer(current[1]);
                     toReturn.put(currentKey, moves);
-                } else if (current[0] == (Board.SIZE - 1)) {
+                } else if (current[0] == (size - 1)) {
                     moves = pawnMoveSetRightBorderPlayer(current[1]);
                     toReturn.put(currentKey, moves);
                 } else {
@@ -404,16 +510,16 @@ public class PawnBoard implements Board {
      */
     private List<int[]> pawnMoveSetRightBorderPlayer(int row) {
         List<int[]> toReturn = new ArrayList<>();
-        Color pawnColor = getSlot((Board.SIZE - 1), row);
+        Color pawnColor = getSlot((size - 1), row);
 
-        if (getSlot((Board.SIZE - 1), row - 1) == Color.NONE) {
-            int[] toAdd = new int[] {(Board.SIZE - 1), row - 1};
+        if (getSlot((size - 1), row - 1) == Color.NONE) {
+            int[] toAdd = new int[] {(size - 1), row - 1};
             toReturn.add(toAdd);
         }
 
-        Color across = getSlot((Board.SIZE - 2), row - 1);
+        Color across = getSlot((size - 2), row - 1);
         if (across != pawnColor && across != Color.NONE) {
-            int[] toAdd = new int[] {(Board.SIZE - 2), row - 1};
+            int[] toAdd = new int[] {(size - 2), row - 1};
             toReturn.add(toAdd);
         }
         return toReturn;
@@ -431,15 +537,15 @@ public class PawnBoard implements Board {
         List<int[]> toReturn;
 
         if (col == 0) {
-            toReturn = pawnMoveSetLeftBorderPlayer(Board.SIZE - 1);
-        } else if (col == 7) {
-            toReturn = pawnMoveSetRightBorderPlayer(Board.SIZE - 1);
+            toReturn = pawnMoveSetLeftBorderPlayer(size - 1);
+        } else if (col == size - 1) {
+            toReturn = pawnMoveSetRightBorderPlayer(size - 1);
         } else {
-            toReturn = pawnMoveSetRegularPlayer(col, Board.SIZE - 1);
+            toReturn = pawnMoveSetRegularPlayer(col, size - 1);
         }
 
-        if (getSlot(col, (Board.SIZE - 3)) == Color.NONE) {
-            toReturn.add(0, new int[] {col, (Board.SIZE - 3)});
+        if (getSlot(col, (size - 3)) == Color.NONE) {
+            toReturn.add(0, new int[] {col, (size - 3)});
         }
         return toReturn;
     }
@@ -537,31 +643,20 @@ public class PawnBoard implements Board {
     private boolean mustSkipComputer() {
         List<int[]> pawns = getPawnsFor(getComputerColor());
 
-        boolean mustSkip = true;
         for (int[] current : pawns) {
-            if (current[1] != Board.SIZE - 1) {
-                if (current[1] == 0
-                        && board[current[0]][current[1] + 2] == ' ') {
-                    mustSkip = false;
-                    break;
-                }
-                if (board[current[0]][current[1] + 1] != humanSymbol) {
-                    mustSkip = false;
-                    break;
-                } else if (current[0] > 0 && current[0] <= Board.SIZE - 1) {
-                    if (board[current[0] - 1][current[1] + 1] == humanSymbol) {
-                        mustSkip = false;
-                        break;
-                    }
-                } else if (current[0] < Board.SIZE - 1) {
-                    if (board[current[0] + 1][current[1] + 1] == humanSymbol) {
-                        mustSkip = false;
-                        break;
-                    }
+            int col = current[0];
+            int row = current[1];
+            if (row != size - 1) {
+                if (board[col][row + 1] == ' '
+                        || (row == 0 && board[col][2] == ' ')
+                        || (col > 0 && board[col - 1][row + 1] == humanSymbol)
+                        || (col < size - 1
+                        && board[col + 1][row + 1] == humanSymbol)) {
+                    return false;
                 }
             }
         }
-        return mustSkip;
+        return true;
     }
 
     /**
@@ -573,31 +668,20 @@ public class PawnBoard implements Board {
     private boolean mustSkipHuman() {
         List<int[]> pawnsHum = getPawnsFor(getHumanColor());
 
-        boolean mustSkip = true;
         for (int[] current : pawnsHum) {
-            if (current[1] != 0) {
-                if (current[1] == Board.SIZE - 1
-                        && board[current[0]][current[1] - 2] == ' ') {
-                    mustSkip = false;
-                    break;
-                }
-                if (board[current[0]][current[1] - 1] != botSymbol) {
-                    mustSkip = false;
-                    break;
-                } else if (current[0] > 0 && current[0] <= Board.SIZE - 2) {
-                    if (board[current[0] - 1][current[1] - 1] == botSymbol) {
-                        mustSkip = false;
-                        break;
-                    }
-                } else if (current[0] < Board.SIZE - 1) {
-                    if (board[current[0] + 1][current[1] - 1] == botSymbol) {
-                        mustSkip = false;
-                        break;
-                    }
+            int col = current[0];
+            int row = current[1];
+            if (row != 0) {
+                if (board[col][row - 1] == ' '
+                        || (row == size - 1 && board[col][size - 3] == ' ')
+                        || (col > 0 && board[col - 1][row - 1] == botSymbol)
+                        || (col < size - 1
+                        && board[col + 1][row - 1] == botSymbol)) {
+                    return false;
                 }
             }
         }
-        return mustSkip;
+        return true;
     }
 
     /**
@@ -702,12 +786,36 @@ public class PawnBoard implements Board {
      */
     @Override
     public PawnBoard machineMove() {
+        return machineMove(null);
+    }
+
+    /**
+     * Lets the computer move like machineMove, with the search of the
+     * DecisionTree watched by a monitor, e.g. to share the processors with
+     * other searches. A search ended early by the monitor is neither kept
+     * for the next turn nor cached.
+     *
+     * @param monitor the monitor asked after each expanded node, null to
+     *                never end early.
+     * @return a new board with the move of the computer performed.
+     */
+    public PawnBoard machineMove(SearchMonitor monitor) {
         if (isGameOver()) {
             throw new IllegalMoveException("Game already over!");
         }
-        DecisionTree tree =
-                new DecisionTree(this, diffLevel);
-        PawnBoard toReturn = tree.bestMove();
+        PawnBoard toReturn;
+        if (engine == Engine.MONTE_CARLO) {
+            toReturn = new MonteCarloTree(this,
+                    MonteCarloTree.PLAYOUTS_PER_LEVEL * diffLevel, 0,
+                    Runtime.getRuntime().availableProcessors()).bestMove();
+        } else {
+            // Situation analysed by an earlier run?
+            AnalysisCache cache = AnalysisCache.getActive();
+            toReturn = cache == null ? null : cache.lookUp(this, diffLevel);
+            if (toReturn == null) {
+                toReturn = searchMove(cache, monitor);
+            }
+        }
         if (toReturn.isGameOver()) {
             if (toReturn.mustSkipHuman() && toReturn.mustSkipComputer()) {
                 toReturn.winner = null;
@@ -721,6 +829,42 @@ public class PawnBoard implements Board {
         return toReturn;
     }
 
+    /**
+     * Searches the best move of the computer by a DecisionTree, continuing
+     * the search of the previous turn if possible, and remembers the result
+     * in the analysis cache.
+     *
+     * @param cache the analysis cache, null if none is used.
+     * @param monitor the monitor of the search, null if none is used.
+     * @return a new board with the best move of the computer performed.
+     */
+    private PawnBoard searchMove(AnalysisCache cache, SearchMonitor monitor) {
+        // Search of the previous turn already covering this situation?
+        DecisionTree tree = null;
+        if (searchTree != null) {
+            tree = searchTree.continueWith(this, diffLevel, monitor);
+            searchTree = null;
+        }
+        if (tree == null) {
+            tree = new DecisionTree(this, diffLevel, false, monitor);
+        }
+        PawnBoard toReturn = tree.bestMove();
+        if (tree.isAborted()) {
+            return toReturn;
+        }
+        toReturn.searchTree = tree;
+        if (cache != null) {
+            try {
+                cache.record(this, diffLevel, tree.getBestEvaluation(),
+                        toReturn);
+            } catch (IOException e) {
+                System.err.println("Error! Analysis not cached: "
+                        + e.getMessage());
+            }
+        }
+        return toReturn;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -731,6 +875,16 @@ public class PawnBoard implements Board {
         }
     }
 
+    /**
+     * Sets the search the machine uses to find its moves. The level of
+     * difficulty stays in effect, e.g. as amount of playouts.
+     *
+     * @param engine the search to use from now on.
+     */
+    public void setEngine(Engine engine) {
+        this.engine = engine;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -743,13 +897,16 @@ public class PawnBoard implements Board {
             }
         }
         for (int i = 0; i < board.length; i++) {
-            if (getSlot(i, Board.SIZE - 1) == computer.getColor()) {
+            if (getSlot(i, size - 1) == computer.getColor()) {
                 winner = computer;
                 return true;
             }
         }
-        if (getPawnsFor(getHumanColor()).size() == 0
-                || getPawnsFor(getComputerColor()).size() == 0) {
+        if (getPawnsFor(getHumanColor()).size() == 0) {
+            winner = computer;
+            return true;
+        } else if (getPawnsFor(getComputerColor()).size() == 0) {
+            winner = human;
             return true;
         } else if (mustSkipComputer() && mustSkipHuman()) {
             winner = mostPawns();
@@ -805,6 +962,7 @@ public class PawnBoard implements Board {
 
         cloned.board =
                 Arrays.stream(board).map(char[]::clone).toArray(char[][]::new);
+        cloned.searchTree = null;
 
         cloned.human = human;
         cloned.computer = computer;
@@ -0,0 +1,413 @@
+package model.board;
+
+import model.player.Color;
+
+import java.util.List;
+
+/**
+ * Compact text notation of a Pawns Chess situation, similar to the
+ * Forsyth-Edwards notation of chess, e.g. for the start of an 8 x 8 game
+ * with white at the bottom, moving first:
+ * <pre>
+ * BBBBBBBB/8/8/8/8/8/8/WWWWWWWW w w w
+ * </pre>
+ * The first field lists the rows from the top to the bottom, separated by
+ * '/', 'W' and 'B' being white and black pawns and a number that many free
+ * tiles; the amount of rows gives the size of the board. The next fields
+ * are the color to move, the color of the human at the bottom and the color
+ * of the player who opened the game, each 'w' or 'b'.
+ *
+ * Parsing and writing work directly on the characters, so apart from the
+ * resulting board nothing is allocated, and a BitBoard can be filled without
+ * allocating at all, e.g. to load many situations for a benchmark.
+ *
+ * Moves are written as two squares, each a column letter and a row number
+ * counted from the bottom, e.g. a1a2, and handled packed into an int.
+ */
+public final class PositionNotation {
+
+    /**
+     * Parses a situation into a new board.
+     *
+     * @param text the notation.
+     * @param difficulty level of prediction of the bot.
+     * @return the situation.
+     * @throws IllegalArgumentException if the notation is invalid.
+     */
+    public static PawnBoard parse(CharSequence text, int difficulty) {
+        int end = boardEnd(text);
+        int size = sizeOf(text, end);
+        Color humanColor = color(text, end + 3);
+        boolean computerToMove = color(text, end + 1) != humanColor;
+        boolean computerStarted = color(text, end + 5) != humanColor;
+        checkEnd(text, end + 6);
+
+        PawnBoard toReturn = new PawnBoard(computerStarted ? 1 : 0,
+                difficulty, humanColor, size);
+        placePawns(text, end, size, toReturn.getBoard(), null, humanColor);
+        toReturn.setUp(computerToMove);
+        return toReturn;
+    }
+
+    /**
+     * Parses a situation into an existing BitBoard, replacing its pawns.
+     *
+     * @param text the notation.
+     * @param into the board, of the size of the situation.
+     * @throws IllegalArgumentException if the notation is invalid or of
+     * another size.
+     */
+    public static void parse(CharSequence text, BitBoard into) {
+        int end = boardEnd(text);
+        int size = sizeOf(text, end);
+        if (size != into.getSize()) {
+            throw new IllegalArgumentException("Position of size " + size
+                    + " does not fit a board of size " + into.getSize() + "!");
+        }
+        Color humanColor = color(text, end + 3);
+        boolean computerToMove = color(text, end + 1) != humanColor;
+        color(text, end + 5);
+        checkEnd(text, end + 6);
+
+        into.clearPawns();
+        placePawns(text, end, size, null, into, humanColor);
+        into.setUp(computerToMove);
+    }
+
+    /**
+     * Writes the notation of a situation.
+     *
+     * @param game the situation.
+     * @param into the builder to append the notation to.
+     * @return the given builder.
+     */
+    public static StringBuilder format(PawnBoard game, StringBuilder into) {
+        int size = game.getSize();
+        char[][] board = game.getBoard();
+        for (int row = 0; row < size; row++) {
+            if (row > 0) {
+                into.append('/');
+            }
+            int free = 0;
+            for (int col = 0; col < size; col++) {
+                char tile = board[col][row];
+                if (tile == ' ') {
+                    free++;
+                } else {
+                    if (free > 0) {
+                        into.append(free);
+                        free = 0;
+                    }
+                    into.append(tile);
+                }
+            }
+            if (free > 0) {
+                into.append(free);
+            }
+        }
+        return into.append(' ')
+                .append(letter(game.getCurrentPlayer().getColor()))
+                .append(' ').append(letter(game.getHumanColor()))
+                .append(' ')
+                .append(letter(game.getOpeningPlayer().getColor()));
+    }
+
+    /**
+     * Writes the notation of a situation.
+     *
+     * @param game the situation.
+     * @return the notation.
+     */
+    public static String format(PawnBoard game) {
+        return format(game, new StringBuilder(80)).toString();
+    }
+
+    /**
+     * Packs a move into an int, one byte each for the column and row of the
+     * moved pawn and of the target tile, rows counted from the top.
+     *
+     * @param colFrom the column of the moved pawn.
+     * @param rowFrom the row of the moved pawn.
+     * @param colTo the column of the target tile.
+     * @param rowTo the row of the target tile.
+     * @return the packed move.
+     */
+    public static int packMove(int colFrom, int rowFrom, int colTo,
+                               int rowTo) {
+        return colFrom << 24 | rowFrom << 16 | colTo << 8 | rowTo;
+    }
+
+    /**
+     * Finds the move between two situations.
+     *
+     * @param before the situation before the move.
+     * @param after the situation after the move.
+     * @return the packed move, see packMove.
+     */
+    public static int findMove(PawnBoard before, PawnBoard after) {
+        int size = before.getSize();
+        char[][] from = before.getBoard();
+        char[][] to = after.getBoard();
+        int colFrom = 0;
+        int rowFrom = 0;
+        int colTo = 0;
+        int rowTo = 0;
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                if (from[col][row] != ' ' && to[col][row] == ' ') {
+                    colFrom = col;
+                    rowFrom = row;
+                } else if (to[col][row] != ' '
+                        && to[col][row] != from[col][row]) {
+                    colTo = col;
+                    rowTo = row;
+                }
+            }
+        }
+        return packMove(colFrom, rowFrom, colTo, rowTo);
+    }
+
+    /**
+     * Writes a move as two squares, each a column letter and a row number
+     * counted from the bottom, e.g. a1a2.
+     *
+     * @param move the packed move, see packMove.
+     * @param size the size of the board.
+     * @param into the builder to append the move to.
+     * @return the given builder.
+     */
+    public static StringBuilder formatMove(int move, int size,
+                                           StringBuilder into) {
+        return into.append((char) ('a' + (move >>> 24)))
+                .append(size - ((move >>> 16) & 0xFF))
+                .append((char) ('a' + ((move >>> 8) & 0xFF)))
+                .append(size - (move & 0xFF));
+    }
+
+    /**
+     * Writes a move as two squares, e.g. a1a2.
+     *
+     * @param move the packed move, see packMove.
+     * @param size the size of the board.
+     * @return the move.
+     */
+    public static String formatMove(int move, int size) {
+        return formatMove(move, size, new StringBuilder(8)).toString();
+    }
+
+    /**
+     * Reads a move written by formatMove, without checking if it is legal.
+     *
+     * @param text the text containing the move.
+     * @param start the index of the first character of the move.
+     * @param end the index following the move.
+     * @param size the size of the board.
+     * @return the packed move, see packMove.
+     * @throws IllegalArgumentException if no move of the board is given.
+     */
+    public static int parseMove(CharSequence text, int start, int end,
+                                int size) {
+        int i = start;
+        int colFrom = text.charAt(i++) - 'a';
+        int rankFrom = 0;
+        while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'
+                && rankFrom <= size) {
+            rankFrom = 10 * rankFrom + text.charAt(i++) - '0';
+        }
+        int colTo = i < end ? text.charAt(i++) - 'a' : -1;
+        int rankTo = 0;
+        while (i < end && text.charAt(i) >= '0' && text.charAt(i) <= '9'
+                && rankTo <= size) {
+            rankTo = 10 * rankTo + text.charAt(i++) - '0';
+        }
+        if (i != end || colFrom < 0 || colFrom >= size || colTo < 0
+                || colTo >= size || rankFrom < 1 || rankFrom > size
+                || rankTo < 1 || rankTo > size) {
+            throw new IllegalArgumentException("Invalid move "
+                    + text.subSequence(start, end) + "!");
+        }
+        return packMove(colFrom, size - rankFrom, colTo, size - rankTo);
+    }
+
+    /**
+     * Performs a move of the player to move, if it is legal.
+     *
+     * @param board the situation before the move.
+     * @param move the packed move, see packMove.
+     * @return a new board with the move performed.
+     * @throws IllegalArgumentException if the move is not possible.
+     */
+    public static PawnBoard play(PawnBoard board, int move) {
+        int colFrom = move >>> 24;
+        int rowFrom = (move >>> 16) & 0xFF;
+        int colTo = (move >>> 8) & 0xFF;
+        int rowTo = move & 0xFF;
+        List<int[]> targets = board.isGameOver() ? null
+                : board.viablePawnMoves(board.getCurrentPlayer())
+                .get(List.of(colFrom, rowFrom));
+        if (targets != null) {
+            for (int[] target : targets) {
+                if (target[0] == colTo && target[1] == rowTo) {
+                    return board.clone().moving(colFrom, rowFrom, colTo,
+                            rowTo);
+                }
+            }
+        }
+        throw new IllegalArgumentException("Illegal move "
+                + formatMove(move, board.getSize()) + "!");
+    }
+
+    /**
+     * Finds the end of the first field.
+     *
+     * @param text the notation.
+     * @return the index of the space following the rows.
+     * @throws IllegalArgumentException if there is no such space.
+     */
+    private static int boardEnd(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == ' ') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Position lacks the player to "
+                + "move!");
+    }
+
+    /**
+     * Counts the rows of the first field.
+     *
+     * @param text the notation.
+     * @param end the end of the first field.
+     * @return the size of the board.
+     * @throws IllegalArgumentException if the size is not supported.
+     */
+    private static int sizeOf(CharSequence text, int end) {
+        int toReturn = 1;
+        for (int i = 0; i < end; i++) {
+            if (text.charAt(i) == '/') {
+                toReturn++;
+            }
+        }
+        if (toReturn < PawnBoard.MIN_SIZE || toReturn > PawnBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between "
+                    + PawnBoard.MIN_SIZE + " and " + PawnBoard.MAX_SIZE
+                    + "!");
+        }
+        return toReturn;
+    }
+
+    /**
+     * Places the pawns of the first field into either a char array or a
+     * BitBoard, checking the length of every row.
+     *
+     * @param text the notation.
+     * @param end the end of the first field.
+     * @param size the size of the board.
+     * @param board the char array of a PawnBoard, null if not used.
+     * @param bits the BitBoard, null if not used.
+     * @param humanColor the color of the human at the bottom.
+     * @throws IllegalArgumentException if a row is invalid.
+     */
+    private static void placePawns(CharSequence text, int end, int size,
+                                   char[][] board, BitBoard bits,
+                                   Color humanColor) {
+        char humanSymbol = humanColor == Color.WHITE ? 'W' : 'B';
+        int row = 0;
+        int col = 0;
+        for (int i = 0; i <= end; i++) {
+            char c = i < end ? text.charAt(i) : '/';
+            if (c == '/') {
+                if (col != size) {
+                    throw new IllegalArgumentException("Row " + (row + 1)
+                            + " does not have " + size + " tiles!");
+                }
+                row++;
+                col = 0;
+            } else if (c >= '1' && c <= '9') {
+                int free = c - '0';
+                if (i + 1 < end && text.charAt(i + 1) >= '0'
+                        && text.charAt(i + 1) <= '9') {
+                    free = 10 * free + text.charAt(++i) - '0';
+                }
+                if (col + free > size) {
+                    throw new IllegalArgumentException("Row " + (row + 1)
+                            + " has more than " + size + " tiles!");
+                }
+                if (board != null) {
+                    for (int j = col; j < col + free; j++) {
+                        board[j][row] = ' ';
+                    }
+                }
+                col += free;
+            } else if (c == 'W' || c == 'B') {
+                if (col == size) {
+                    throw new IllegalArgumentException("Row " + (row + 1)
+                            + " has more than " + size + " tiles!");
+                }
+                if (board != null) {
+                    board[col][row] = c;
+                } else {
+                    bits.addPawn(bits.square(col, row), c != humanSymbol);
+                }
+                col++;
+            } else {
+                throw new IllegalArgumentException("Unknown tile " + c
+                        + " in position!");
+            }
+        }
+    }
+
+    /**
+     * Reads a color field.
+     *
+     * @param text the notation.
+     * @param index the index of the field, following a space.
+     * @return the color.
+     * @throws IllegalArgumentException if the field is not 'w' or 'b'.
+     */
+    private static Color color(CharSequence text, int index) {
+        if (index < text.length() && text.charAt(index - 1) == ' ') {
+            char c = text.charAt(index);
+            if (c == 'w') {
+                return Color.WHITE;
+            } else if (c == 'b') {
+                return Color.BLACK;
+            }
+        }
+        throw new IllegalArgumentException("Expected w or b at position "
+                + index + "!");
+    }
+
+    /**
+     * Checks that nothing follows the last field.
+     *
+     * @param text the notation.
+     * @param index the index following the last field.
+     * @throws IllegalArgumentException if there are further characters.
+     */
+    private static void checkEnd(CharSequence text, int index) {
+        if (text.length() > index) {
+            throw new IllegalArgumentException("Unexpected characters at "
+                    + "the end of position!");
+        }
+    }
+
+    /**
+     * Gets the letter of a color.
+     *
+     * @param color white or black.
+     * @return 'w' or 'b'.
+     */
+    private static char letter(Color color) {
+        return color == Color.WHITE ? 'w' : 'b';
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private PositionNotation() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
@@ -0,0 +1,196 @@
+package model.board;
+
+/**
+ * BitBoard for boards with up to 64 tiles, storing the pawns of each player
+ * in a single long. All moves of one kind (e.g. captures to the left) are
+ * found at once by shifting these longs.
+ */
+public final class SmallBitBoard extends BitBoard {
+
+    private final long all;
+    private final long firstRow;
+    private final long lastRow;
+    private final long leftCol;
+    private final long rightCol;
+    private long computer;
+    private long human;
+
+    /**
+     * Constructor for an empty board of the given size.
+     *
+     * @param size the number of columns and rows, at most 8.
+     */
+    SmallBitBoard(int size) {
+        super(size);
+        int squares = size * size;
+        all = squares == Long.SIZE ? -1L : (1L << squares) - 1;
+        firstRow = (1L << size) - 1;
+        lastRow = firstRow << (squares - size);
+        long column = 0;
+        for (int row = 0; row < size; row++) {
+            column |= 1L << (row * size);
+        }
+        leftCol = column;
+        rightCol = column << (size - 1);
+    }
+
+    /**
+     * Getter method for the pawns of the computer.
+     *
+     * @return the bits of all tiles with a pawn of the computer.
+     */
+    public long getComputerPawns() {
+        return computer;
+    }
+
+    /**
+     * Getter method for the pawns of the human.
+     *
+     * @return the bits of all tiles with a pawn of the human.
+     */
+    public long getHumanPawns() {
+        return human;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int generateMoves(int[] moves) {
+        long empty = ~(computer | human) & all;
+        int count;
+        if (computerToMove) {
+            count = addMoves(moves, 0, (computer << size) & empty, size);
+            count = addMoves(moves, count,
+                    ((computer & firstRow) << (2 * size)) & empty, 2 * size);
+            count = addMoves(moves, count,
+                    ((computer & ~leftCol) << (size - 1)) & human, size - 1);
+            count = addMoves(moves, count,
+                    ((computer & ~rightCol) << (size + 1)) & human, size + 1);
+        } else {
+            count = addMoves(moves, 0, (human >>> size) & empty, -size);
+            count = addMoves(moves, count,
+                    ((human & lastRow) >>> (2 * size)) & empty, -2 * size);
+            count = addMoves(moves, count,
+                    ((human & ~leftCol) >>> (size + 1)) & computer,
+                    -size - 1);
+            count = addMoves(moves, count,
+                    ((human & ~rightCol) >>> (size - 1)) & computer,
+                    -size + 1);
+        }
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int countPawns(boolean ofComputer) {
+        return Long.bitCount(ofComputer ? computer : human);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean isOccupied(int square) {
+        return ((computer | human) & (1L << square)) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void addPawn(int square, boolean ofComputer) {
+        if (ofComputer) {
+            computer |= 1L << square;
+        } else {
+            human |= 1L << square;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void clearPawns() {
+        computer = 0;
+        human = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void movePawn(int from, int to) {
+        long fromBit = 1L << from;
+        long toBit = 1L << to;
+        if (computerToMove) {
+            computer = (computer & ~fromBit) | toBit;
+            human &= ~toBit;
+        } else {
+            human = (human & ~fromBit) | toBit;
+            computer &= ~toBit;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    void copyPawns(BitBoard other) {
+        SmallBitBoard small = (SmallBitBoard) other;
+        computer = small.computer;
+        human = small.human;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean reachedGoal(boolean ofComputer) {
+        if (ofComputer) {
+            return (computer & lastRow) != 0;
+        } else {
+            return (human & firstRow) != 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    boolean hasMoves() {
+        long empty = ~(computer | human) & all;
+        if (computerToMove) {
+            return ((computer << size) & empty) != 0
+                    || (((computer & firstRow) << (2 * size)) & empty) != 0
+                    || (((computer & ~leftCol) << (size - 1)) & human) != 0
+                    || (((computer & ~rightCol) << (size + 1)) & human) != 0;
+        } else {
+            return ((human >>> size) & empty) != 0
+                    || (((human & lastRow) >>> (2 * size)) & empty) != 0
+                    || (((human & ~leftCol) >>> (size + 1)) & computer) != 0
+                    || (((human & ~rightCol) >>> (size - 1)) & computer) != 0;
+        }
+    }
+
+    /**
+     * Writes a move for each set bit of the given targets.
+     *
+     * @param moves the array to write into.
+     * @param count the amount of moves already written.
+     * @param targets the bits of all targeted tiles.
+     * @param delta the difference between target and origin bit.
+     * @return the new amount of moves written.
+     */
+    private static int addMoves(int[] moves, int count, long targets,
+                                int delta) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            moves[count++] = encodeMove(to - delta, to);
+            targets &= targets - 1;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,368 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.player.Color;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reader of archives written by BinaryGameWriter, going through the games
+ * one after another or jumping to any game via the index of the archive.
+ * To turn the tile and direction of a move back into a target tile, the
+ * pawns of the game being read are followed on a board, without checking
+ * the moves.
+ *
+ * An archive whose writer was never closed, e.g. as the program was killed,
+ * lacks the index. Its complete games are then found by a scan when the
+ * archive is opened, which builds the index in memory, and an incomplete
+ * last game is left out.
+ */
+public final class BinaryGameReader implements GameReader {
+
+    // Bytes of the end of an archive, following the index.
+    private static final int TRAILER_BYTES = 2 * Long.BYTES
+            + 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    private final long indexOffset;
+    private final int blockGames;
+    private long games;
+    // Offset of the first game of each block, null if read from the index
+    // of the file.
+    private long[] blockOffsets;
+    private DataInputStream in;
+    private long nextGame;
+    // Encoded game being read, reused for all games.
+    private byte[] buffer;
+    private int position;
+    private int limit;
+
+    /**
+     * Constructor opening an archive at its first game.
+     *
+     * @param file the archive.
+     * @throws IOException if the file cannot be read or is no archive.
+     */
+    public BinaryGameReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.buffer = new byte[256];
+        try {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES + 1);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < header.capacity()
+                    || header.getInt() != BinaryGameWriter.MAGIC) {
+                throw new IOException("No game archive!");
+            }
+            if (header.get() != BinaryGameWriter.VERSION) {
+                throw new IOException("Unsupported version of game "
+                        + "archive!");
+            }
+            ByteBuffer trailer = readTrailer();
+            if (trailer != null) {
+                indexOffset = trailer.getLong();
+                games = trailer.getLong();
+                blockGames = trailer.getInt();
+            } else {
+                indexOffset = -1;
+                blockGames = BinaryGameWriter.BLOCK_GAMES;
+                scan();
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        seek(Integer.BYTES + 1);
+    }
+
+    /**
+     * Reads the end of the archive written on closing the writer.
+     *
+     * @return the end of the archive, null if the archive has none.
+     * @throws IOException if the file cannot be read.
+     */
+    private ByteBuffer readTrailer() throws IOException {
+        long size = channel.size();
+        if (size < Integer.BYTES + 1 + TRAILER_BYTES) {
+            return null;
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_BYTES);
+        channel.read(trailer, size - TRAILER_BYTES);
+        trailer.flip();
+        if (trailer.remaining() < TRAILER_BYTES
+                || trailer.getInt(TRAILER_BYTES - Integer.BYTES)
+                != BinaryGameWriter.MAGIC) {
+            return null;
+        }
+
+        // Games may end with the bytes of the magic number by chance.
+        long offset = trailer.getLong(0);
+        long count = trailer.getLong(Long.BYTES);
+        int block = trailer.getInt(2 * Long.BYTES);
+        if (block < 1 || count < 0 || offset < Integer.BYTES + 1
+                || offset + (count + block - 1) / block * Long.BYTES
+                != size - TRAILER_BYTES) {
+            return null;
+        }
+        return trailer;
+    }
+
+    /**
+     * Finds the complete games of an archive without index by skipping
+     * from game to game, keeping the offset of the first game of each
+     * block.
+     *
+     * @throws IOException if the file cannot be read.
+     */
+    private void scan() throws IOException {
+        long size = channel.size();
+        long offset = Integer.BYTES + 1;
+        blockOffsets = new long[16];
+        seek(offset);
+        while (offset < size) {
+            int length;
+            try {
+                length = readVarint();
+            } catch (IOException e) {
+                break;
+            }
+            long end = offset + (32 - Integer.numberOfLeadingZeros(length)
+                    + 6) / 7 + length;
+            if (length <= 0 || end > size) {
+                break;
+            }
+            if (games % blockGames == 0) {
+                int block = (int) (games / blockGames);
+                if (block == blockOffsets.length) {
+                    blockOffsets = Arrays.copyOf(blockOffsets, 2 * block);
+                }
+                blockOffsets[block] = offset;
+            }
+            in.skipNBytes(length);
+            offset = end;
+            games++;
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of games in the archive.
+     */
+    public long getGameCount() {
+        return games;
+    }
+
+    /**
+     * Jumps to a game, so next reads it and the following ones.
+     *
+     * @param number the number of the game, starting at 0.
+     * @throws IOException if the file cannot be read.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public void skipTo(long number) throws IOException {
+        if (number < 0 || number >= games) {
+            throw new IndexOutOfBoundsException("No game " + number + "!");
+        }
+        if (blockOffsets != null) {
+            seek(blockOffsets[(int) (number / blockGames)]);
+        } else {
+            ByteBuffer entry = ByteBuffer.allocate(Long.BYTES);
+            channel.read(entry, indexOffset + number / blockGames
+                    * Long.BYTES);
+            seek(entry.flip().getLong());
+        }
+        nextGame = number - number % blockGames;
+        while (nextGame < number) {
+            in.skipNBytes(readVarint());
+            nextGame++;
+        }
+    }
+
+    /**
+     * Reads a game, jumping to it via the index.
+     *
+     * @param number the number of the game, starting at 0.
+     * @return the game.
+     * @throws IOException if the file cannot be read or is corrupt.
+     * @throws IndexOutOfBoundsException if there is no such game.
+     */
+    public GameRecord read(long number) throws IOException {
+        skipTo(number);
+        return next();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GameRecord next() throws IOException {
+        if (nextGame >= games) {
+            return null;
+        }
+        int length = readVarint();
+        if (buffer.length < length) {
+            buffer = new byte[Math.max(length, 2 * buffer.length)];
+        }
+        in.readFully(buffer, 0, length);
+        position = 0;
+        limit = length;
+        nextGame++;
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        for (int i = getVarint(); i > 0; i--) {
+            tags.put(getString(), getString());
+        }
+        String start = getString();
+        int result = getByte();
+        int count = getVarint();
+        if (result >= GameRecord.RESULTS.size()
+                || count > limit - position) {
+            throw new IOException("Game " + (nextGame - 1) + " corrupt!");
+        }
+        int[] moves = new int[count];
+
+        // Pawns followed to find out in which direction each one moves.
+        PawnBoard game;
+        try {
+            game = PositionNotation.parse(start, 0);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Game " + (nextGame - 1) + " corrupt: "
+                    + e.getMessage());
+        }
+        int size = game.getSize();
+        char[][] board = game.getBoard();
+        char computer = game.getHumanColor() == Color.WHITE ? 'B' : 'W';
+        boolean wide = size * size > 64;
+        for (int i = 0; i < moves.length; i++) {
+            int code = wide ? getByte() << 8 | getByte() : getByte();
+            int colFrom = (code >>> 2) % size;
+            int rowFrom = (code >>> 2) / size;
+            char pawn = rowFrom < size ? board[colFrom][rowFrom] : ' ';
+            if (pawn == ' ') {
+                throw new IOException("Game " + (nextGame - 1)
+                        + " corrupt: no pawn to move!");
+            }
+            int ahead = pawn == computer ? 1 : -1;
+            int direction = code & 3;
+            int colTo = colFrom;
+            int rowTo = rowFrom + ahead;
+            if (direction == BinaryGameWriter.TWO_AHEAD) {
+                rowTo += ahead;
+            } else if (direction == BinaryGameWriter.LEFT) {
+                colTo--;
+            } else if (direction == BinaryGameWriter.RIGHT) {
+                colTo++;
+            }
+            if (colTo < 0 || colTo >= size || rowTo < 0 || rowTo >= size) {
+                throw new IOException("Game " + (nextGame - 1)
+                        + " corrupt: move off the board!");
+            }
+            board[colTo][rowTo] = pawn;
+            board[colFrom][rowFrom] = ' ';
+            moves[i] = PositionNotation.packMove(colFrom, rowFrom, colTo,
+                    rowTo);
+        }
+        return new GameRecord(tags, start, moves,
+                GameRecord.RESULTS.get(result));
+    }
+
+    /**
+     * Continues reading the file at an offset.
+     *
+     * @param offset the offset in bytes.
+     * @throws IOException if the file cannot be read.
+     */
+    private void seek(long offset) throws IOException {
+        channel.position(offset);
+        // Not closed, as that would close the channel.
+        in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel), 1 << 16));
+    }
+
+    /**
+     * Reads a varint from the file.
+     *
+     * @return the value.
+     * @throws IOException if the file cannot be read.
+     */
+    private int readVarint() throws IOException {
+        int toReturn = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            toReturn |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return toReturn;
+            }
+        }
+        throw new IOException("Game archive corrupt!");
+    }
+
+    /**
+     * Gets the next byte of the encoded game.
+     *
+     * @return the byte, between 0 and 255.
+     * @throws IOException if the game has no more bytes.
+     */
+    private int getByte() throws IOException {
+        if (position >= limit) {
+            throw new IOException("Game " + (nextGame - 1) + " corrupt!");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Gets the next varint of the encoded game.
+     *
+     * @return the value.
+     * @throws IOException if the game is corrupt.
+     */
+    private int getVarint() throws IOException {
+        int toReturn = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = getByte();
+            toReturn |= (b & 0x7F) << shift;
+            if (b < 0x80) {
+                return toReturn;
+            }
+        }
+        throw new IOException("Game " + (nextGame - 1) + " corrupt!");
+    }
+
+    /**
+     * Gets the next string of the encoded game.
+     *
+     * @return the string.
+     * @throws IOException if the game is corrupt.
+     */
+    private String getString() throws IOException {
+        int length = getVarint();
+        if (length > limit - position) {
+            throw new IOException("Game " + (nextGame - 1) + " corrupt!");
+        }
+        String toReturn = new String(buffer, position, length,
+                StandardCharsets.UTF_8);
+        position += length;
+        return toReturn;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
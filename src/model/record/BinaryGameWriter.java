@@ -0,0 +1,206 @@
+package model.record;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Writer of games into a compact binary archive. The file starts with a
+ * magic number and a version, followed by the games, each prefixed by its
+ * length in bytes:
+ * <pre>
+ * game:  varint amount of tags, per tag the name and value as strings,
+ *        the start situation as string, one byte result (index into
+ *        GameRecord.RESULTS),
+ *        varint amount of moves, the moves
+ * string: varint amount of bytes, the bytes in UTF-8
+ * </pre>
+ * A move is the tile of the moved pawn times four plus its direction
+ * (ahead, two ahead, capturing to the left or to the right column), which
+ * takes one byte on boards of up to 8 x 8 and two bytes (big endian) on
+ * larger ones. Varints store 7 bits per byte, least significant first.
+ *
+ * Every BLOCK_GAMES games form a block. After the last game, the index
+ * holds the offset of the first game of each block, followed by the offset
+ * of the index, the amount of games, BLOCK_GAMES and the magic number, so
+ * BinaryGameReader reaches game N by skipping less than a block. Only the
+ * index is kept in memory, eight bytes per block. The index is written by
+ * close, so an archive of a writer never closed lacks it, and the reader
+ * has to scan the whole archive for its complete games first.
+ */
+public final class BinaryGameWriter implements GameWriter {
+
+    /**
+     * Marks the start and the end of an archive.
+     */
+    public static final int MAGIC = 0x50415742;
+
+    /**
+     * Version of the format, to be increased with every change.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Amount of games per block of the index.
+     */
+    public static final int BLOCK_GAMES = 1024;
+
+    // Direction of a move, added to four times the tile of the pawn.
+    static final int AHEAD = 0;
+    static final int TWO_AHEAD = 1;
+    static final int LEFT = 2;
+    static final int RIGHT = 3;
+
+    private final DataOutputStream out;
+    private long offset;
+    private long games;
+    private long[] index;
+    private int blocks;
+    // Encoded game being written, reused for all games.
+    private byte[] buffer;
+    private int length;
+
+    /**
+     * Constructor creating a new archive, replacing an existing file.
+     *
+     * @param file the archive.
+     * @throws IOException if the file cannot be created.
+     */
+    public BinaryGameWriter(Path file) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file), 1 << 16));
+        this.index = new long[16];
+        this.buffer = new byte[256];
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        offset = Integer.BYTES + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(GameRecord game) throws IOException {
+        length = 0;
+        putVarint(game.getTags().size());
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            putString(tag.getKey());
+            putString(tag.getValue());
+        }
+        putString(game.getPosition());
+        putByte(GameRecord.RESULTS.indexOf(game.getResult()));
+        putVarint(game.getMoveCount());
+        int size = game.getSize();
+        boolean wide = size * size > 64;
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            int code = encode(game.getMove(i), size);
+            if (wide) {
+                putByte(code >>> 8);
+            }
+            putByte(code);
+        }
+
+        if (games % BLOCK_GAMES == 0) {
+            if (blocks == index.length) {
+                index = Arrays.copyOf(index, 2 * blocks);
+            }
+            index[blocks++] = offset;
+        }
+        int prefix = length;
+        while (prefix >= 0x80) {
+            out.writeByte(prefix & 0x7F | 0x80);
+            prefix >>>= 7;
+            offset++;
+        }
+        out.writeByte(prefix);
+        out.write(buffer, 0, length);
+        offset += 1 + length;
+        games++;
+    }
+
+    /**
+     * Encodes a move as the tile of the pawn and the direction.
+     *
+     * @param move the packed move, see PositionNotation.packMove.
+     * @param size the size of the board.
+     * @return the encoded move.
+     */
+    private static int encode(int move, int size) {
+        int colFrom = move >>> 24;
+        int rowFrom = (move >>> 16) & 0xFF;
+        int colTo = (move >>> 8) & 0xFF;
+        int rowTo = move & 0xFF;
+        int direction;
+        if (colTo < colFrom) {
+            direction = LEFT;
+        } else if (colTo > colFrom) {
+            direction = RIGHT;
+        } else if (Math.abs(rowTo - rowFrom) == 2) {
+            direction = TWO_AHEAD;
+        } else {
+            direction = AHEAD;
+        }
+        return (rowFrom * size + colFrom) << 2 | direction;
+    }
+
+    /**
+     * Appends a byte to the encoded game.
+     *
+     * @param value the byte in the lowest 8 bits.
+     */
+    private void putByte(int value) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * length);
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    /**
+     * Appends a varint to the encoded game.
+     *
+     * @param value the non-negative value.
+     */
+    private void putVarint(int value) {
+        while (value >= 0x80) {
+            putByte(value & 0x7F | 0x80);
+            value >>>= 7;
+        }
+        putByte(value);
+    }
+
+    /**
+     * Appends a string to the encoded game.
+     *
+     * @param value the string.
+     */
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length);
+        for (byte b : bytes) {
+            putByte(b);
+        }
+    }
+
+    /**
+     * Writes the index and closes the file.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try (DataOutputStream toClose = out) {
+            for (int i = 0; i < blocks; i++) {
+                toClose.writeLong(index[i]);
+            }
+            toClose.writeLong(offset);
+            toClose.writeLong(games);
+            toClose.writeInt(BLOCK_GAMES);
+            toClose.writeInt(MAGIC);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package model.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reader going through the games of an archive one at a time, without
+ * keeping the games read so far.
+ */
+public interface GameReader extends Closeable {
+
+    /**
+     * Reads the next game of the archive.
+     *
+     * @return the game, null if there are no more games.
+     * @throws IOException if the archive cannot be read or is corrupt.
+     */
+    GameRecord next() throws IOException;
+}
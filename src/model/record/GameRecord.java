@@ -0,0 +1,199 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.player.Color;
+import model.player.Player;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Record of a single game as written to an archive: descriptive tags (e.g.
+ * the engines and the date), the start situation in the notation of
+ * PositionNotation, the moves packed by PositionNotation.packMove and the
+ * result.
+ */
+public final class GameRecord {
+
+    /**
+     * Result of a game won by white.
+     */
+    public static final String WHITE_WINS = "1-0";
+
+    /**
+     * Result of a game won by black.
+     */
+    public static final String BLACK_WINS = "0-1";
+
+    /**
+     * Result of a drawn game.
+     */
+    public static final String DRAW = "1/2-1/2";
+
+    /**
+     * Result of a game not finished or with unknown outcome.
+     */
+    public static final String UNKNOWN = "*";
+
+    /**
+     * All results in the order of their codes in a binary archive.
+     */
+    static final List<String> RESULTS =
+            List.of(UNKNOWN, WHITE_WINS, BLACK_WINS, DRAW);
+
+    private final Map<String, String> tags;
+    private final String position;
+    private final int[] moves;
+    private final String result;
+
+    /**
+     * Constructor for a recorded game.
+     *
+     * @param tags the descriptive tags by name, in the order to write them.
+     * @param position the start situation, see PositionNotation.
+     * @param moves the packed moves, see PositionNotation.packMove.
+     * @param result one of WHITE_WINS, BLACK_WINS, DRAW or UNKNOWN.
+     * @throws IllegalArgumentException if the result is unknown.
+     */
+    public GameRecord(Map<String, String> tags, String position, int[] moves,
+                      String result) {
+        if (!RESULTS.contains(result)) {
+            throw new IllegalArgumentException("Unknown result " + result
+                    + "!");
+        }
+        this.tags = Collections.unmodifiableMap(new LinkedHashMap<>(tags));
+        this.position = position;
+        this.moves = moves.clone();
+        this.result = result;
+    }
+
+    /**
+     * Records a game by the situations after each move.
+     *
+     * @param tags the descriptive tags by name.
+     * @param start the start situation.
+     * @param situations the situations after each move, the last one ending
+     *                   the game if it is over.
+     * @return the record.
+     */
+    public static GameRecord of(Map<String, String> tags, PawnBoard start,
+                                List<PawnBoard> situations) {
+        int[] moves = new int[situations.size()];
+        PawnBoard before = start;
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = PositionNotation.findMove(before, situations.get(i));
+            before = situations.get(i);
+        }
+        return new GameRecord(tags, PositionNotation.format(start), moves,
+                resultOf(before));
+    }
+
+    /**
+     * Gets the result of a situation.
+     *
+     * @param game the situation.
+     * @return the result, UNKNOWN if the game is not over.
+     */
+    public static String resultOf(PawnBoard game) {
+        if (!game.isGameOver()) {
+            return UNKNOWN;
+        }
+        Player winner = game.getWinner();
+        if (winner == null) {
+            return DRAW;
+        }
+        return winner.getColor() == Color.WHITE ? WHITE_WINS : BLACK_WINS;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the descriptive tags by name, not to be changed.
+     */
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the start situation, see PositionNotation.
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the size of the board from the start situation.
+     *
+     * @return the number of columns and rows.
+     */
+    public int getSize() {
+        return sizeOf(position);
+    }
+
+    /**
+     * Counts the rows of a situation.
+     *
+     * @param position the situation, see PositionNotation.
+     * @return the number of columns and rows.
+     */
+    static int sizeOf(String position) {
+        int toReturn = 1;
+        for (int i = 0; i < position.length() && position.charAt(i) != ' ';
+                i++) {
+            if (position.charAt(i) == '/') {
+                toReturn++;
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of moves.
+     */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param index the number of the move, starting at 0.
+     * @return the packed move, see PositionNotation.packMove.
+     */
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return one of WHITE_WINS, BLACK_WINS, DRAW or UNKNOWN.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Plays the moves of the game from its start situation.
+     *
+     * @param difficulty level of prediction of the bot.
+     * @param plies the amount of moves to play.
+     * @return the situation after the given amount of moves.
+     * @throws IllegalArgumentException if the start situation or a move is
+     * invalid.
+     */
+    public PawnBoard replay(int difficulty, int plies) {
+        PawnBoard toReturn = PositionNotation.parse(position, difficulty);
+        for (int i = 0; i < plies; i++) {
+            toReturn = PositionNotation.play(toReturn, moves[i]);
+        }
+        return toReturn;
+    }
+}
@@ -0,0 +1,19 @@
+package model.record;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writer appending games to an archive one at a time, without keeping the
+ * games written so far.
+ */
+public interface GameWriter extends Closeable {
+
+    /**
+     * Appends a game to the archive.
+     *
+     * @param game the game.
+     * @throws IOException if the archive cannot be written.
+     */
+    void write(GameRecord game) throws IOException;
+}
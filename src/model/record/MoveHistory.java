@@ -0,0 +1,211 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * History of a game for undo, redo and jumping to any ply, kept as the
+ * packed moves of PositionNotation instead of a copy of the board per move.
+ * Every CHECKPOINT_PLIES plies the situation is kept in the notation of
+ * PositionNotation, so a situation is rebuilt by replaying at most that
+ * many moves from the nearest checkpoint before it.
+ *
+ * The history has a current ply, the situation shown to the player. Moves
+ * added there replace all moves after it, as after an undo in any editor.
+ * Undo and redo step by turns of the human: undo goes back to just before
+ * the last move of the human, redo forward to just before the next one, or
+ * to the end, so the answers of the computer are undone and redone along
+ * with the move of the human.
+ */
+public final class MoveHistory {
+
+    /**
+     * Amount of plies between two checkpoints.
+     */
+    public static final int CHECKPOINT_PLIES = 32;
+
+    private final List<String> checkpoints;
+    // Plies played by the human, the rest by the computer.
+    private final BitSet humanMoves;
+    private int[] moves;
+    private int length;
+    private int ply;
+
+    /**
+     * Constructor for a history starting at a situation.
+     *
+     * @param start the situation before the first move, not changed.
+     */
+    public MoveHistory(PawnBoard start) {
+        this.checkpoints = new ArrayList<>();
+        this.checkpoints.add(PositionNotation.format(start));
+        this.humanMoves = new BitSet();
+        this.moves = new int[CHECKPOINT_PLIES];
+    }
+
+    /**
+     * Adds a move at the current ply, dropping all moves after it.
+     *
+     * @param move the move packed by PositionNotation.packMove.
+     * @param byHuman true if the human played the move.
+     * @param after the situation after the move, kept if a checkpoint is
+     *              due.
+     */
+    public void add(int move, boolean byHuman, PawnBoard after) {
+        length = ply;
+        humanMoves.clear(ply, Math.max(ply, humanMoves.length()));
+        int kept = ply / CHECKPOINT_PLIES + 1;
+        checkpoints.subList(kept, checkpoints.size()).clear();
+        if (length == moves.length) {
+            moves = Arrays.copyOf(moves, 2 * moves.length);
+        }
+        moves[length] = move;
+        humanMoves.set(length, byHuman);
+        length++;
+        ply = length;
+        if (ply % CHECKPOINT_PLIES == 0) {
+            checkpoints.add(PositionNotation.format(after));
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the current ply, the amount of moves played up to the
+     * situation shown.
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of moves, including those that can be redone.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param index the number of the move, starting at 0.
+     * @return the move packed by PositionNotation.packMove.
+     * @throws IndexOutOfBoundsException if there is no such move.
+     */
+    public int getMove(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("No move " + index + "!");
+        }
+        return moves[index];
+    }
+
+    /**
+     * Checks if the human moved before the current ply.
+     *
+     * @return true if undo is possible.
+     */
+    public boolean canUndo() {
+        return humanMoves.previousSetBit(ply - 1) >= 0;
+    }
+
+    /**
+     * Checks if moves follow the current ply.
+     *
+     * @return true if redo is possible.
+     */
+    public boolean canRedo() {
+        return ply < length;
+    }
+
+    /**
+     * Goes back to the situation before the last move of the human.
+     *
+     * @param difficulty the level of the rebuilt board.
+     * @return the situation.
+     * @throws IllegalStateException if the human has not moved yet.
+     */
+    public PawnBoard undo(int difficulty) {
+        if (!canUndo()) {
+            throw new IllegalStateException("No turns to undo!");
+        }
+        return jumpTo(humanMoves.previousSetBit(ply - 1), difficulty);
+    }
+
+    /**
+     * Goes forward to the situation before the next move of the human, or
+     * to the last situation if there is none.
+     *
+     * @param difficulty the level of the rebuilt board.
+     * @return the situation.
+     * @throws IllegalStateException if no moves follow.
+     */
+    public PawnBoard redo(int difficulty) {
+        if (!canRedo()) {
+            throw new IllegalStateException("No turns to redo!");
+        }
+        int next = humanMoves.nextSetBit(ply + 1);
+        return jumpTo(next < 0 ? length : next, difficulty);
+    }
+
+    /**
+     * Goes to the situation after a given amount of moves.
+     *
+     * @param target the ply, between 0 and getLength.
+     * @param difficulty the level of the rebuilt board.
+     * @return the situation.
+     * @throws IndexOutOfBoundsException if there is no such ply.
+     */
+    public PawnBoard jumpTo(int target, int difficulty) {
+        PawnBoard toReturn = situationAt(target, difficulty);
+        ply = target;
+        return toReturn;
+    }
+
+    /**
+     * Rebuilds the situation after a given amount of moves, without
+     * changing the current ply.
+     *
+     * @param target the ply, between 0 and getLength.
+     * @param difficulty the level of the rebuilt board.
+     * @return the situation.
+     * @throws IndexOutOfBoundsException if there is no such ply.
+     */
+    public PawnBoard situationAt(int target, int difficulty) {
+        if (target < 0 || target > length) {
+            throw new IndexOutOfBoundsException("No ply " + target + "!");
+        }
+        int checkpoint = target / CHECKPOINT_PLIES;
+        PawnBoard toReturn = PositionNotation.parse(checkpoints.get(
+                checkpoint), difficulty);
+        for (int i = checkpoint * CHECKPOINT_PLIES; i < target; i++) {
+            int move = moves[i];
+            toReturn.moving(move >>> 24, (move >>> 16) & 0xFF,
+                    (move >>> 8) & 0xFF, move & 0xFF);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Writes the moves up to the current ply.
+     *
+     * @param size the number of columns and rows of the board.
+     * @return the moves, e.g. a1a2, separated by spaces.
+     */
+    public String formatMoves(int size) {
+        StringBuilder toReturn = new StringBuilder();
+        for (int i = 0; i < ply; i++) {
+            if (i > 0) {
+                toReturn.append(' ');
+            }
+            PositionNotation.formatMove(moves[i], size, toReturn);
+        }
+        return toReturn.toString();
+    }
+}
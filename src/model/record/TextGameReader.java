@@ -0,0 +1,183 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.player.Color;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reader of games written by TextGameWriter, reading line by line. A game
+ * without a Position tag starts from the initial 8 x 8 board, white at the
+ * bottom moving first. Move numbers are skipped, the moves are only checked
+ * to lie on the board; whether they are legal shows when the game is
+ * replayed.
+ */
+public final class TextGameReader implements GameReader {
+
+    private static final String START = PositionNotation.format(
+            new PawnBoard(0, 1, Color.WHITE));
+
+    private final BufferedReader in;
+    private int lineNumber;
+    // Moves of the game being read, reused for all games.
+    private int[] moves;
+
+    /**
+     * Constructor for a reader of a stream of characters.
+     *
+     * @param in the stream.
+     */
+    public TextGameReader(BufferedReader in) {
+        this.in = in;
+        this.moves = new int[256];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public GameRecord next() throws IOException {
+        String line = readLine();
+        while (line != null && line.isBlank()) {
+            line = readLine();
+        }
+        if (line == null) {
+            return null;
+        }
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        while (line != null && line.startsWith("[")) {
+            readTag(line, tags);
+            line = readLine();
+        }
+        String position = tags.remove(TextGameWriter.POSITION_TAG);
+        if (position == null) {
+            position = START;
+        }
+        String result = tags.remove(TextGameWriter.RESULT_TAG);
+        while (line != null && line.isBlank()) {
+            line = readLine();
+        }
+
+        // Moves up to the result, the end of the game.
+        int size = sizeOf(position);
+        int count = 0;
+        boolean ended = false;
+        while (line != null && !line.isBlank() && !ended) {
+            int i = 0;
+            while (i < line.length()) {
+                while (i < line.length()
+                        && Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < line.length()
+                        && !Character.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                if (start == i || line.charAt(i - 1) == '.') {
+                    continue;
+                }
+                String word = line.substring(start, i);
+                if (GameRecord.RESULTS.contains(word)) {
+                    result = word;
+                    ended = true;
+                    break;
+                }
+                if (count == moves.length) {
+                    moves = Arrays.copyOf(moves, 2 * count);
+                }
+                try {
+                    moves[count++] = PositionNotation.parseMove(line, start,
+                            i, size);
+                } catch (IllegalArgumentException e) {
+                    throw corrupt(e.getMessage());
+                }
+            }
+            if (!ended) {
+                line = readLine();
+            }
+        }
+        try {
+            return new GameRecord(tags, position, Arrays.copyOf(moves, count),
+                    result == null ? GameRecord.UNKNOWN : result);
+        } catch (IllegalArgumentException e) {
+            throw corrupt(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a line counting the lines.
+     *
+     * @return the line, null at the end of the stream.
+     * @throws IOException if the stream cannot be read.
+     */
+    private String readLine() throws IOException {
+        lineNumber++;
+        return in.readLine();
+    }
+
+    /**
+     * Reads a tag of the form {@code [Name "value"]}.
+     *
+     * @param line the line holding the tag.
+     * @param tags the tags to add to.
+     * @throws IOException if the tag is malformed.
+     */
+    private void readTag(String line, Map<String, String> tags)
+            throws IOException {
+        int space = line.indexOf(' ');
+        if (space < 2 || line.length() < space + 4
+                || line.charAt(space + 1) != '"'
+                || !line.endsWith("\"]")) {
+            throw corrupt("Malformed tag!");
+        }
+        StringBuilder value = new StringBuilder();
+        for (int i = space + 2; i < line.length() - 2; i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length() - 2) {
+                c = line.charAt(++i);
+            }
+            value.append(c);
+        }
+        tags.put(line.substring(1, space), value.toString());
+    }
+
+    /**
+     * Gets the size of the board of a start situation.
+     *
+     * @param position the start situation.
+     * @return the number of columns and rows.
+     * @throws IOException if the size is not supported.
+     */
+    private int sizeOf(String position) throws IOException {
+        int toReturn = GameRecord.sizeOf(position);
+        if (toReturn < PawnBoard.MIN_SIZE || toReturn > PawnBoard.MAX_SIZE) {
+            throw corrupt("Invalid position " + position + "!");
+        }
+        return toReturn;
+    }
+
+    /**
+     * Creates the exception for a corrupt stream.
+     *
+     * @param message the problem.
+     * @return the exception naming the current line.
+     */
+    private IOException corrupt(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
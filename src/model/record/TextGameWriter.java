@@ -0,0 +1,136 @@
+package model.record;
+
+import model.board.PositionNotation;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+/**
+ * Writer of games as readable text similar to the portable game notation of
+ * chess: one tag per line, the start situation and the result being the
+ * tags Position and Result, then a blank line, the numbered moves wrapped to
+ * lines of at most 79 characters, the result and another blank line, e.g.
+ * <pre>
+ * [White "minimax:2"]
+ * [Black "mcts:1"]
+ * [Position "BBBB/4/4/WWWW w w w"]
+ * [Result "1-0"]
+ *
+ * 1. a1a3 b4b3 2. a3b4 1-0
+ * </pre>
+ */
+public final class TextGameWriter implements GameWriter {
+
+    /**
+     * Tag holding the start situation.
+     */
+    public static final String POSITION_TAG = "Position";
+
+    /**
+     * Tag holding the result.
+     */
+    public static final String RESULT_TAG = "Result";
+
+    private static final int LINE_LENGTH = 79;
+
+    private final Writer out;
+    // Line being built, reused for all games.
+    private final StringBuilder line;
+
+    /**
+     * Constructor for a writer appending to a stream of characters.
+     *
+     * @param out the stream, best buffered.
+     */
+    public TextGameWriter(Writer out) {
+        this.out = out;
+        this.line = new StringBuilder(LINE_LENGTH + 16);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void write(GameRecord game) throws IOException {
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            writeTag(tag.getKey(), tag.getValue());
+        }
+        writeTag(POSITION_TAG, game.getPosition());
+        writeTag(RESULT_TAG, game.getResult());
+        out.write(System.lineSeparator());
+
+        int size = game.getSize();
+        line.setLength(0);
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            int start = line.length();
+            if (i % 2 == 0) {
+                line.append(i / 2 + 1).append(". ");
+            }
+            PositionNotation.formatMove(game.getMove(i), size, line);
+            line.append(' ');
+            wrap(start);
+        }
+        int start = line.length();
+        line.append(game.getResult());
+        wrap(start);
+        out.append(line).write(System.lineSeparator());
+        out.write(System.lineSeparator());
+    }
+
+    /**
+     * Writes the line so far if the last word does not fit anymore, keeping
+     * the last word for the next line.
+     *
+     * @param start the index of the last word.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void wrap(int start) throws IOException {
+        int end = line.length();
+        while (end > start && line.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end > LINE_LENGTH && start > 0) {
+            out.append(line, 0, start - 1).write(System.lineSeparator());
+            line.delete(0, start);
+        }
+    }
+
+    /**
+     * Writes a single tag, escaping quotes and backslashes of the value.
+     *
+     * @param name the name of the tag.
+     * @param value the value of the tag.
+     * @throws IOException if the stream cannot be written.
+     * @throws IllegalArgumentException if the name is not a single word or
+     * the value spans several lines.
+     */
+    private void writeTag(String name, String value) throws IOException {
+        if (!name.matches("\\w+") || value.indexOf('\n') >= 0
+                || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Invalid tag " + name + "!");
+        }
+        out.write('[');
+        out.write(name);
+        out.write(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.write('\\');
+            }
+            out.write(c);
+        }
+        out.write("\"]");
+        out.write(System.lineSeparator());
+    }
+
+    /**
+     * Flushes and closes the stream.
+     *
+     * @throws IOException if the stream cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,60 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+/**
+ * The first layer of a NeuralNetwork for one situation: the summed weights
+ * of all pawns on the board. The accumulator of the situation after a move
+ * is derived from the one before by removing the inputs of the moved and
+ * the beaten pawn and adding the input of the moved pawn on its new tile,
+ * instead of summing up all pawns again.
+ */
+public class Accumulator {
+    private final NeuralNetwork network;
+    private final int[] values;
+
+    /**
+     * Constructor for filled neurons.
+     *
+     * @param network the network the neurons belong to.
+     * @param values the neurons.
+     */
+    Accumulator(NeuralNetwork network, int[] values) {
+        this.network = network;
+        this.values = values;
+    }
+
+    /**
+     * Derives the accumulator of the situation after a move.
+     *
+     * @param before the situation before the move.
+     * @param colFrom the column of the moved pawn.
+     * @param rowFrom the row of the moved pawn.
+     * @param colTo the column of the target tile.
+     * @param rowTo the row of the target tile.
+     * @return the accumulator after the move, this one stays unchanged.
+     */
+    public Accumulator moved(PawnBoard before, int colFrom, int rowFrom,
+                             int colTo, int rowTo) {
+        char[][] board = before.getBoard();
+        boolean computer = before.getSlot(colFrom, rowFrom)
+                == before.getComputerColor();
+        int[] toReturn = values.clone();
+        network.add(toReturn, network.input(colFrom, rowFrom, computer), -1);
+        network.add(toReturn, network.input(colTo, rowTo, computer), 1);
+        if (board[colTo][rowTo] != ' ') {
+            network.add(toReturn, network.input(colTo, rowTo, !computer), -1);
+        }
+        return new Accumulator(network, toReturn);
+    }
+
+    /**
+     * Calculates the output of the network, without the value of a finished
+     * game.
+     *
+     * @return the evaluation for the computer.
+     */
+    public double evaluate() {
+        return network.output(values);
+    }
+}
@@ -0,0 +1,377 @@
+package model.tree;
+
+import model.board.PawnBoard;
+import model.player.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class remembering the results of searches of the DecisionTree across
+ * runs: the hash of the situation, the height of the tree, the evaluation
+ * and the chosen move. Results are appended to a file as soon as they are
+ * found and read again at the next start, so a situation analysed before
+ * is answered without a search.
+ *
+ * The file starts with a header naming the evaluation the results were
+ * found with; results of another evaluation are dropped, as they would
+ * lead to other moves. The amount of results is bounded, the least recently
+ * used ones are dropped first. Once the file holds twice as many records as
+ * there are results, e.g. because deeper searches replaced shallower ones,
+ * it is rewritten with only the current results (compaction).
+ */
+public final class AnalysisCache {
+
+    /**
+     * System property naming the cache file, no cache is used if not set.
+     */
+    public static final String FILE_PROPERTY = "pawns.cache";
+
+    /**
+     * System property giving the maximum amount of results.
+     */
+    public static final String ENTRIES_PROPERTY = "pawns.cache.entries";
+
+    /**
+     * Maximum amount of results if not given by ENTRIES_PROPERTY.
+     */
+    public static final int DEFAULT_ENTRIES = 1 << 20;
+
+    private static final int MAGIC = 0x50414E43;
+
+    // Bytes of the header, magic number and fingerprint.
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+
+    // Bytes of a record, hash, height, evaluation and move.
+    private static final int RECORD_BYTES = 2 * Long.BYTES
+            + 2 * Integer.BYTES;
+
+    private static volatile AnalysisCache active = loadStartup();
+
+    private final Path file;
+    private final int maxEntries;
+    private final long fingerprint;
+    // Results by hash, ordered from the least to the most recently used.
+    private final LinkedHashMap<Long, Entry> entries;
+    private DataOutputStream out;
+    private long records;
+
+    /**
+     * Constructor opening a cache file, reading its results if they were
+     * found with the current evaluation and starting a new file otherwise.
+     *
+     * @param file the cache file, created if missing.
+     * @param maxEntries the maximum amount of results.
+     * @throws IOException if the file cannot be read or written.
+     */
+    public AnalysisCache(Path file, int maxEntries) throws IOException {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache needs room for at "
+                    + "least one result!");
+        }
+        this.file = file;
+        this.maxEntries = maxEntries;
+        this.fingerprint = fingerprint();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> e) {
+                return size() > AnalysisCache.this.maxEntries;
+            }
+        };
+        if (Files.exists(file) && read()) {
+            // Drop a record cut off by an interrupted run.
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.WRITE)) {
+                channel.truncate(HEADER_BYTES + records * RECORD_BYTES);
+            }
+            out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(file, StandardOpenOption.APPEND)));
+            if (records > 2L * entries.size()) {
+                compact();
+            }
+        } else {
+            compact();
+        }
+    }
+
+    /**
+     * Opens the file named by the system property FILE_PROPERTY.
+     *
+     * @return the cache, null if none is set or it cannot be opened.
+     */
+    private static AnalysisCache loadStartup() {
+        String name = System.getProperty(FILE_PROPERTY);
+        if (name == null) {
+            return null;
+        }
+        try {
+            return new AnalysisCache(Paths.get(name), Integer.getInteger(
+                    ENTRIES_PROPERTY, DEFAULT_ENTRIES));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error! Ignoring cache file " + name + ": "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the cache used by PawnBoard.machineMove, null if none.
+     */
+    public static AnalysisCache getActive() {
+        return active;
+    }
+
+    /**
+     * Sets the cache used by PawnBoard.machineMove from now on.
+     *
+     * @param cache the cache, null to always search.
+     */
+    public static void setActive(AnalysisCache cache) {
+        active = cache;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Looks up the move chosen by an earlier search at least as high as
+     * the given one.
+     *
+     * @param game the situation with the computer to move.
+     * @param height the height of the wanted search.
+     * @return the situation after the remembered move, null if there is no
+     * such result or its move is not possible.
+     */
+    public PawnBoard lookUp(PawnBoard game, int height) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(Zobrist.hash(game));
+        }
+        if (entry == null || entry.height < height) {
+            return null;
+        }
+        int colFrom = entry.move >>> 24;
+        int rowFrom = (entry.move >>> 16) & 0xFF;
+        int colTo = (entry.move >>> 8) & 0xFF;
+        int rowTo = entry.move & 0xFF;
+        List<int[]> targets = game.viablePawnMoves(game.getCurrentPlayer())
+                .get(List.of(colFrom, rowFrom));
+        if (targets == null) {
+            return null;
+        }
+        for (int[] target : targets) {
+            if (target[0] == colTo && target[1] == rowTo) {
+                return game.clone().moving(colFrom, rowFrom, colTo, rowTo);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Remembers the result of a search and appends it to the file, unless
+     * a higher search is already remembered.
+     *
+     * @param before the situation searched.
+     * @param height the height of the search.
+     * @param evaluation the evaluation of the chosen move.
+     * @param after the situation after the chosen move.
+     * @throws IOException if the file cannot be written.
+     */
+    public synchronized void record(PawnBoard before, int height,
+                                    double evaluation, PawnBoard after)
+            throws IOException {
+        long hash = Zobrist.hash(before);
+        Entry old = entries.get(hash);
+        if (old != null && old.height > height) {
+            return;
+        }
+        Entry entry = new Entry(height, evaluation, findMove(before, after));
+        entries.put(hash, entry);
+        write(out, hash, entry);
+        out.flush();
+        records++;
+        if (records > 2L * entries.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Closes the file, the cache can not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed.
+     */
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Reads all results of the file.
+     *
+     * @return true if read, false if the file is made for another
+     * evaluation or no cache file at all.
+     * @throws IOException if the file cannot be read.
+     */
+    private boolean read() throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readLong() != fingerprint) {
+                return false;
+            }
+            while (true) {
+                long hash;
+                Entry entry;
+                try {
+                    hash = in.readLong();
+                    entry = new Entry(in.readInt(), in.readDouble(),
+                            in.readInt());
+                } catch (EOFException e) {
+                    return true;
+                }
+                Entry old = entries.get(hash);
+                if (old == null || old.height <= entry.height) {
+                    entries.put(hash, entry);
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Rewrites the file with the current results only, replacing it at once
+     * when done.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    private void compact() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream compacted = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            compacted.writeInt(MAGIC);
+            compacted.writeLong(fingerprint);
+            for (Map.Entry<Long, Entry> entry : entries.entrySet()) {
+                write(compacted, entry.getKey(), entry.getValue());
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        records = entries.size();
+        out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND)));
+    }
+
+    /**
+     * Writes a single record.
+     *
+     * @param to the stream to write to.
+     * @param hash the hash of the situation.
+     * @param entry the result.
+     * @throws IOException if the stream cannot be written.
+     */
+    private static void write(DataOutputStream to, long hash, Entry entry)
+            throws IOException {
+        to.writeLong(hash);
+        to.writeInt(entry.height);
+        to.writeDouble(entry.evaluation);
+        to.writeInt(entry.move);
+    }
+
+    /**
+     * Finds the move of the computer between two situations.
+     *
+     * @param before the situation before the move.
+     * @param after the situation after the move.
+     * @return the move, one byte each for the column and row of the moved
+     * pawn and of the target tile.
+     */
+    private static int findMove(PawnBoard before, PawnBoard after) {
+        Color own = before.getComputerColor();
+        int colFrom = 0;
+        int rowFrom = 0;
+        int colTo = 0;
+        int rowTo = 0;
+        for (int col = 0; col < before.getSize(); col++) {
+            for (int row = 0; row < before.getSize(); row++) {
+                boolean was = before.getSlot(col, row) == own;
+                boolean is = after.getSlot(col, row) == own;
+                if (was && !is) {
+                    colFrom = col;
+                    rowFrom = row;
+                } else if (is && !was) {
+                    colTo = col;
+                    rowTo = row;
+                }
+            }
+        }
+        return colFrom << 24 | rowFrom << 16 | colTo << 8 | rowTo;
+    }
+
+    /**
+     * Summarizes the current evaluation, so results of another one are
+     * recognized.
+     *
+     * @return the fingerprint of the terms, weights, values of a win and a
+     * loss and active network.
+     */
+    private static long fingerprint() {
+        FeatureSet features = Evaluator.getFeatureSet();
+        long toReturn = Arrays.hashCode(features.getNames());
+        toReturn = 31 * toReturn + Arrays.hashCode(features.getWeights());
+        EvaluationWeights weights = Evaluator.getWeights();
+        toReturn = 31 * toReturn + Arrays.hashCode(new double[] {
+                weights.getWin(), weights.getLoss()});
+        NeuralNetwork network = NeuralNetwork.getActive();
+        if (network != null) {
+            toReturn = 31 * toReturn + network.getFingerprint();
+        }
+        return toReturn;
+    }
+
+    /**
+     * Result of a single search.
+     */
+    private static final class Entry {
+        private final int height;
+        private final double evaluation;
+        private final int move;
+
+        /**
+         * Constructor for a result.
+         *
+         * @param height the height of the search.
+         * @param evaluation the evaluation of the chosen move.
+         * @param move the chosen move, see findMove.
+         */
+        private Entry(int height, double evaluation, int move) {
+            this.height = height;
+            this.evaluation = evaluation;
+            this.move = move;
+        }
+    }
+}
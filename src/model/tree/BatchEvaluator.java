@@ -0,0 +1,24 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+import java.util.List;
+
+/**
+ * Interface for evaluating several situations at once, e.g. all children of
+ * a Node. Gathering the leaves first lets an evaluator walk over them in
+ * tight loops over primitive arrays instead of evaluating each one on its
+ * own. An instance may keep buffers and is used by one search at a time.
+ */
+public interface BatchEvaluator {
+
+    /**
+     * Evaluates situations the same way as Evaluator.evaluateBoard does.
+     *
+     * @param boards the situations to evaluate.
+     * @param depth the depth the situations are evaluated with.
+     * @param into the array to write the evaluation of each situation to,
+     *             at least as long as the list of situations.
+     */
+    void evaluate(List<PawnBoard> boards, double depth, double[] into);
+}
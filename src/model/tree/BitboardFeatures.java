@@ -0,0 +1,247 @@
+package model.tree;
+
+import model.board.PawnBoard;
+import model.player.Color;
+
+import java.util.List;
+
+/**
+ * Class measuring the designed terms of StandardFeatures on boards of up to
+ * 8 x 8 tiles at once for all tiles. The pawns of each player are packed
+ * into a single long, one bit per tile (square = row * size + col), so that
+ * a term over the whole board takes a few shifts and masks followed by a
+ * bit count, which the JIT turns into a single POPCNT instruction. Larger
+ * boards and registered terms are measured by the FeatureSet instead.
+ */
+public final class BitboardFeatures {
+
+    /**
+     * The largest number of columns and rows fitting into a long.
+     */
+    public static final int MAX_SIZE = 8;
+
+    /**
+     * Amount of terms measured, the ones of StandardFeatures.
+     */
+    public static final int TERMS = 8;
+
+    // Masks for each board size, indexed by the size.
+    private static final Masks[] MASKS = new Masks[MAX_SIZE + 1];
+
+    static {
+        for (int size = PawnBoard.MIN_SIZE; size <= MAX_SIZE; size++) {
+            MASKS[size] = new Masks(size);
+        }
+    }
+
+    /**
+     * Measures the designed terms of a situation in the order of
+     * StandardFeatures.
+     *
+     * @param game the situation.
+     * @param into the array to write the eight terms to.
+     * @return true if measured, false if the board is too large.
+     */
+    public static boolean extract(PawnBoard game, double[] into) {
+        int size = game.getSize();
+        if (size > MAX_SIZE) {
+            return false;
+        }
+        long[] packed = new long[2];
+        pack(game, packed, 0);
+        extract(packed[0], packed[1], size, into, 0);
+        return true;
+    }
+
+    /**
+     * Measures the designed terms of several situations of the same size.
+     * All boards are packed first and measured afterwards, each in a tight
+     * loop over primitive arrays.
+     *
+     * @param games the situations.
+     * @param packed buffer for the packed pawns, at least twice as long as
+     *               the list of situations.
+     * @param into the array to write the eight terms of each situation to,
+     *             one situation after another.
+     * @return true if measured, false if the boards are too large.
+     */
+    public static boolean extractAll(List<PawnBoard> games, long[] packed,
+                                     double[] into) {
+        if (games.isEmpty()) {
+            return true;
+        }
+        int size = games.get(0).getSize();
+        if (size > MAX_SIZE) {
+            return false;
+        }
+        for (int i = 0; i < games.size(); i++) {
+            pack(games.get(i), packed, 2 * i);
+        }
+        for (int i = 0; i < games.size(); i++) {
+            extract(packed[2 * i], packed[2 * i + 1], size, into, TERMS * i);
+        }
+        return true;
+    }
+
+    /**
+     * Packs the pawns of a situation into one long per player.
+     *
+     * @param game the situation, at most MAX_SIZE columns and rows large.
+     * @param into the array to write the pawns of the computer and the
+     *             human to.
+     * @param offset the position of the pawns of the computer in the array.
+     */
+    private static void pack(PawnBoard game, long[] into, int offset) {
+        int size = game.getSize();
+        char[][] board = game.getBoard();
+        char own = game.getComputerColor() == Color.WHITE ? 'W' : 'B';
+        long computer = 0;
+        long human = 0;
+        for (int col = 0; col < size; col++) {
+            char[] column = board[col];
+            for (int row = 0; row < size; row++) {
+                char tile = column[row];
+                if (tile != ' ') {
+                    long bit = 1L << (row * size + col);
+                    if (tile == own) {
+                        computer |= bit;
+                    } else {
+                        human |= bit;
+                    }
+                }
+            }
+        }
+        into[offset] = computer;
+        into[offset + 1] = human;
+    }
+
+    /**
+     * Measures the designed terms of packed pawns in the order of
+     * StandardFeatures.
+     *
+     * @param computer the pawns of the computer, one bit per tile.
+     * @param human the pawns of the human, one bit per tile.
+     * @param size the number of columns and rows, at most MAX_SIZE.
+     * @param into the array to write the eight terms to.
+     * @param offset the position of the first term in the array.
+     */
+    public static void extract(long computer, long human, int size,
+                               double[] into, int offset) {
+        Masks masks = MASKS[size];
+        int computerCount = Long.bitCount(computer);
+        int humanCount = Long.bitCount(human);
+
+        // Tiles a pawn of the computer attacks / covers, i.e. the tiles
+        // diagonally ahead of it, and the same for the human.
+        long computerAhead = (((computer & ~masks.leftCol) << (size - 1))
+                | ((computer & ~masks.rightCol) << (size + 1))) & masks.all;
+        long humanAhead = ((human & ~masks.leftCol) >>> (size + 1))
+                | ((human & ~masks.rightCol) >>> (size - 1));
+
+        // A pawn is endangered if attacked and not covered from behind,
+        // which are the tiles the own pawns attack.
+        long computerEndangered = computer & ~masks.lastRow & humanAhead
+                & ~computerAhead;
+        long humanEndangered = human & ~masks.firstRow & computerAhead
+                & ~humanAhead;
+
+        long pawns = computer | human;
+        long computerIsolated = (computer & ~masks.corners
+                & ~masks.neighbours(computer))
+                | (computer & masks.corners & ~masks.neighbours(pawns));
+        long humanIsolated = (human & ~masks.corners
+                & ~masks.neighbours(human))
+                | (human & masks.corners & ~masks.neighbours(pawns));
+
+        into[offset] = computerCount;
+        into[offset + 1] = humanCount;
+        into[offset + 2] = Long.bitCount(computerEndangered);
+        into[offset + 3] = Long.bitCount(humanEndangered);
+        into[offset + 4] = Long.bitCount(computerIsolated);
+        into[offset + 5] = Long.bitCount(humanIsolated);
+        into[offset + 6] = masks.rowSum(computer);
+        into[offset + 7] = (size - 1) * humanCount - masks.rowSum(human);
+    }
+
+    /**
+     * Class holding the masks of the tiles of a board size.
+     */
+    private static final class Masks {
+        private final int size;
+        private final long all;
+        private final long firstRow;
+        private final long lastRow;
+        private final long leftCol;
+        private final long rightCol;
+        // Corners where a pawn needs empty neighbours to be isolated.
+        private final long corners;
+        // Tiles whose row number has the given bit set.
+        private final long[] rowBits;
+
+        /**
+         * Constructor creating the masks.
+         *
+         * @param size the number of columns and rows.
+         */
+        private Masks(int size) {
+            this.size = size;
+            int squares = size * size;
+            all = squares == Long.SIZE ? -1L : (1L << squares) - 1;
+            firstRow = (1L << size) - 1;
+            lastRow = firstRow << (squares - size);
+            long column = 0;
+            for (int row = 0; row < size; row++) {
+                column |= 1L << (row * size);
+            }
+            leftCol = column;
+            rightCol = column << (size - 1);
+            corners = (1L << (size - 1)) | (1L << (squares - size))
+                    | (1L << (squares - 1));
+            rowBits = new long[32 - Integer.numberOfLeadingZeros(size - 1)];
+            for (int bit = 0; bit < rowBits.length; bit++) {
+                for (int row = 0; row < size; row++) {
+                    if ((row & (1 << bit)) != 0) {
+                        rowBits[bit] |= firstRow << (row * size);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Finds the tiles next to any of the given pawns, horizontally,
+         * vertically or diagonally.
+         *
+         * @param pawns the pawns.
+         * @return the tiles with at least one of the pawns as neighbour.
+         */
+        private long neighbours(long pawns) {
+            long sideways = ((pawns & ~leftCol) >>> 1)
+                    | ((pawns & ~rightCol) << 1);
+            long row = pawns | sideways;
+            return (sideways | (row << size) | (row >>> size)) & all;
+        }
+
+        /**
+         * Sums up the row numbers of all given pawns, one bit of the row
+         * numbers at a time.
+         *
+         * @param pawns the pawns.
+         * @return the sum of their rows.
+         */
+        private int rowSum(long pawns) {
+            int toReturn = 0;
+            for (int bit = 0; bit < rowBits.length; bit++) {
+                toReturn += Long.bitCount(pawns & rowBits[bit]) << bit;
+            }
+            return toReturn;
+        }
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private BitboardFeatures() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
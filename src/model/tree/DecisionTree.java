@@ -2,6 +2,7 @@ package model.tree;
 
 import model.board.PawnBoard;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -9,9 +10,23 @@ import java.util.List;
  * child is the cheapest/most expensive and therefore to take as next turn.
  * Simulates the decision making of a simple PawnChess-ai.
  */
-public class DecisionTree {
-    // Starting Model.Tree.Node of with the current board.
-    private final Node root;
+public class DecisionTree implements MoveSearch {
+    // Starting Model.Tree.Node of with the current board, released by
+    // bestMove.
+    private Node root;
+    // Child of the root chosen by bestMove, the only part of the tree kept
+    // afterwards, to continue the search.
+    private Node chosen;
+    // Nodes created by this search.
+    private long nodes;
+    // Boards evaluated by this search.
+    private long evaluations;
+    // Evaluator for all children of a node at once, null if evaluated one
+    // by one.
+    private final BatchEvaluator batch;
+    // Monitor asked at each expanded node, null if never ended early.
+    private final SearchMonitor monitor;
+    private boolean aborted;
 
     /**
      * Constructor to create a new tree with children.
@@ -21,12 +36,143 @@ public class DecisionTree {
      *             therefore the maximum height of the tree.
      */
     public DecisionTree(PawnBoard currentBoard, int diff) {
-        root = new Node(currentBoard.clone(), null, 0);
-        root.createChildren();
+        this(currentBoard, diff, false);
+    }
+
+    /**
+     * Constructor to create a new tree with children.
+     *
+     * @param currentBoard is the current situation and starting point/node.
+     * @param diff is the level of difficulty entered by the player and
+     *             therefore the maximum height of the tree.
+     * @param batched true to evaluate all children of a node together,
+     *                false to evaluate each node on its own.
+     */
+    public DecisionTree(PawnBoard currentBoard, int diff, boolean batched) {
+        this(currentBoard, diff, batched, null);
+    }
+
+    /**
+     * Constructor to create a new tree with children, which stops growing as
+     * soon as the given monitor asks to. The leaves reached so far are still
+     * evaluated, so bestMove returns a move anyway.
+     *
+     * @param currentBoard is the current situation and starting point/node.
+     * @param diff is the maximum height of the tree.
+     * @param batched true to evaluate all children of a node together,
+     *                false to evaluate each node on its own.
+     * @param monitor the monitor asked after each expanded node, null to
+     *                always grow the tree to its full height.
+     */
+    public DecisionTree(PawnBoard currentBoard, int diff, boolean batched,
+                        SearchMonitor monitor) {
+        this(new Node(currentBoard.clone(), null, 0), diff,
+                batched ? Evaluator.batch() : null, monitor);
+    }
+
+    /**
+     * Constructor growing an already (partially) built tree with the given
+     * root to the full height and evaluating it again.
+     *
+     * @param root is the starting point/node, possibly with children.
+     * @param diff is the maximum height of the tree.
+     * @param batch the evaluator for all children of a node at once, null
+     *              to evaluate each node on its own.
+     * @param monitor the monitor asked after each expanded node, null to
+     *                always grow the tree to its full height.
+     */
+    private DecisionTree(Node root, int diff, BatchEvaluator batch,
+                         SearchMonitor monitor) {
+        this.root = root;
+        this.batch = batch;
+        this.monitor = monitor;
+        nodes += root.createChildren();
+        aborted = monitor != null && monitor.checkpoint(nodes);
         this.setHeight(diff, 1, root);
         setEdges(root);
     }
 
+    /**
+     * Continues the search of the previous turn. The variation below the
+     * move returned by bestMove and the reply which led to the given board
+     * is kept, so only the missing plies at the bottom have to be created
+     * and evaluated. This tree can not be used afterwards.
+     *
+     * @param currentBoard is the current situation, usually the board
+     *                     returned by bestMove with the reply of the human.
+     * @param diff is the maximum height of the new tree.
+     * @return the grown tree, or null if the given board is not part of the
+     * variations examined by this tree.
+     */
+    public DecisionTree continueWith(PawnBoard currentBoard, int diff) {
+        return continueWith(currentBoard, diff, monitor);
+    }
+
+    /**
+     * Continues the search like continueWith, watched by another monitor.
+     *
+     * @param currentBoard is the current situation.
+     * @param diff is the maximum height of the new tree.
+     * @param newMonitor the monitor asked after each expanded node, null to
+     *                   never end early.
+     * @return the grown tree, or null if the given board is not part of the
+     * variations examined by this tree.
+     */
+    public DecisionTree continueWith(PawnBoard currentBoard, int diff,
+                                     SearchMonitor newMonitor) {
+        Node start = null;
+        if (chosen != null) {
+            // Human had to skip his turn?
+            if (chosen.getBoard().isSamePosition(currentBoard)) {
+                start = chosen;
+            } else {
+                for (Node reply : chosen.getChildren()) {
+                    if (reply.getBoard().isSamePosition(currentBoard)) {
+                        start = reply;
+                        break;
+                    }
+                }
+            }
+        }
+        // Release the rest of the old tree before growing the kept part.
+        root = null;
+        chosen = null;
+        if (start == null) {
+            return null;
+        }
+        return new DecisionTree(start, diff, batch, newMonitor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of boards evaluated by this search. As a variation
+     * is scored by the sum of the static evaluations along it, every Node
+     * below the root is evaluated, except those kept from an earlier search
+     * and found in the evaluation table.
+     */
+    public long getEvaluationCount() {
+        return evaluations;
+    }
+
+    /**
+     * Checks if the monitor ended the search before the tree reached its
+     * full height.
+     *
+     * @return true if ended early, false otherwise.
+     */
+    public boolean isAborted() {
+        return aborted;
+    }
+
     /**
      * Recursive method creating children and appending them in the tree.
      *
@@ -37,9 +183,13 @@ public class DecisionTree {
     private void setHeight(int difficulty, int currentHeight, Node parent) {
         List<Node> currentChildren = parent.getChildren();
         for (Node current : currentChildren) {
+            if (aborted) {
+                return;
+            }
             if (currentHeight < difficulty
                     && !current.getBoard().isGameOver()) {
-                current.createChildren();
+                nodes += current.createChildren();
+                aborted = monitor != null && monitor.checkpoint(nodes);
                 setHeight(difficulty, currentHeight + 1, current);
             }
         }
@@ -54,6 +204,7 @@ public class DecisionTree {
      */
     private void setEdges(Node node) {
         List<Node> currentChildren = node.getChildren();
+        evaluations += node.evaluateChildren(root.getDepth(), batch);
         for (Node current : currentChildren) {
             if (!current.isLeaf()) {
                 setEdges(current);
@@ -80,13 +231,55 @@ public class DecisionTree {
         }
     }
 
+    /**
+     * Getter method, only valid after bestMove.
+     *
+     * @return the evaluation of the move returned by bestMove.
+     */
+    public double getBestEvaluation() {
+        return chosen.getEvaluation();
+    }
+
+    /**
+     * Collects the moves both players are expected to play after the move
+     * returned by bestMove. As every inner Node adds the evaluation of its
+     * best child to its own, the variation follows the children making up
+     * the evaluation of their parent.
+     *
+     * @return the situations after each move of the variation, starting
+     * with the one returned by bestMove, only valid after bestMove.
+     */
+    public List<PawnBoard> getPrincipalVariation() {
+        List<PawnBoard> toReturn = new ArrayList<>();
+        Node current = chosen;
+        while (current != null) {
+            toReturn.add(current.getBoard().clone());
+            Node next = null;
+            for (Node child : current.getChildren()) {
+                if (current.getStaticEvaluation() + child.getEvaluation()
+                        == current.getEvaluation()) {
+                    next = child;
+                    break;
+                }
+            }
+            current = next;
+        }
+        return toReturn;
+    }
+
     /**
      * Method to return the best move for the current situation of the board.
+     * The chosen child is remembered for continueWith, the rest of the tree
+     * is released, as a board keeps the tree of the move leading to it.
      *
-     * @return the board with the best outcome/evaluation by performing a
-     * certain move.
+     * @return a copy of the board with the best outcome/evaluation by
+     * performing a certain move.
      */
+    @Override
     public PawnBoard bestMove() {
+        if (root == null) {
+            return chosen.getBoard().clone();
+        }
         Node current;
         // Grab the best/highest rated move from the right to the left pawn.
         current = root.getChildren().get(root.getChildren().size() - 1);
@@ -97,6 +290,8 @@ public class DecisionTree {
             }
         }
 
-        return current.getBoard();
+        chosen = current;
+        root = null;
+        return current.getBoard().clone();
     }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package model.tree;
+
+/**
+ * Enum containing the available searches the computer can use to find his
+ * next move.
+ */
+public enum Engine {
+    /**
+     * The DecisionTree, examining all variations up to the level of
+     * difficulty.
+     */
+    MINIMAX,
+    /**
+     * The MonteCarloTree, estimating moves by random playouts.
+     */
+    MONTE_CARLO;
+}
@@ -0,0 +1,148 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+/**
+ * Class holding how the computer searches his moves: which engine, on which
+ * level and with how much time. Written as text in the form
+ * {@code engine[+batch]:level[:millis[:threads]]}, e.g. {@code minimax:3},
+ * {@code minimax+batch:3} or {@code mcts:0:500}. With a time, the
+ * DecisionTree is deepened ply by ply up to the level and the last ply
+ * complete in time chooses the move, see IterativeDeepening. The
+ * MonteCarloTree gets PLAYOUTS_PER_LEVEL playouts per level, where level 0
+ * means the time alone limits the search. The option batch lets the
+ * DecisionTree evaluate all children of a node together.
+ */
+public class EngineSettings {
+    private final Engine engine;
+    private final int level;
+    private final long millis;
+    private final int threads;
+    private final boolean batched;
+
+    /**
+     * Constructor for new settings.
+     *
+     * @param engine the search to use.
+     * @param level the level of difficulty, at least 1 for the DecisionTree.
+     * @param millis the time per move in milliseconds, 0 if unlimited.
+     * @param threads the amount of threads per search.
+     * @param batched true if the DecisionTree evaluates all children of a
+     *                node together.
+     */
+    public EngineSettings(Engine engine, int level, long millis,
+                          int threads, boolean batched) {
+        if (engine == Engine.MINIMAX && level < 1) {
+            throw new IllegalArgumentException("Level must be at least 1!");
+        } else if (engine == Engine.MONTE_CARLO && level <= 0
+                && millis <= 0) {
+            throw new IllegalArgumentException("Either level or time must "
+                    + "be given!");
+        } else if (level < 0 || millis < 0 || threads < 1) {
+            throw new IllegalArgumentException("Negative settings!");
+        }
+        this.engine = engine;
+        this.level = level;
+        this.millis = millis;
+        this.threads = threads;
+        this.batched = batched;
+    }
+
+    /**
+     * Parses settings given in the form
+     * {@code engine[+batch]:level[:millis[:threads]]} with the engine being
+     * minimax or mcts.
+     *
+     * @param spec the settings as text.
+     * @return the parsed settings.
+     * @throws IllegalArgumentException if the text is no valid setting.
+     */
+    public static EngineSettings parse(String spec) {
+        String[] parts = spec.trim().split(":");
+        if (parts.length < 2 || parts.length > 4) {
+            throw new IllegalArgumentException("Engine settings must look "
+                    + "like engine[+batch]:level[:millis[:threads]]!");
+        }
+        String name = parts[0].toLowerCase();
+        boolean batched = name.endsWith("+batch");
+        if (batched) {
+            name = name.substring(0, name.length() - "+batch".length());
+        }
+        Engine engine;
+        switch (name) {
+            case "minimax" -> engine = Engine.MINIMAX;
+            case "mcts" -> engine = Engine.MONTE_CARLO;
+            default -> throw new IllegalArgumentException("Unknown engine "
+                    + parts[0] + "! Choose minimax or mcts.");
+        }
+        try {
+            int level = Integer.parseInt(parts[1]);
+            long millis = parts.length > 2 ? Long.parseLong(parts[2]) : 0;
+            int threads = parts.length > 3 ? Integer.parseInt(parts[3]) : 1;
+            return new EngineSettings(engine, level, millis, threads,
+                    batched);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Numbers expected in engine "
+                    + "settings " + spec + "!");
+        }
+    }
+
+    /**
+     * Starts a search for the best move of the computer.
+     *
+     * @param board the current situation with the computer to move.
+     * @return the finished search.
+     */
+    public MoveSearch search(PawnBoard board) {
+        if (engine == Engine.MONTE_CARLO) {
+            return new MonteCarloTree(board,
+                    level * MonteCarloTree.PLAYOUTS_PER_LEVEL, millis,
+                    threads);
+        } else if (millis > 0) {
+            long deadline = System.nanoTime() + millis * 1_000_000;
+            return new IterativeDeepening(board, level, batched,
+                    nodes -> System.nanoTime() >= deadline, null);
+        } else {
+            return new DecisionTree(board, level, batched);
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the search to use.
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the level of difficulty.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the time per move in milliseconds, 0 if unlimited.
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        String name = engine == Engine.MONTE_CARLO ? "mcts" : "minimax";
+        if (batched) {
+            name += "+batch";
+        }
+        return name + ":" + level + ":" + millis + ":" + threads;
+    }
+}
@@ -0,0 +1,193 @@
+package model.tree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Class holding the weights the Evaluator multiplies the terms of a situation
+ * with, each one stored under the name of its term, together with the values
+ * of a won or lost game. The weights are stored as a properties file, e.g.
+ * written by the Tuner, and read once at startup.
+ */
+public class EvaluationWeights {
+
+    /**
+     * System property naming the weights file to load at startup.
+     */
+    public static final String FILE_PROPERTY = "pawns.weights";
+
+    /**
+     * File loaded at startup if the system property is not set.
+     */
+    public static final String DEFAULT_FILE = "weights.properties";
+
+    private static final String WIN = "win";
+    private static final String LOSS = "loss";
+    private static final double DESIGNED_WIN = 5000;
+    private static final double DESIGNED_LOSS = -1.5 * 5000;
+
+    private final Map<String, Double> linear;
+    private final double win;
+    private final double loss;
+
+    /**
+     * Constructor for a new set of weights.
+     *
+     * @param linear the weights mapped to the names of their terms.
+     * @param win the value of a win of the computer, divided by the depth.
+     * @param loss the value of a win of the human, divided by the depth.
+     */
+    public EvaluationWeights(Map<String, Double> linear, double win,
+                             double loss) {
+        this.linear = Collections.unmodifiableMap(
+                new LinkedHashMap<>(linear));
+        this.win = win;
+        this.loss = loss;
+    }
+
+    /**
+     * Creates the weights the game was designed with. The terms bring their
+     * designed weights along, so only the win and loss values are set.
+     *
+     * @return the designed weights.
+     */
+    public static EvaluationWeights designed() {
+        return new EvaluationWeights(Map.of(), DESIGNED_WIN, DESIGNED_LOSS);
+    }
+
+    /**
+     * Loads the weights to use at startup from the file named by the system
+     * property FILE_PROPERTY, or DEFAULT_FILE if not set. Falls back to the
+     * designed weights if there is no such file or it cannot be read.
+     *
+     * @return the weights to use.
+     */
+    public static EvaluationWeights loadStartup() {
+        Path file = Paths.get(System.getProperty(FILE_PROPERTY,
+                DEFAULT_FILE));
+        if (!Files.isReadable(file)) {
+            return designed();
+        }
+        try {
+            return load(file);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error! Ignoring weights file " + file + ": "
+                    + e.getMessage());
+            return designed();
+        }
+    }
+
+    /**
+     * Reads weights from a properties file. Missing win and loss values keep
+     * their designed values.
+     *
+     * @param file the file to read.
+     * @return the read weights.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if an entry is no number.
+     */
+    public static EvaluationWeights load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file,
+                StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, Double> linear = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (!name.equals(WIN) && !name.equals(LOSS)) {
+                linear.put(name, parse(properties, name, 0));
+            }
+        }
+        return new EvaluationWeights(linear,
+                parse(properties, WIN, DESIGNED_WIN),
+                parse(properties, LOSS, DESIGNED_LOSS));
+    }
+
+    /**
+     * Reads a single weight.
+     *
+     * @param properties the read file.
+     * @param name the name of the weight.
+     * @param fallback the value if the weight is missing.
+     * @return the weight.
+     * @throws IllegalArgumentException if the entry is no number.
+     */
+    private static double parse(Properties properties, String name,
+                                double fallback) {
+        String value = properties.getProperty(name);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Weight " + name
+                    + " is no number!");
+        }
+    }
+
+    /**
+     * Writes the weights to a properties file, readable by load.
+     *
+     * @param file the file to write.
+     * @param comment the comment on top of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file, String comment) throws IOException {
+        Properties properties = new Properties();
+        linear.forEach((name, weight) ->
+                properties.setProperty(name, Double.toString(weight)));
+        properties.setProperty(WIN, Double.toString(win));
+        properties.setProperty(LOSS, Double.toString(loss));
+        try (Writer writer = Files.newBufferedWriter(file,
+                StandardCharsets.UTF_8)) {
+            properties.store(writer, comment);
+        }
+    }
+
+    /**
+     * Gets the weight of a term.
+     *
+     * @param name the name of the term.
+     * @param fallback the weight if none is stored for the term.
+     * @return the weight.
+     */
+    public double get(String name, double fallback) {
+        return linear.getOrDefault(name, fallback);
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the value of a win of the computer, divided by the depth.
+     */
+    public double getWin() {
+        return win;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the value of a win of the human, divided by the depth.
+     */
+    public double getLoss() {
+        return loss;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return linear + " win " + win + " loss " + loss;
+    }
+}
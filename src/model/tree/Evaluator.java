@@ -1,589 +1,247 @@
 package model.tree;
 
-import model.board.Board;
 import model.board.PawnBoard;
-import model.player.Color;
 
-
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Class acting as Model.Tree.Evaluator with the tools to evaluate a given
- * board/situation for further use/evaluation in a decision-tree.
+ * board/situation for further use/evaluation in a decision-tree. The
+ * evaluation is the weighted sum of terms measured on the situation (see
+ * Feature and FeatureSet), plus a value for a finished game.
  */
 public class Evaluator {
-    private final char[][] board;
-    private final PawnBoard currentGame;
-    private final double depth;
 
-    /**
-     * Constructor setting up a new Evaluator for:
-     *
-     * @param game a given game/situation/outcome.
-     * @param depth of the Node holding the PawnBoard in the DecisionTree.
-     */
-    public Evaluator(PawnBoard game, double depth) {
-        PawnBoard copy = game.clone();
-        this.board = copy.getBoard();
-        this.currentGame = copy;
-        this.depth = depth;
-    }
+    // Weights read once at startup, see EvaluationWeights.
+    private static final EvaluationWeights WEIGHTS =
+            EvaluationWeights.loadStartup();
 
     /**
-     * Method checking if a pawn is isolated, if it is currently standing on
-     * the start row of the computer, but not in one of the corners.
-     *
-     * @param pawn the coordinates of the pawn currently checked.
-     * @return true if the pawn is isolated,false otherwise.
+     * System property forcing all terms to be measured one by one, e.g. to
+     * compare with BitboardFeatures.
      */
-    private boolean checkIsoRowZeroReg(int[] pawn) {
-        int curCol = pawn[0];
-        int curRow = 0;
-        char check = board[curCol][curRow];
-        return board[curCol][curRow + 1] != check
-                && board[curCol + 1][curRow] != check
-                && board[curCol + 1][curRow + 1] != check
-                && board[curCol - 1][curRow] != check
-                && board[curCol - 1][curRow + 1] != check;
-    }
+    public static final String SCALAR_PROPERTY = "pawns.scalar";
 
-    /**
-     * Method checking if a pawn is isolated, if it is currently standing on
-     * the start row of the human, but not in one of the corners.
-     *
-     * @param pawn the coordinates of the pawn to be checked.
-     * @return true if the pawn is isolated, false otherwise.
-     */
-    private boolean checkIsoRowTopReg(int[] pawn) {
-        int curCol = pawn[0];
-        int curRow = pawn[1];
-        char check = board[curCol][curRow];
-        return board[curCol][curRow - 1] != check
-                && board[curCol + 1][curRow] != check
-                && board[curCol + 1][curRow - 1] != check
-                && board[curCol - 1][curRow] != check
-                && board[curCol - 1][curRow - 1] != check;
-    }
+    private static final boolean SCALAR =
+            Boolean.getBoolean(SCALAR_PROPERTY);
 
-    /**
-     * Method checking if a pawn is isolated, while it currently is standing
-     * on the far left column of the board, but not in one of the corners.
-     *
-     * @param pawn the coordinates of teh pawn to be checked.
-     * @return true if the pawn is isolated, false otherwise.
-     */
-    private boolean checkIsoLeftReg(int[] pawn) {
-        int curCol = pawn[0];
-        int curRow = pawn[1];
-        char check = board[curCol][curRow];
-        return board[curCol][curRow + 1] != check
-                && board[curCol + 1][curRow] != check
-                && board[curCol][curRow - 1] != check
-                && board[curCol + 1][curRow - 1] != check
-                && board[curCol + 1][curRow + 1] != check;
-    }
+    // Terms of all evaluations, replaced as a whole when changed.
+    private static volatile FeatureSet featureSet =
+            StandardFeatures.create().withWeights(WEIGHTS);
 
-    /**
-     * Method checking if a pawn is isolated, while it currently is standing
-     * on the far right column of the board, but not in one of the corners.
-     *
-     * @param pawn the coordinates of the pawn to be checked.
-     * @return true if the pawn is isolated, false otherwise.
-     */
-    private boolean checkIsoRightReg(int[] pawn) {
-        int curCol = pawn[0];
-        int curRow = pawn[1];
-        char check = board[curCol][curRow];
-        return board[curCol][curRow + 1] != check
-                && board[curCol][curRow - 1] != check
-                && board[curCol - 1][curRow] != check
-                && board[curCol - 1][curRow - 1] != check
-                && board[curCol - 1][curRow + 1] != check;
-    }
-
-    /**
-     * Checking all fields around the given pawn for other pawns/isolation
-     * with the pawn not standing on one of the outer rows/columns.
-     *
-     * @param pawn the coordinates of the pawn to be checked.
-     * @return true if the pawn is isolated, false otherwise.
-     */
-    private boolean checkIsoRegular(int[] pawn) {
-        int curCol = pawn[0];
-        int curRow = pawn[1];
-        char check = board[curCol][curRow];
-        return board[curCol][curRow + 1] != check
-                && board[curCol][curRow - 1] != check
-                && board[curCol + 1][curRow] != check
-                && board[curCol - 1][curRow] != check
-                && board[curCol + 1][curRow + 1] != check
-                && board[curCol - 1][curRow + 1] != check
-                && board[curCol - 1][curRow - 1] != check
-                && board[curCol + 1][curRow - 1] != check;
-    }
+    // Evaluations of situations by their hash, null if not remembered.
+    private static volatile TranspositionTable table;
 
-    /**
-     * Checking the isolation of a pawn when it is standing in one of the
-     * four corners of the board.
-     *
-     * @param pawn the coordinates of the pawn to check.
-     * @return true if the pawn is isolated, false otherwise.
-     */
-    private boolean checkIsoCorners(int[] pawn) {
-        int curCol = pawn[0];
-        int curRow = pawn[1];
-        char check = board[curCol][curRow];
-        // Left or right corner?
-        if (curCol == 0) {
-            // Upper or lower corner?
-            if (curRow == 0) {
-                return board[curCol][curRow + 1] != check
-                        && board[curCol + 1][curRow] != check
-                        && board[curCol + 1][curRow + 1] != check;
-            } else {
-                return board[curCol][curRow - 1] == ' '
-                        && board[curCol + 1][curRow - 1] == ' '
-                        && board[curCol + 1][curRow] == ' ';
-            }
-        } else {
-            // Upper or lower corner?
-            if (curRow == 0) {
-                return board[curCol][curRow + 1] == ' '
-                        && board[curCol - 1][curRow] == ' '
-                        && board[curCol - 1][curRow + 1] == ' ';
-            } else {
-                return board[curCol][curRow - 1] == ' '
-                        && board[curCol - 1][curRow] == ' '
-                        && board[curCol - 1][curRow - 1] == ' ';
-            }
-        }
-    }
-
-    /**
-     * Method called when a pawn located on one of the side columns has to be
-     * checked for isolation, calling the fitting method for the pawn.
-     *
-     * @param pawn the coordinates of the pawn to check.
-     * @return true if the pawn is isolated, false otherwise.
-     */
-    private boolean checkSidesIso(int[] pawn) {
-        int curCol = pawn[0];
-        if (curCol == 0) {
-            return checkIsoLeftReg(pawn);
-        } else {
-            return checkIsoRightReg(pawn);
-        }
-    }
+    private final PawnBoard currentGame;
+    private final double depth;
 
     /**
-     * Method called when a pawn has to be checked for isolation and is
-     * standing on either the top or bottom row.
-     * Calls the fitting method for the pawns location.
+     * Constructor setting up a new Evaluator for:
      *
-     * @param pawn the coordinates of the pawn to be checked.
-     * @return true if the pawn is isolated, false otherwise.
+     * @param game a given game/situation/outcome.
+     * @param depth of the Node holding the PawnBoard in the DecisionTree.
      */
-    private boolean checkTopBottomRowsIso(int[] pawn) {
-        int curRow = pawn[1];
-        if (curRow == 0) {
-            return checkIsoRowZeroReg(pawn);
-        } else {
-            return checkIsoRowTopReg(pawn);
-        }
+    public Evaluator(PawnBoard game, double depth) {
+        this.currentGame = game.clone();
+        this.depth = depth;
     }
 
     /**
-     * Counting the amount of isolated pawns of the human player by calling
-     * for each pawn a fitting method to check its status.
+     * Checking if the game would be over after the made move and calculating
+     * an evaluation depending on the depth in the decision-tree.
      *
-     * @return the amount of isolated pawns of the human player as a double.
+     * @param currentGame the situation after the move.
+     * @param depth of the Node holding the PawnBoard in the DecisionTree.
+     * @return 0 if game isn't over its a draw, teh calculation otherwise.
      */
-    private double getAllIsolated(Color color) {
-        List<int[]> pawns = currentGame.getPawnsFor(color);
-        double amountIsolated = 0;
-        // Check all pawns with fitting methods.
-        for (int[] current : pawns) {
-            int curCol = current[0];
-            int curRow = current[1];
-            if (curCol == Board.SIZE - 1 || curCol == 0) {
-                if (curRow == 0 || curRow == Board.SIZE - 1) {
-                    if (checkIsoCorners(current)) {
-                        amountIsolated++;
-                    }
-                } else {
-                    if (checkSidesIso(current)) {
-                        amountIsolated++;
-                    }
-                }
+    static double checkWin(PawnBoard currentGame, double depth) {
+        if (currentGame.isGameOver()) {
+            //Computer, human win or draw?
+            if (currentGame.getWinner() == null) {
+                return 0;
+            } else if (currentGame.getWinner().getColor()
+                    == currentGame.getComputerColor()) {
+                return WEIGHTS.getWin() / depth;
+            } else if (currentGame.getWinner().getColor()
+                    == currentGame.getHumanColor()) {
+                return WEIGHTS.getLoss() / depth;
             } else {
-                if (curRow == 0 || curRow == Board.SIZE - 1) {
-                    if (checkTopBottomRowsIso(current)) {
-                        amountIsolated++;
-                    }
-                } else {
-                    if (checkIsoRegular(current)) {
-                        amountIsolated++;
-                    }
-                }
+                return 0;
             }
+        } else {
+            return 0;
         }
-
-        return amountIsolated;
     }
 
     /**
-     * Checking if a pawn of the computer/bot is in danger (whilst not being
-     * covered) of being beaten by a pawn of the human player, with its
-     * location not being one of the border columns/rows.
+     * Registers an additional term used by all following evaluations. Its
+     * weight is taken from the weights file, if it contains the name of the
+     * term.
      *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the humans pawns on the board.
-     * @return true if it is endangered, false otherwise.
+     * @param feature the new term.
+     * @param weight the weight of the term if not found in the weights file.
+     * @throws IllegalArgumentException if the name of the term is already
+     * used.
      */
-    private boolean isEndangeredComputerReg(int[] pawn, char check) {
-        boolean danger = board[pawn[0] + 1][pawn[1] + 1] == check
-                || board[pawn[0] - 1][pawn[1] + 1] == check;
-        boolean coverRight = board[pawn[0] + 1][pawn[1] - 1] != check
-                && board[pawn[0] + 1][pawn[1] - 1] != ' ';
-        boolean coverLeft = board[pawn[0] - 1][pawn[1] - 1] != check
-                && board[pawn[0] - 1][pawn[1] - 1] != ' ';
-        return danger && !coverLeft && !coverRight;
+    public static synchronized void register(Feature feature, double weight) {
+        featureSet = featureSet.with(feature,
+                WEIGHTS.get(feature.getName(), weight));
+        clearTable();
     }
 
     /**
-     * Checking if a pawn of the computer/bot is in danger (whilst not being
-     * covered) of being beaten by a pawn of the human player, with its
-     * location on the left border of the board, but not one of the corners.
+     * Replaces the weights of all terms, e.g. to compare tuned weights.
      *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the humans pawns on the board.
-     * @return true if the pawn is endangered, false otherwise.
+     * @param weights the weight of each term in the order of the current
+     *                feature set.
      */
-    private boolean isEndangeredComputerLeft(int[] pawn, char check) {
-        boolean danger = board[pawn[0] + 1][pawn[1] + 1] == check;
-        boolean cover = board[pawn[0] + 1][pawn[1] - 1] != check
-                && board[pawn[0] + 1][pawn[1] - 1] != ' ';
-        return danger && !cover;
+    public static synchronized void setWeights(double[] weights) {
+        featureSet = featureSet.withWeights(weights);
+        clearTable();
     }
 
     /**
-     * Checking if a pawn of the computer/bot is in danger (whilst not being
-     * covered) of being beaten by a pawn of the human player, with its
-     * location on the right border of the board, but not one of the corners.
+     * Sets the table remembering evaluations by hand of the DecisionTree by
+     * the hash of the situation, so a situation reached by different orders
+     * of moves is evaluated only once. The table is emptied whenever the
+     * terms or weights change.
      *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the humans pawns on the board.
-     * @return true if the pawn is endangered, false otherwise.
+     * @param newTable the new, empty table, null to evaluate every situation
+     *                 again.
      */
-    private boolean isEndangeredComputerRight(int[] pawn, char check) {
-        boolean danger = board[pawn[0] - 1][pawn[1] + 1] == check;
-        boolean cover = board[pawn[0] - 1][pawn[1] - 1] != check
-                && board[pawn[0] - 1][pawn[1] - 1] != ' ';
-        return danger && !cover;
+    public static synchronized void setTable(TranspositionTable newTable) {
+        table = newTable;
     }
 
     /**
-     * Checking if a pawn of the computer/bot is in danger (whilst not being
-     * covered) of being beaten by a pawn of the human player, with its
-     * location on the starting row, but not one of the corners.
+     * Getter method.
      *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the humans pawns on the board.
-     * @return true if the pawn is endangered, false otherwise.
+     * @return the table remembering evaluations, null if there is none.
      */
-    private boolean isEndangeredComputerStart(int[] pawn, char check) {
-        return board[pawn[0] - 1][pawn[1] + 1] == check
-                || board[pawn[0] + 1][pawn[1] + 1] == check;
+    public static TranspositionTable getTable() {
+        return table;
     }
 
     /**
-     * Checking if a pawn of the computer/bot is in danger (whilst not being
-     * covered) of being beaten by a pawn of the human player, with its
-     * location being of the corners.
-     *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the humans pawns on the board.
-     * @return true if the pawn is endangered, false otherwise.
+     * Empties the table remembering evaluations, if there is one.
      */
-    private boolean isEndangeredComputerCorner(int[] pawn, char check) {
-        if (pawn[0] == 0) {
-            return board[pawn[0] + 1][pawn[1] + 1] == check;
-        } else {
-            return board[pawn[0] - 1][pawn[1] + 1] == check;
+    private static void clearTable() {
+        TranspositionTable current = table;
+        if (current != null) {
+            current.clear();
         }
     }
 
     /**
-     * Gathering the location of all endangered pawns of the computer/bot
-     * player on the current board/situation, by calling the responsible
-     * method for checking the endangerment for each pawn on the board.
+     * Getter method.
      *
-     * @return an ArrayList of integer arrays containing the coordinates of
-     * all endangered pawns.
+     * @return the terms and weights used by all evaluations.
      */
-    private List<int[]> getAllEndangeredComputer() {
-        char check = getEndangeringChar(currentGame.getComputerColor());
-        List<int[]> toReturn = new ArrayList<>();
-        List<int[]> toIterate =
-                currentGame.getPawnsFor(currentGame.getComputerColor());
-        for (int[] current : toIterate) {
-            // Pawn at goal row?
-            if (current[1] < Board.SIZE - 1) {
-                if ((current[0] == 0 || current[0] == Board.SIZE - 1)
-                        && current[1] == 0) {
-                    if (isEndangeredComputerCorner(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else if (current[1] == 0) {
-                    if (isEndangeredComputerStart(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else if (current[0] == 0) {
-                    if (isEndangeredComputerLeft(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else if (current[0] == Board.SIZE - 1) {
-                    if (isEndangeredComputerRight(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else {
-                    if (isEndangeredComputerReg(current, check)) {
-                        toReturn.add(current);
-                    }
-                }
-            }
-        }
-        return toReturn;
+    public static FeatureSet getFeatureSet() {
+        return featureSet;
     }
 
     /**
-     * Gathering the location of all endangered pawns of the human player
-     * on the current board/situation, by calling the responsible
-     * method for checking the endangerment for each pawn on the board.
+     * Getter method.
      *
-     * @return an ArrayList of integer arrays containing the coordinates of
-     * all endangered pawns.
+     * @return the weights read at startup, whose values of a win and a loss
+     * are used by all evaluations.
      */
-    private List<int[]> getAllEndangeredHuman() {
-        char check = getEndangeringChar(currentGame.getHumanColor());
-        List<int[]> toReturn = new ArrayList<>();
-        List<int[]> toIterate
-                = currentGame.getPawnsFor(currentGame.getHumanColor());
-        for (int[] current : toIterate) {
-            // Pawn at goal row?
-            if (current[1] > 0) {
-                if ((current[0] == 0 || current[0] == Board.SIZE - 1)
-                        && current[1] == Board.SIZE - 1) {
-                    if (isEndangeredHumanCorner(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else if (current[1] == Board.SIZE - 1) {
-                    if (isEndangeredHumanStart(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else if (current[0] == 0) {
-                    if (isEndangeredHumanLeft(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else if (current[0] == Board.SIZE - 1) {
-                    if (isEndangeredHumanRight(current, check)) {
-                        toReturn.add(current);
-                    }
-                } else {
-                    if (isEndangeredHumanReg(current, check)) {
-                        toReturn.add(current);
-                    }
-                }
-            }
-        }
-        return toReturn;
+    public static EvaluationWeights getWeights() {
+        return WEIGHTS;
     }
 
     /**
-     * Checking if a pawn of the human player is in danger (whilst not being
-     * covered) of being beaten by a pawn of the computer/bot player, with its
-     * location not being one of the border columns/rows.
+     * Gathering the terms of the evaluation of the assigned situation.
      *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the computers/bots pawns on the board.
-     * @return true if it is endangered, false otherwise.
+     * @return the terms in the order of the current feature set.
      */
-    private boolean isEndangeredHumanReg(int[] pawn, char check) {
-        boolean danger = board[pawn[0] + 1][pawn[1] - 1] == check
-                || board[pawn[0] - 1][pawn[1] - 1] == check;
-        boolean coverLeft = board[pawn[0] - 1][pawn[1] + 1] != check
-                && board[pawn[0] - 1][pawn[1] + 1] != ' ';
-        boolean coverRight = board[pawn[0] + 1][pawn[1] + 1] != check
-                && board[pawn[0] + 1][pawn[1] + 1] != ' ';
-        return danger && !coverLeft && !coverRight;
+    public double[] getFeatures() {
+        return measure(featureSet);
     }
 
     /**
-     * Checking if a pawn of the human player is in danger (whilst not being
-     * covered) of being beaten by a pawn of the computer/bot player, with its
-     * location on the left column, but not one of the two corners.
+     * Measuring the terms of a feature set on the assigned situation, all at
+     * once by BitboardFeatures if possible.
      *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the computers/bots pawns on the board.
-     * @return true if it is endangered, false otherwise.
+     * @param features the terms to measure.
+     * @return the terms in the order of the feature set.
      */
-    private boolean isEndangeredHumanLeft(int[] pawn, char check) {
-        boolean danger = board[pawn[0] + 1][pawn[1] - 1] == check;
-        boolean cover = board[pawn[0] + 1][pawn[1] + 1] != check
-                && board[pawn[0] + 1][pawn[1] + 1] != ' ';
-        return danger && !cover;
-    }
-
-    /**
-     * Checking if a pawn of the human player is in danger (whilst not being
-     * covered) of being beaten by a pawn of the computer/bot player, with its
-     * location on the right column, but none of the two corners.
-     *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the computers/bots pawns on the board.
-     * @return true if it is endangered, false otherwise.
-     */
-    private boolean isEndangeredHumanRight(int[] pawn, char check) {
-        boolean danger = board[pawn[0] - 1][pawn[1] - 1] == check;
-        boolean cover = board[pawn[0] - 1][pawn[1] + 1] != check
-                && board[pawn[0] - 1][pawn[1] + 1] != ' ';
-        return danger && !cover;
-    }
-
-    /**
-     * Checking if a pawn of the human player is in danger (whilst not being
-     * covered) of being beaten by a pawn of the computer/bot player, with its
-     * location on the start line (0), but none of the two corners.
-     *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the computers/bots pawns on the board.
-     * @return true if it is endangered, false otherwise.
-     */
-    private boolean isEndangeredHumanStart(int[] pawn, char check) {
-        return board[pawn[0] - 1][pawn[1] - 1] == check
-                || board[pawn[0] + 1][pawn[1] - 1] == check;
-    }
-
-    /**
-     * Checking if a pawn of the human player is in danger (whilst not being
-     * covered) of being beaten by a pawn of the computer/bot player, with its
-     * location being one of the corners.
-     *
-     * @param pawn the coordinates of the pawn to check.
-     * @param check the char of the computers/bots pawns on the board.
-     * @return true if it is endangered, false otherwise.
-     */
-    private boolean isEndangeredHumanCorner(int[] pawn, char check) {
-        if (pawn[0] == 0) {
-            return board[pawn[0] + 1][pawn[1] - 1] == check;
-        } else {
-            return board[pawn[0] - 1][pawn[1] - 1] == check;
+    private double[] measure(FeatureSet features) {
+        double[] toReturn = new double[features.size()];
+        if (SCALAR || !features.isStandard()
+                || !BitboardFeatures.extract(currentGame, toReturn)) {
+            features.extract(currentGame, toReturn);
         }
+        return toReturn;
     }
 
     /**
-     * Finding out, which char is the endangering char for a player on placed
-     * ont he board.
+     * Evaluating the assigned Model.Board.Model.Board.PawnBoard based on the
+     * weighted terms of the current feature set, by default:
+     * -amount of pawns.
+     * -amount of endangered pawns.
+     * -amount of isolated pawns.
+     * -distance the pawns have traversed.
+     * And on the game being over or not. The designed terms are measured by
+     * BitboardFeatures if the board fits into a long.
      *
-     * @param color the color NOT being the endangering.
-     * @return 'W' if the players color is Black and vice-versa.
+     * @return the calculated evaluation as a double.
      */
-    private char getEndangeringChar(Color color) {
-        if (color == Color.WHITE) {
-            return 'B';
-        } else {
-            return 'W';
-        }
+    public double evaluateBoard() {
+        FeatureSet features = featureSet;
+        return features.apply(measure(features)) + checkWin(currentGame, depth);
     }
 
     /**
-     * Calculating the summed distance all of the humans pawns have traversed
-     * on the board.
+     * Creates an evaluator for several situations at once, giving the same
+     * evaluations as evaluateBoard. The designed terms of all situations are
+     * measured together by BitboardFeatures if possible.
      *
-     * @return the calculated double value.
+     * @return a new batch evaluator, to be used by one search at a time.
      */
-    private double getDistanceHuman() {
-        double toReturn = 0;
-        List<int[]> pawns =
-                currentGame.getPawnsFor(currentGame.getHumanColor());
-        for (int[] current : pawns) {
-            toReturn += (Board.SIZE - 1) - current[1];
-        }
-        return toReturn;
+    public static BatchEvaluator batch() {
+        return new Batch();
     }
 
     /**
-     * Calculating the summed distance all of pawns of the computer/bot have
-     * traversed on the board.
-     *
-     * @return the calculated double value.
+     * Class evaluating several situations at once, keeping its buffers
+     * between the batches.
      */
-    private double getDistanceComputer() {
-        double toReturn = 0;
-        List<int[]> pawns =
-                currentGame.getPawnsFor(currentGame.getComputerColor());
-        for (int[] current : pawns) {
-            toReturn += current[1];
-        }
-        return toReturn;
-    }
+    private static final class Batch implements BatchEvaluator {
+        private long[] packed = new long[0];
+        private double[] values = new double[0];
 
-    /**
-     * Checking if the game would be over after the made move and calculating
-     * an evaluation depending on the depth in the decision-tree.
-     *
-     * @return 0 if game isn't over its a draw, teh calculation otherwise.
-     */
-    private double checkWin() {
-        if (currentGame.isGameOver()) {
-            //Computer, human win or draw?
-            if (currentGame.getWinner().getColor()
-                    == currentGame.getComputerColor()) {
-                return (5000 / depth);
-            } else if (currentGame.getWinner().getColor()
-                    == currentGame.getHumanColor()) {
-                return 0 - 1.5 * (5000 / depth);
-            } else {
-                return 0;
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void evaluate(List<PawnBoard> boards, double depth,
+                             double[] into) {
+            FeatureSet features = featureSet;
+            int count = boards.size();
+            int width = features.size();
+            if (values.length < count * width) {
+                values = new double[2 * count * width];
+                packed = new long[4 * count];
+            }
+            if (SCALAR || !features.isStandard()
+                    || !BitboardFeatures.extractAll(boards, packed, values)) {
+                double[] single = new double[width];
+                for (int i = 0; i < count; i++) {
+                    features.extract(boards.get(i), single);
+                    System.arraycopy(single, 0, values, i * width, width);
+                }
+            }
+            double[] weights = features.getWeights();
+            for (int i = 0; i < count; i++) {
+                double sum = 0;
+                int offset = i * width;
+                for (int j = 0; j < width; j++) {
+                    sum += weights[j] * values[offset + j];
+                }
+                into[i] = sum + checkWin(boards.get(i), depth);
             }
-        } else {
-            return 0;
         }
     }
-
-    /**
-     * Evaluating the assigned Model.Board.Model.Board.PawnBoard on based on:
-     * -amount of pawns.
-     * -amount of endangered pawns.
-     * -amount of isolated pawns.
-     * -distance the pawns have traversed.
-     * -if the game is over or not.
-     *
-     * @return the calculated evaluation as a double.
-     */
-    public double evaluateBoard() {
-        // Amount of pawns on the board.
-        double nHuman =
-                currentGame.getPawnsFor(currentGame.getHumanColor()).size();
-        double nComp =
-                currentGame.getPawnsFor(currentGame.getComputerColor()).size();
-        double n = nComp - (1.5 * nHuman);
-        // Amount of endangered pawns.
-        double cHuman = getAllEndangeredHuman().size();
-        double cComp = getAllEndangeredComputer().size();
-        double c = cHuman - (1.5 * cComp);
-        // Amount of isolated pawns.
-        double iHuman = getAllIsolated(currentGame.getHumanColor());
-        double iComp = getAllIsolated(currentGame.getComputerColor());
-        double i = iHuman - (1.5 * iComp);
-        // Distance traversed.
-        double dHuman = getDistanceHuman();
-        double dComputer = getDistanceComputer();
-        double d = dComputer - (1.5 * dHuman);
-        // Game over?
-        double w = checkWin();
-
-        return (d + i + c + n + w);
-    }
-}
\ No newline at end of file
+}
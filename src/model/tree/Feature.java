@@ -0,0 +1,27 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+/**
+ * Interface for a single term of the evaluation, e.g. the amount of pawns of
+ * the computer. The Evaluator multiplies each term with its weight and sums
+ * them up, so a new term only has to be registered at the Evaluator.
+ */
+public interface Feature {
+
+    /**
+     * Gets the name of the term, also used as its key in the weights file.
+     *
+     * @return the unique name of the term.
+     */
+    String getName();
+
+    /**
+     * Measures the term on a given situation.
+     *
+     * @param game the situation to measure, not to be modified.
+     * @return the value of the term, positive values counting for the
+     * weight's direction.
+     */
+    double extract(PawnBoard game);
+}
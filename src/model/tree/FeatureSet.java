@@ -0,0 +1,181 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+import java.util.Arrays;
+
+/**
+ * Class holding the terms of the evaluation together with their weights.
+ * The terms of a situation are gathered into a primitive array, which is
+ * multiplied with the weights. A set never changes, adding a term or
+ * changing the weights creates a new set, so a set can be shared between
+ * searches running at the same time.
+ */
+public final class FeatureSet {
+    private final Feature[] features;
+    private final double[] weights;
+    // True if made of exactly the designed terms, see BitboardFeatures.
+    private final boolean standard;
+
+    /**
+     * Constructor for an empty set.
+     */
+    public FeatureSet() {
+        this(new Feature[0], new double[0], false);
+    }
+
+    /**
+     * Constructor for a set of given terms.
+     *
+     * @param features the terms.
+     * @param weights the weight of each term.
+     * @param standard true if the terms are the ones of StandardFeatures.
+     */
+    private FeatureSet(Feature[] features, double[] weights,
+                       boolean standard) {
+        this.features = features;
+        this.weights = weights;
+        this.standard = standard;
+    }
+
+    /**
+     * Marks this set as consisting of the designed terms of
+     * StandardFeatures in their order, so they may be measured at once.
+     *
+     * @return the marked set.
+     */
+    FeatureSet asStandard() {
+        return new FeatureSet(features, weights, true);
+    }
+
+    /**
+     * Checks if this set consists of the designed terms only.
+     *
+     * @return true if the terms are the ones of StandardFeatures.
+     */
+    boolean isStandard() {
+        return standard;
+    }
+
+    /**
+     * Creates a set with an additional term.
+     *
+     * @param feature the new term, with a name not used by this set.
+     * @param weight the weight of the new term.
+     * @return the new set.
+     * @throws IllegalArgumentException if the name is already used.
+     */
+    public FeatureSet with(Feature feature, double weight) {
+        if (indexOf(feature.getName()) >= 0) {
+            throw new IllegalArgumentException("Term " + feature.getName()
+                    + " already exists!");
+        }
+        Feature[] newFeatures = Arrays.copyOf(features, features.length + 1);
+        double[] newWeights = Arrays.copyOf(weights, weights.length + 1);
+        newFeatures[features.length] = feature;
+        newWeights[weights.length] = weight;
+        return new FeatureSet(newFeatures, newWeights, false);
+    }
+
+    /**
+     * Creates a set of the same terms with other weights.
+     *
+     * @param newWeights the weight of each term in the order of this set.
+     * @return the new set.
+     * @throws IllegalArgumentException if the amount of weights differs.
+     */
+    public FeatureSet withWeights(double[] newWeights) {
+        if (newWeights.length != features.length) {
+            throw new IllegalArgumentException("Exactly " + features.length
+                    + " weights expected!");
+        }
+        return new FeatureSet(features, newWeights.clone(), standard);
+    }
+
+    /**
+     * Creates a set of the same terms, taking the weights found in the
+     * given weights for their names and keeping the others.
+     *
+     * @param loaded the weights, e.g. read from a file.
+     * @return the new set.
+     */
+    public FeatureSet withWeights(EvaluationWeights loaded) {
+        double[] newWeights = new double[features.length];
+        for (int i = 0; i < features.length; i++) {
+            newWeights[i] = loaded.get(features[i].getName(), weights[i]);
+        }
+        return new FeatureSet(features, newWeights, standard);
+    }
+
+    /**
+     * Gets the amount of terms.
+     *
+     * @return the amount of terms.
+     */
+    public int size() {
+        return features.length;
+    }
+
+    /**
+     * Finds a term by its name.
+     *
+     * @param name the name of the term.
+     * @return the position of the term in this set, -1 if not contained.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < features.length; i++) {
+            if (features[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the names of all terms in the order of this set.
+     */
+    public String[] getNames() {
+        String[] toReturn = new String[features.length];
+        for (int i = 0; i < features.length; i++) {
+            toReturn[i] = features[i].getName();
+        }
+        return toReturn;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return a copy of the weights in the order of this set.
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Measures all terms on a situation.
+     *
+     * @param game the situation.
+     * @param into the array to write the terms to, at least size() long.
+     */
+    public void extract(PawnBoard game, double[] into) {
+        for (int i = 0; i < features.length; i++) {
+            into[i] = features[i].extract(game);
+        }
+    }
+
+    /**
+     * Multiplies measured terms with their weights.
+     *
+     * @param values the terms in the order of this set.
+     * @return the weighted sum.
+     */
+    public double apply(double[] values) {
+        double toReturn = 0;
+        for (int i = 0; i < weights.length; i++) {
+            toReturn += weights[i] * values[i];
+        }
+        return toReturn;
+    }
+}
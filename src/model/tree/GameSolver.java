@@ -0,0 +1,244 @@
+package model.tree;
+
+import model.board.BitBoard;
+import model.board.PawnBoard;
+
+/**
+ * Class proving the value of a situation under perfect play of both
+ * players, meant for small boards. An alpha-beta search over the three
+ * values win, draw and loss examines the game to its end, and every result
+ * is remembered in a TranspositionTable together with the move it was found
+ * with, so each situation reached by different orders of moves is solved
+ * only once. Winning moves are tried first, then the remembered move, then
+ * captures.
+ *
+ * A value found with a narrowed window only bounds the real value, so the
+ * table keeps whether a value is exact, a lower or an upper bound.
+ */
+public class GameSolver {
+
+    /**
+     * Value of a situation won by the player to move.
+     */
+    public static final int WIN = 1;
+
+    /**
+     * Value of a situation ending in a draw.
+     */
+    public static final int DRAW = 0;
+
+    /**
+     * Value of a situation lost by the player to move.
+     */
+    public static final int LOSS = -1;
+
+    // Kinds of remembered values, never 0 so data of 0 means absent.
+    private static final int EXACT = 1;
+    private static final int LOWER = 2;
+    private static final int UPPER = 3;
+
+    private final TranspositionTable table;
+    // Keys of the pawns, indexed by player and bit of the tile.
+    private final long[][] keys;
+    // Situation and move buffer of each ply.
+    private final BitBoard[] boards;
+    private final int[][] moves;
+    private long positions;
+    private int bestMove;
+
+    /**
+     * Constructor for a solver of boards of one size.
+     *
+     * @param size the number of columns and rows.
+     * @param table the table remembering the solved situations.
+     */
+    public GameSolver(int size, TranspositionTable table) {
+        this.table = table;
+        this.keys = new long[2][size * size];
+        for (int square = 0; square < size * size; square++) {
+            keys[0][square] = Zobrist.pawn(square % size, square / size,
+                    false);
+            keys[1][square] = Zobrist.pawn(square % size, square / size,
+                    true);
+        }
+
+        // Each move takes a pawn at least one row ahead.
+        int plies = 2 * size * size + 1;
+        this.boards = new BitBoard[plies];
+        this.moves = new int[plies][];
+        for (int ply = 0; ply < plies; ply++) {
+            boards[ply] = BitBoard.create(size);
+            moves[ply] = new int[boards[ply].getMaxMoves()];
+        }
+    }
+
+    /**
+     * Proves the value of a situation.
+     *
+     * @param game the situation, of the size of this solver.
+     * @return WIN, DRAW or LOSS for the player to move.
+     */
+    public int solve(PawnBoard game) {
+        BitBoard root = BitBoard.of(game);
+        boards[0].copyFrom(root);
+        int toReturn = search(0, Zobrist.hash(game), LOSS, WIN);
+        long data = table.probe(Zobrist.hash(game), 0);
+        bestMove = data == 0 ? 0 : (int) (data >>> 4);
+        return toReturn;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of situations examined by all searches so far.
+     */
+    public long getPositions() {
+        return positions;
+    }
+
+    /**
+     * Getter method, only valid after solve.
+     *
+     * @return the best move of the solved situation as encoded by BitBoard,
+     * 0 if the game was already over.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Alpha-beta search to the end of the game.
+     *
+     * @param ply the distance to the solved situation.
+     * @param hash the Zobrist hash of the situation.
+     * @param alpha the value the player to move has already secured.
+     * @param beta the value the opponent has already secured.
+     * @return the value for the player to move, a bound if outside of the
+     * window.
+     */
+    private int search(int ply, long hash, int alpha, int beta) {
+        positions++;
+        BitBoard board = boards[ply];
+        boolean computer = board.isComputerToMove();
+        if (board.isGameOver()) {
+            int winner = board.getWinner();
+            if (winner == BitBoard.DRAW) {
+                return DRAW;
+            }
+            return (winner == BitBoard.COMPUTER_WINS) == computer
+                    ? WIN : LOSS;
+        }
+
+        int[] options = moves[ply];
+        int count = board.generateMoves(options);
+        for (int i = 0; i < count; i++) {
+            if (board.isWinningMove(options[i])) {
+                table.store(hash, (long) options[i] << 4 | EXACT << 2
+                        | (WIN + 1));
+                return WIN;
+            }
+        }
+
+        // Remembered result, possibly only a bound.
+        int originalAlpha = alpha;
+        long data = table.probe(hash, 0);
+        int remembered = 0;
+        if (data != 0) {
+            int value = (int) (data & 3) - 1;
+            int kind = (int) (data >>> 2) & 3;
+            remembered = (int) (data >>> 4);
+            if (kind == EXACT) {
+                return value;
+            } else if (kind == LOWER) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+            if (alpha >= beta) {
+                return value;
+            }
+        }
+        order(board, options, count, remembered);
+
+        int best = LOSS - 1;
+        int chosen = options[0];
+        BitBoard child = boards[ply + 1];
+        for (int i = 0; i < count && best < beta; i++) {
+            int move = options[i];
+            int from = BitBoard.moveFrom(move);
+            int to = BitBoard.moveTo(move);
+            long childHash = hash ^ keys[computer ? 1 : 0][from]
+                    ^ keys[computer ? 1 : 0][to] ^ Zobrist.toMove(computer);
+            if (board.isCapture(move)) {
+                childHash ^= keys[computer ? 0 : 1][to];
+            }
+            child.copyFrom(board);
+            child.play(move);
+            childHash ^= Zobrist.toMove(child.isComputerToMove());
+
+            // The opponent may have to skip, then the same player moves on.
+            int value;
+            if (child.isComputerToMove() == computer && !child.isGameOver()) {
+                value = search(ply + 1, childHash, alpha, beta);
+            } else {
+                value = -search(ply + 1, childHash, -beta, -alpha);
+            }
+            if (value > best) {
+                best = value;
+                chosen = move;
+                alpha = Math.max(alpha, value);
+            }
+        }
+
+        int kind;
+        if (best <= originalAlpha) {
+            kind = UPPER;
+        } else if (best >= beta) {
+            kind = LOWER;
+        } else {
+            kind = EXACT;
+        }
+        table.store(hash, (long) chosen << 4 | kind << 2 | (best + 1));
+        return best;
+    }
+
+    /**
+     * Sorts the moves to try the remembered move first and captures before
+     * quiet moves.
+     *
+     * @param board the situation.
+     * @param options the moves, reordered in place.
+     * @param count the amount of moves.
+     * @param remembered the move remembered in the table, 0 if none.
+     */
+    private static void order(BitBoard board, int[] options, int count,
+                              int remembered) {
+        int next = 0;
+        for (int i = 0; i < count; i++) {
+            if (options[i] == remembered
+                    || (remembered == 0 && board.isCapture(options[i]))) {
+                swap(options, i, next++);
+            }
+        }
+        if (remembered != 0) {
+            for (int i = next; i < count; i++) {
+                if (board.isCapture(options[i])) {
+                    swap(options, i, next++);
+                }
+            }
+        }
+    }
+
+    /**
+     * Swaps two moves.
+     *
+     * @param options the moves.
+     * @param i the position of the first move.
+     * @param j the position of the second move.
+     */
+    private static void swap(int[] options, int i, int j) {
+        int temp = options[i];
+        options[i] = options[j];
+        options[j] = temp;
+    }
+}
@@ -0,0 +1,72 @@
+package model.tree;
+
+import java.util.Arrays;
+
+/**
+ * TranspositionTable keeping its entries in a single array of longs on the
+ * Java heap, key and data next to each other. Limited to 2^29 entries, as
+ * the array holds two longs per entry.
+ */
+public class HeapTranspositionTable implements TranspositionTable {
+
+    /**
+     * Maximum amount of entries fitting into an array.
+     */
+    public static final long MAX_ENTRIES = 1L << 29;
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * Constructor for an empty table.
+     *
+     * @param entries the amount of entries, a power of two of at most
+     *                MAX_ENTRIES.
+     * @throws IllegalArgumentException if the amount is not supported.
+     */
+    public HeapTranspositionTable(long entries) {
+        if (entries < 1 || entries > MAX_ENTRIES
+                || Long.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("Heap tables need a power of "
+                    + "two of at most " + MAX_ENTRIES + " entries!");
+        }
+        this.table = new long[(int) (2 * entries)];
+        this.mask = (int) entries - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long probe(long key, long absent) {
+        int index = 2 * ((int) key & mask);
+        long data = table[index + 1];
+        return (table[index] ^ data) == key ? data : absent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void store(long key, long data) {
+        int index = 2 * ((int) key & mask);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getEntries() {
+        return mask + 1L;
+    }
+}
@@ -0,0 +1,103 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+import java.util.function.Consumer;
+
+/**
+ * Search growing a DecisionTree one ply higher at a time until a limit is
+ * reached, e.g. to play within a time span. A tree cut off by the limit is
+ * not used, as its first children would reach the full height while later
+ * ones stay leaves, and the sums of their variations could not be compared.
+ * The move is chosen by the last complete tree. The first ply is always
+ * finished, so there is a move even if the limit is reached at once.
+ */
+public class IterativeDeepening implements MoveSearch {
+    // Last complete tree, null if the game is already over.
+    private DecisionTree tree;
+    private int depth;
+    private long nodes;
+
+    /**
+     * Constructor running the search.
+     *
+     * @param currentBoard is the current situation with the computer to
+     *                     move, not changed.
+     * @param maxDepth the maximum height of the tree, at least 1.
+     * @param batched true to evaluate all children of a node together.
+     * @param limit the monitor asked after each expanded node with the
+     *              amount of nodes of all trees so far, true to end the
+     *              search.
+     * @param listener gets this search after each complete ply, null if
+     *                 none.
+     */
+    public IterativeDeepening(PawnBoard currentBoard, int maxDepth,
+                              boolean batched, SearchMonitor limit,
+                              Consumer<IterativeDeepening> listener) {
+        long previous = -1;
+        for (int height = 1; height <= maxDepth
+                && !currentBoard.isGameOver(); height++) {
+            boolean first = height == 1;
+            long before = nodes;
+            DecisionTree grown = new DecisionTree(currentBoard, height,
+                    batched, count -> !first
+                    && limit.checkpoint(before + count));
+            nodes += grown.getNodeCount();
+            if (grown.isAborted()) {
+                break;
+            }
+            grown.bestMove();
+            tree = grown;
+            depth = height;
+            if (listener != null) {
+                listener.accept(this);
+            }
+
+            // Tree no longer growing, as all variations reached the end.
+            if (grown.getNodeCount() == previous) {
+                break;
+            }
+            previous = grown.getNodeCount();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the game is already over.
+     */
+    @Override
+    public PawnBoard bestMove() {
+        if (tree == null) {
+            throw new IllegalStateException("Game is already over!");
+        }
+        return tree.bestMove();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the height of the last complete tree, 0 if the game is over.
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the last complete tree, after its bestMove, e.g. for its
+     * principal variation, null if the game is over.
+     */
+    public DecisionTree getTree() {
+        return tree;
+    }
+}
@@ -0,0 +1,418 @@
+package model.tree;
+
+import model.board.BitBoard;
+import model.board.PawnBoard;
+import model.exception.IllegalMoveException;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class estimating the best move of the computer via Monte Carlo Tree
+ * Search (UCT). Instead of examining all variations up to a fixed height, the
+ * tree grows towards the promising moves, and each new node is rated by a
+ * quick random game (playout) on a BitBoard. The more playouts, the stronger
+ * the result, so the search can be limited by an amount of playouts or a
+ * time span.
+ *
+ * Several threads can work on the same tree. A thread walking down a node
+ * counts as a lost visit (virtual loss) until its playout is finished, so the
+ * other threads are steered to different variations.
+ *
+ * The nodes are kept in a NodePool, by default the one of the calling thread,
+ * which is reused by its next search. Once the pool is full, the tree stops
+ * growing and the search goes on with playouts from its leaves.
+ */
+public class MonteCarloTree implements MoveSearch {
+
+    /**
+     * Playouts granted per level of difficulty when used by a PawnBoard.
+     */
+    public static final int PLAYOUTS_PER_LEVEL = 2000;
+
+    /**
+     * Maximum amount of nodes of a tree using the pool of its thread.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    // Weight of exploring rarely visited nodes against exploiting good ones.
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    // Pool of the searches started by each thread.
+    private static final ThreadLocal<NodePool> POOLS = new ThreadLocal<>();
+
+    // Index of the root in the pool.
+    private static final int ROOT = 0;
+
+    private final PawnBoard game;
+    private final BitBoard rootBoard;
+    private final NodePool pool;
+    private final AtomicInteger playoutsLeft;
+    private final long deadline;
+    private final AtomicInteger playoutsDone;
+    private final LongAdder positions;
+    private volatile boolean stopped;
+    // Move chosen when the search ended, 0 if there is none.
+    private int chosenMove;
+    private int treeSize;
+
+    /**
+     * Constructor searching the best move for the given situation. At least
+     * one of both limits has to be given, if both are given, the search ends
+     * as soon as one is reached.
+     *
+     * @param currentBoard is the current situation with the computer to move.
+     * @param playouts is the maximum amount of playouts, 0 if unlimited.
+     * @param millis is the maximum time to search in milliseconds, 0 if
+     *               unlimited.
+     * @param threads is the amount of threads working on the tree.
+     */
+    public MonteCarloTree(PawnBoard currentBoard, int playouts, long millis,
+                          int threads) {
+        this(currentBoard, playouts, millis, threads,
+                threadPool(currentBoard, playouts));
+    }
+
+    /**
+     * Constructor searching the best move for the given situation with the
+     * nodes kept in the given pool. The pool is reset first and may be
+     * reused as soon as the constructor returns.
+     *
+     * @param currentBoard is the current situation with the computer to move.
+     * @param playouts is the maximum amount of playouts, 0 if unlimited.
+     * @param millis is the maximum time to search in milliseconds, 0 if
+     *               unlimited.
+     * @param threads is the amount of threads working on the tree.
+     * @param pool the pool for the nodes, not used by another search.
+     */
+    public MonteCarloTree(PawnBoard currentBoard, int playouts, long millis,
+                          int threads, NodePool pool) {
+        if (playouts <= 0 && millis <= 0) {
+            throw new IllegalArgumentException("Either playouts or time "
+                    + "have to be limited!");
+        } else if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is "
+                    + "needed!");
+        }
+        this.game = currentBoard.clone();
+        this.rootBoard = BitBoard.of(game);
+        this.pool = pool;
+        pool.reset();
+        pool.allocate(1);
+        pool.init(ROOT, -1, 0, !rootBoard.isComputerToMove());
+        this.playoutsLeft = new AtomicInteger(playouts > 0
+                ? playouts : Integer.MAX_VALUE);
+        this.deadline = millis > 0
+                ? System.nanoTime() + millis * 1_000_000 : Long.MAX_VALUE;
+        this.playoutsDone = new AtomicInteger();
+        this.positions = new LongAdder();
+        search(threads);
+        chosenMove = mostVisited();
+        treeSize = pool.size();
+    }
+
+    /**
+     * Gets the pool of the calling thread, large enough for a search with
+     * the given amount of playouts.
+     *
+     * @param currentBoard is the situation to search.
+     * @param playouts is the maximum amount of playouts, 0 if unlimited.
+     * @return the pool, created or replaced if too small.
+     */
+    private static NodePool threadPool(PawnBoard currentBoard,
+                                       int playouts) {
+        // Each playout expands at most one node into all its moves.
+        long needed = playouts > 0 ? (long) playouts
+                * BitBoard.create(currentBoard.getSize()).getMaxMoves() + 1
+                : DEFAULT_CAPACITY;
+        int capacity = (int) Math.min(needed, DEFAULT_CAPACITY);
+        NodePool toReturn = POOLS.get();
+        if (toReturn == null || toReturn.getCapacity() < capacity) {
+            toReturn = new NodePool(capacity);
+            POOLS.set(toReturn);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of playouts performed by the search.
+     */
+    public int getPlayouts() {
+        return playoutsDone.get();
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of nodes of the tree when the search ended.
+     */
+    public int getTreeSize() {
+        return treeSize;
+    }
+
+    /**
+     * {@inheritDoc} Here, every move played while walking down the tree or
+     * during a playout counts.
+     */
+    @Override
+    public long getNodeCount() {
+        return positions.sum();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PawnBoard bestMove() {
+        if (chosenMove == 0) {
+            throw new IllegalMoveException("No move possible!");
+        }
+        int from = BitBoard.moveFrom(chosenMove);
+        int to = BitBoard.moveTo(chosenMove);
+        int size = game.getSize();
+        PawnBoard toReturn = game.clone();
+        return toReturn.moving(from % size, from / size, to % size,
+                to / size);
+    }
+
+    /**
+     * Finds the move of the root which was examined the most, as it is the
+     * most reliable one.
+     *
+     * @return the encoded move, 0 if the root has no children.
+     */
+    private int mostVisited() {
+        int first = pool.getFirstChild(ROOT);
+        if (first == NodePool.UNEXPANDED || pool.getChildCount(ROOT) == 0) {
+            return 0;
+        }
+        int best = first;
+        for (int child = first; child < first + pool.getChildCount(ROOT);
+                child++) {
+            if (pool.getVisits(child) > pool.getVisits(best)) {
+                best = child;
+            }
+        }
+        return pool.getMove(best);
+    }
+
+    /**
+     * Runs the search on the calling thread and the given amount of helping
+     * threads minus one until the budget is used up or the calling thread
+     * gets interrupted.
+     *
+     * @param threads is the amount of threads working on the tree.
+     */
+    private void search(int threads) {
+        Thread[] helpers = new Thread[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            long seed = i + 1;
+            helpers[i] = new Thread(() -> work(seed));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+        work(0);
+        stopped = true;
+
+        // Helpers must be finished before the pool may be reused.
+        boolean interrupted = false;
+        for (Thread helper : helpers) {
+            while (helper.isAlive()) {
+                try {
+                    helper.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Checks if another playout may be started.
+     *
+     * @return true if neither the budget is used up nor the search got
+     * stopped, false otherwise.
+     */
+    private boolean hasBudget() {
+        return !stopped && System.nanoTime() < deadline
+                && playoutsLeft.getAndDecrement() > 0;
+    }
+
+    /**
+     * Loop of a single thread, repeatedly walking down the tree, rating the
+     * reached node by a playout and backing up the result.
+     *
+     * @param seed the seed of the random generator of this thread.
+     */
+    private void work(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        BitBoard board = BitBoard.create(rootBoard.getSize());
+        int[] moves = new int[rootBoard.getMaxMoves()];
+        long played = 0;
+        while (hasBudget()) {
+            if (Thread.currentThread().isInterrupted()) {
+                stopped = true;
+                break;
+            }
+            board.copyFrom(rootBoard);
+            int node = ROOT;
+
+            // Walk down until a node without a playout is reached.
+            while (!board.isGameOver()) {
+                int next = select(node, board, moves);
+                if (next == NodePool.FULL) {
+                    break;
+                }
+                board.play(pool.getMove(next));
+                played++;
+                node = next;
+                if (pool.getVisits(next) == 0) {
+                    break;
+                }
+            }
+            int result;
+            if (board.isGameOver()) {
+                result = board.getWinner();
+            } else {
+                result = playout(board, moves, random);
+            }
+            backup(node, result);
+            playoutsDone.incrementAndGet();
+        }
+        positions.add(played);
+    }
+
+    /**
+     * Plays the game on the given board to the end. Winning moves are always
+     * taken and captures preferred, apart from that moves are random.
+     *
+     * @param board the situation to start from, modified by the playout.
+     * @param moves buffer for the generated moves.
+     * @param random the random generator of the current thread.
+     * @return COMPUTER_WINS, HUMAN_WINS or DRAW.
+     */
+    private int playout(BitBoard board, int[] moves,
+                        SplittableRandom random) {
+        long played = 0;
+        while (!board.isGameOver()) {
+            int count = board.generateMoves(moves);
+            int chosen = moves[random.nextInt(count)];
+            for (int i = 0; i < count; i++) {
+                if (board.isWinningMove(moves[i])) {
+                    chosen = moves[i];
+                    break;
+                } else if (board.isCapture(moves[i])
+                        && random.nextBoolean()) {
+                    chosen = moves[i];
+                }
+            }
+            board.play(chosen);
+            played++;
+        }
+        positions.add(played);
+        return board.getWinner();
+    }
+
+    /**
+     * Adds the result of a playout to all nodes from the given one up to the
+     * root and removes the virtual losses added while walking down.
+     *
+     * @param node the node the playout started from.
+     * @param result the outcome of the playout.
+     */
+    private void backup(int node, int result) {
+        for (int current = node; current >= 0;
+                current = pool.getParent(current)) {
+            float reward;
+            if (result == BitBoard.DRAW) {
+                reward = 0.5f;
+            } else if ((result == BitBoard.COMPUTER_WINS)
+                    == pool.isComputerMoved(current)) {
+                reward = 1;
+            } else {
+                reward = 0;
+            }
+            synchronized (pool.lock(current)) {
+                pool.addResult(current, reward, current != ROOT);
+            }
+        }
+    }
+
+    /**
+     * Creates the children of a node for all moves possible in its
+     * situation, if not already done.
+     *
+     * @param node the node.
+     * @param board the situation of the node.
+     * @param moves buffer for the generated moves.
+     * @return the index of the first child, NodePool.FULL if the pool has no
+     * room left for them.
+     */
+    private int expand(int node, BitBoard board, int[] moves) {
+        int toReturn = pool.getFirstChild(node);
+        if (toReturn == NodePool.UNEXPANDED) {
+            synchronized (pool.lock(node)) {
+                toReturn = pool.getFirstChild(node);
+                if (toReturn == NodePool.UNEXPANDED) {
+                    int count = board.generateMoves(moves);
+                    boolean computer = board.isComputerToMove();
+                    toReturn = pool.allocate(count);
+                    if (toReturn == NodePool.FULL) {
+                        return NodePool.FULL;
+                    }
+                    for (int i = 0; i < count; i++) {
+                        pool.init(toReturn + i, node, moves[i], computer);
+                    }
+                    pool.setChildren(node, toReturn, count);
+                }
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Chooses the child of a node with the highest upper confidence bound
+     * and adds a virtual loss to it.
+     *
+     * @param node the node.
+     * @param board the situation of the node.
+     * @param moves buffer for the generated moves.
+     * @return the chosen child, NodePool.FULL if the children could not be
+     * created.
+     */
+    private int select(int node, BitBoard board, int[] moves) {
+        int first = expand(node, board, moves);
+        if (first == NodePool.FULL) {
+            return NodePool.FULL;
+        }
+        double logVisits = Math.log(Math.max(1, pool.getVisits(node)
+                + pool.getVirtualLoss(node)));
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + pool.getChildCount(node);
+                child++) {
+            int n = pool.getVisits(child) + pool.getVirtualLoss(child);
+            double value;
+            if (n == 0) {
+                value = Double.POSITIVE_INFINITY;
+            } else {
+                value = pool.getScore(child) / n
+                        + EXPLORATION * Math.sqrt(logVisits / n);
+            }
+            if (value > bestValue) {
+                best = child;
+                bestValue = value;
+            }
+        }
+        synchronized (pool.lock(best)) {
+            pool.addVirtualLoss(best);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,26 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+/**
+ * Interface for the different ways of finding the next move of the computer.
+ * A search is created for one situation and asked for its best move
+ * afterwards.
+ */
+public interface MoveSearch {
+
+    /**
+     * Method to return the best move for the current situation of the board.
+     *
+     * @return a new board with the best move of the computer performed.
+     */
+    PawnBoard bestMove();
+
+    /**
+     * Gets the amount of situations examined by the search, e.g. to compare
+     * the speed of different searches.
+     *
+     * @return the amount of situations examined.
+     */
+    long getNodeCount();
+}
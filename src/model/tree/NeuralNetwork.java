@@ -0,0 +1,336 @@
+package model.tree;
+
+import model.board.PawnBoard;
+import model.player.Color;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A small neural network evaluating situations for the computer (NNUE). Its
+ * input is one neuron per tile and player, set if a pawn of the player
+ * stands on the tile. The first layer sums up the weights of all set inputs
+ * into an Accumulator, which only needs to be changed by the few inputs a
+ * move touches. The clipped accumulator is multiplied with the weights of
+ * the output neuron.
+ *
+ * All weights are integers, so the network needs nothing but integer
+ * arithmetic on the CPU. Its file consists of, all numbers big endian:
+ * the magic number, the board size, the amount of hidden neurons, the clip
+ * value of the accumulator, the quantization of the output weights (all
+ * int), the evaluation per output unit (float), the input weights (short,
+ * all weights of one input after another), the hidden biases (short), the
+ * output weights (short) and the output bias (int).
+ */
+public class NeuralNetwork {
+
+    /**
+     * System property naming the network file to load at startup. The
+     * handcrafted Evaluator is used if it is not set.
+     */
+    public static final String FILE_PROPERTY = "pawns.network";
+
+    private static final int MAGIC = 0x504E5545;
+
+    private static volatile NeuralNetwork active = loadStartup();
+
+    private final int size;
+    private final int hidden;
+    private final int clip;
+    private final int quantization;
+    private final float scale;
+    private final short[] inputWeights;
+    private final short[] biases;
+    private final short[] outputWeights;
+    private final int outputBias;
+    // Hash of the layout and all weights.
+    private final long fingerprint;
+
+    /**
+     * Constructor for a network with given weights.
+     *
+     * @param size the number of columns and rows of the evaluated boards.
+     * @param hidden the amount of neurons of the accumulator.
+     * @param clip the upper bound of a neuron of the accumulator.
+     * @param quantization the factor the output weights are scaled with.
+     * @param scale the evaluation per unit of the output.
+     * @param inputWeights the weights of the inputs, hidden per input.
+     * @param biases the start value of each neuron of the accumulator.
+     * @param outputWeights the weight of each neuron of the accumulator.
+     * @param outputBias the start value of the output.
+     */
+    public NeuralNetwork(int size, int hidden, int clip, int quantization,
+                         float scale, short[] inputWeights, short[] biases,
+                         short[] outputWeights, int outputBias) {
+        if (size < PawnBoard.MIN_SIZE || size > PawnBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Illegal board size " + size
+                    + "!");
+        } else if (hidden < 1 || clip < 1 || quantization < 1) {
+            throw new IllegalArgumentException("Illegal network layout!");
+        } else if (inputWeights.length != 2 * size * size * hidden
+                || biases.length != hidden
+                || outputWeights.length != hidden) {
+            throw new IllegalArgumentException("Amount of weights does not "
+                    + "fit the layout!");
+        }
+        this.size = size;
+        this.hidden = hidden;
+        this.clip = clip;
+        this.quantization = quantization;
+        this.scale = scale;
+        this.inputWeights = inputWeights;
+        this.biases = biases;
+        this.outputWeights = outputWeights;
+        this.outputBias = outputBias;
+        long hash = Arrays.hashCode(new int[] {size, hidden, clip,
+                quantization, Float.floatToIntBits(scale), outputBias});
+        hash = 31 * hash + Arrays.hashCode(inputWeights);
+        hash = 31 * hash + Arrays.hashCode(biases);
+        this.fingerprint = 31 * hash + Arrays.hashCode(outputWeights);
+    }
+
+    /**
+     * Creates a network with random weights, e.g. to measure its speed.
+     *
+     * @param size the number of columns and rows of the evaluated boards.
+     * @param hidden the amount of neurons of the accumulator.
+     * @param seed the seed of the random weights.
+     * @return the new network.
+     */
+    public static NeuralNetwork random(int size, int hidden, long seed) {
+        Random random = new Random(seed);
+        short[] inputWeights = new short[2 * size * size * hidden];
+        for (int i = 0; i < inputWeights.length; i++) {
+            inputWeights[i] = (short) (random.nextInt(65) - 32);
+        }
+        short[] biases = new short[hidden];
+        short[] outputWeights = new short[hidden];
+        for (int i = 0; i < hidden; i++) {
+            biases[i] = (short) random.nextInt(128);
+            outputWeights[i] = (short) (random.nextInt(129) - 64);
+        }
+        return new NeuralNetwork(size, hidden, 255, 64, 1f / 64,
+                inputWeights, biases, outputWeights, 0);
+    }
+
+    /**
+     * Loads the network named by the system property FILE_PROPERTY.
+     *
+     * @return the network, null if none is set or it cannot be read.
+     */
+    private static NeuralNetwork loadStartup() {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file == null) {
+            return null;
+        }
+        try {
+            return load(Paths.get(file));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error! Ignoring network file " + file + ": "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the network the DecisionTree evaluates with, null for the
+     * handcrafted Evaluator.
+     */
+    public static NeuralNetwork getActive() {
+        return active;
+    }
+
+    /**
+     * Sets the network the DecisionTree evaluates with from now on.
+     *
+     * @param network the network, null for the handcrafted Evaluator.
+     */
+    public static void setActive(NeuralNetwork network) {
+        active = network;
+    }
+
+    /**
+     * Reads a network file.
+     *
+     * @param file the file.
+     * @return the read network.
+     * @throws IOException if the file cannot be read or is no network.
+     * @throws IllegalArgumentException if the layout is illegal.
+     */
+    public static NeuralNetwork load(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is no network!");
+            }
+            int size = in.readInt();
+            int hidden = in.readInt();
+            int clip = in.readInt();
+            int quantization = in.readInt();
+            float scale = in.readFloat();
+            if (size < PawnBoard.MIN_SIZE || size > PawnBoard.MAX_SIZE
+                    || hidden < 1 || hidden > 1 << 16) {
+                throw new IOException(file + " has an illegal layout!");
+            }
+            short[] inputWeights = readShorts(in, 2 * size * size * hidden);
+            short[] biases = readShorts(in, hidden);
+            short[] outputWeights = readShorts(in, hidden);
+            int outputBias = in.readInt();
+            return new NeuralNetwork(size, hidden, clip, quantization, scale,
+                    inputWeights, biases, outputWeights, outputBias);
+        }
+    }
+
+    /**
+     * Reads a block of weights.
+     *
+     * @param in the stream to read from.
+     * @param count the amount of weights.
+     * @return the weights.
+     * @throws IOException if the stream ends too early.
+     */
+    private static short[] readShorts(DataInputStream in, int count)
+            throws IOException {
+        short[] toReturn = new short[count];
+        for (int i = 0; i < count; i++) {
+            toReturn[i] = in.readShort();
+        }
+        return toReturn;
+    }
+
+    /**
+     * Writes the network to a file, readable by load.
+     *
+     * @param file the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(size);
+            out.writeInt(hidden);
+            out.writeInt(clip);
+            out.writeInt(quantization);
+            out.writeFloat(scale);
+            for (short weight : inputWeights) {
+                out.writeShort(weight);
+            }
+            for (short bias : biases) {
+                out.writeShort(bias);
+            }
+            for (short weight : outputWeights) {
+                out.writeShort(weight);
+            }
+            out.writeInt(outputBias);
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the number of columns and rows of the evaluated boards.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of neurons of the accumulator.
+     */
+    public int getHidden() {
+        return hidden;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the hash of the layout and all weights, which differs for a
+     * network trained again with the same layout.
+     */
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Gets the input neuron of a pawn.
+     *
+     * @param col the column of the pawn.
+     * @param row the row of the pawn.
+     * @param computer true for a pawn of the computer, false for the human.
+     * @return the number of the input.
+     */
+    int input(int col, int row, boolean computer) {
+        return (computer ? 0 : size * size) + row * size + col;
+    }
+
+    /**
+     * Sums up the inputs of all pawns of a situation.
+     *
+     * @param game the situation, of the size of this network.
+     * @return the filled accumulator.
+     * @throws IllegalArgumentException if the board size does not fit.
+     */
+    public Accumulator refresh(PawnBoard game) {
+        if (game.getSize() != size) {
+            throw new IllegalArgumentException("Network is made for boards "
+                    + "of size " + size + "!");
+        }
+        int[] values = new int[hidden];
+        for (int i = 0; i < hidden; i++) {
+            values[i] = biases[i];
+        }
+        char[][] board = game.getBoard();
+        char computer = game.getComputerColor() == Color.WHITE ? 'W' : 'B';
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                if (board[col][row] != ' ') {
+                    add(values, input(col, row,
+                            board[col][row] == computer), 1);
+                }
+            }
+        }
+        return new Accumulator(this, values);
+    }
+
+    /**
+     * Adds or removes the weights of an input to the neurons.
+     *
+     * @param values the neurons of the accumulator.
+     * @param input the number of the input.
+     * @param sign 1 to add the input, -1 to remove it.
+     */
+    void add(int[] values, int input, int sign) {
+        int offset = input * hidden;
+        for (int i = 0; i < hidden; i++) {
+            values[i] += sign * inputWeights[offset + i];
+        }
+    }
+
+    /**
+     * Calculates the output of the network for filled neurons.
+     *
+     * @param values the neurons of the accumulator.
+     * @return the evaluation for the computer.
+     */
+    double output(int[] values) {
+        long sum = outputBias;
+        for (int i = 0; i < hidden; i++) {
+            int clipped = Math.max(0, Math.min(clip, values[i]));
+            sum += clipped * outputWeights[i];
+        }
+        return sum * (double) scale / quantization;
+    }
+}
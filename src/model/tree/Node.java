@@ -14,21 +14,53 @@ import java.util.List;
 public class Node {
     private final PawnBoard board;
     private final List<Node> children;
+    private double staticEvaluation;
     private double evaluation;
     private final double depth;
     private boolean isLeaf;
+    private boolean expanded;
+    // Depth below the root of the search the static evaluation was
+    // calculated for, NaN if not evaluated yet.
+    private double evaluatedAt = Double.NaN;
+    // First layer of the active network, null if evaluated by hand.
+    private final Accumulator accumulator;
+    // Zobrist hash of the board.
+    private final long hash;
+
+    // Data of the evaluation table meaning no evaluation is stored.
+    private static final long ABSENT = Double.doubleToRawLongBits(Double.NaN);
+    // Odd constant spreading the depth of a leaf over the key of the table.
+    private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
 
     /**
-     * Constructor creating a new Node.
+     * Constructor creating a new Node. The board is evaluated by the search
+     * together with its siblings, see evaluateChildren.
      *
      * @param brd the board/variation of this node.
      * @param depth the depth in the tree of this node.
      * @param parent of this Node in the tree, null if it is the root parent.
      */
     public Node(PawnBoard brd, Node parent, double depth) {
+        this(brd, parent, depth, rootAccumulator(brd), Zobrist.hash(brd));
+    }
+
+    /**
+     * Constructor creating a new Node with the first layer of the network
+     * already derived from the parent.
+     *
+     * @param brd the board/variation of this node.
+     * @param parent of this Node in the tree, null if it is the root parent.
+     * @param depth the depth in the tree of this node.
+     * @param accumulator the first layer of the active network for the
+     *                    board, null if evaluated by hand.
+     * @param hash the Zobrist hash of the board.
+     */
+    private Node(PawnBoard brd, Node parent, double depth,
+                 Accumulator accumulator, long hash) {
         this.board = brd.clone();
         this.children = new ArrayList<>();
-        this.evaluation = evaluateBoard();
+        this.accumulator = accumulator;
+        this.hash = hash;
         this.depth = depth;
         isLeaf = parent != null;
     }
@@ -42,10 +74,27 @@ public class Node {
         return evaluation;
     }
 
+    /**
+     * Getter method.
+     *
+     * @return the depth in the tree of this node.
+     */
+    public double getDepth() {
+        return depth;
+    }
+
     /**
      * Method creating new Nodes and assigning them to this Node as children.
+     * Does nothing if the children have already been created, e.g. by the
+     * search of a previous turn.
+     *
+     * @return the amount of Nodes created.
      */
-    public void createChildren() {
+    public int createChildren() {
+        if (expanded) {
+            return 0;
+        }
+        expanded = true;
         HashMap<List<Integer>, List<int[]>> availableOptions =
                 board.viablePawnMoves(board.getCurrentPlayer());
         List<int[]> pawns
@@ -64,12 +113,22 @@ public class Node {
                     PawnBoard cloned = board.clone();
                     cloned = cloned.moving(currentPawn[0], currentPawn[1],
                             currentMove[0], currentMove[1]);
-                    newChild = new Node(cloned, this, depth + 1);
+                    Accumulator childAccumulator = null;
+                    if (accumulator != null) {
+                        childAccumulator = accumulator.moved(board,
+                                currentPawn[0], currentPawn[1],
+                                currentMove[0], currentMove[1]);
+                    }
+                    newChild = new Node(cloned, this, depth + 1,
+                            childAccumulator, Zobrist.moved(hash, board,
+                            cloned, currentPawn[0], currentPawn[1],
+                            currentMove[0], currentMove[1]));
                     children.add(newChild);
                 }
             }
         }
         isLeaf = children.size() == 0;
+        return children.size();
     }
 
     /**
@@ -101,24 +160,155 @@ public class Node {
     }
 
     /**
-     * Method evaluating the board by calling an Evaluator with the assigned
-     * board.
+     * Getter method.
+     *
+     * @return the evaluation of the board of this Node on its own, which is
+     * added to the evaluation of the best child.
+     */
+    public double getStaticEvaluation() {
+        return staticEvaluation;
+    }
+
+    /**
+     * Evaluates the children of this Node on their own, as the evaluation
+     * of a variation is the sum of the static evaluations along it. Only
+     * the win term depends on the depth, which is measured from the root of
+     * the search, so a leaf kept from a previous search is evaluated again
+     * if the root has moved since; a child with children of its own is no
+     * won situation and keeps its value. Evaluations by hand are looked up
+     * in and added to the evaluation table of the Evaluator, if there is
+     * one.
+     *
+     * @param rootDepth the depth in the tree of the root of the search.
+     * @param batch the evaluator for all children at once, null to evaluate
+     *              them one by one.
+     * @return the amount of children evaluated, without the ones found in
+     * the evaluation table.
+     */
+    public int evaluateChildren(double rootDepth, BatchEvaluator batch) {
+        List<Node> pending = new ArrayList<>(children.size());
+        double relative = depth + 1 - rootDepth;
+        TranspositionTable table = Evaluator.getTable();
+        int evaluated = 0;
+        for (Node child : children) {
+            if (child.evaluatedAt == relative || (!child.isLeaf
+                    && !Double.isNaN(child.evaluatedAt))) {
+                continue;
+            }
+            if (child.lookUp(relative, table)) {
+                child.evaluation = child.staticEvaluation;
+                continue;
+            }
+            evaluated++;
+            if (batch == null || child.accumulator != null) {
+                child.evaluatedAt = relative;
+                child.staticEvaluation = child.evaluateBoard(relative);
+                child.evaluation = child.staticEvaluation;
+                if (table != null && child.accumulator == null) {
+                    table.store(child.hash ^ depthKey(relative),
+                            Double.doubleToRawLongBits(
+                                    child.staticEvaluation));
+                }
+            } else {
+                pending.add(child);
+            }
+        }
+        if (!pending.isEmpty()) {
+            List<PawnBoard> boards = new ArrayList<>(pending.size());
+            for (Node child : pending) {
+                boards.add(child.board);
+            }
+            double[] evaluations = new double[pending.size()];
+            batch.evaluate(boards, relative, evaluations);
+            for (int i = 0; i < evaluations.length; i++) {
+                Node child = pending.get(i);
+                child.evaluatedAt = relative;
+                child.staticEvaluation = evaluations[i];
+                child.evaluation = evaluations[i];
+                if (table != null) {
+                    table.store(child.hash ^ depthKey(relative),
+                            Double.doubleToRawLongBits(evaluations[i]));
+                }
+            }
+        }
+        return evaluated;
+    }
+
+    /**
+     * Takes the static evaluation of this Node for the given depth below
+     * the root from the evaluation table, if it is stored there. Boards
+     * evaluated by the network are never stored.
+     *
+     * @param relative the depth of this Node below the root of the search.
+     * @param table the evaluation table of the Evaluator, null if none.
+     * @return true if the static evaluation was found.
+     */
+    private boolean lookUp(double relative, TranspositionTable table) {
+        if (table == null || accumulator != null) {
+            return false;
+        }
+        long stored = table.probe(hash ^ depthKey(relative), ABSENT);
+        if (stored == ABSENT) {
+            return false;
+        }
+        evaluatedAt = relative;
+        staticEvaluation = Double.longBitsToDouble(stored);
+        return true;
+    }
+
+    /**
+     * Spreads the depth of a Node below the root over the key of the
+     * evaluation table, as the win term depends on it.
+     *
+     * @param relative the depth of a Node below the root of the search.
+     * @return the part of the key for the depth.
+     */
+    private static long depthKey(double relative) {
+        return (long) relative * DEPTH_KEY;
+    }
+
+    /**
+     * Fills the first layer of the active network for the root of a tree.
      *
+     * @param brd the board of the root.
+     * @return the first layer, null if no network is active or it is made
+     * for another board size.
+     */
+    private static Accumulator rootAccumulator(PawnBoard brd) {
+        NeuralNetwork network = NeuralNetwork.getActive();
+        if (network == null || network.getSize() != brd.getSize()) {
+            return null;
+        }
+        return network.refresh(brd);
+    }
+
+    /**
+     * Method evaluating the board by the active network, or else by calling
+     * an Evaluator with the assigned board.
+     *
+     * @param relative the depth of this Node below the root of the search.
      * @return the calculated value for the given Model.Board.
      */
-    private double evaluateBoard() {
+    private double evaluateBoard(double relative) {
+        if (accumulator != null) {
+            return accumulator.evaluate()
+                    + Evaluator.checkWin(board, relative);
+        }
         Evaluator evaluator =
-                new Evaluator(board, depth);
+                new Evaluator(board, relative);
         return evaluator.evaluateBoard();
     }
 
     /**
-     * Method increasing the evaluation by adding to its amount the
-     * evaluation of the given child-Model.Tree.Node in a bottom-up way.
+     * Method setting the evaluation to the static evaluation of this Node plus
+     * the evaluation of the given child-Model.Tree.Node in a bottom-up way.
+     * Starting from the static evaluation allows backing up the values again
+     * after the tree has been grown by a later search. The root of a search
+     * has not been evaluated, as its value is never used.
      *
      * @param child the Model.Tree.Node whose value has to be added.
      */
     public void setParentEval(Node child) {
-        this.evaluation = evaluation + child.getEvaluation();
+        this.evaluation = staticEvaluation + child.getEvaluation();
     }
-}
\ No newline at end of file
+}
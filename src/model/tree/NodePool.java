@@ -0,0 +1,275 @@
+package model.tree;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Arena holding the nodes of a MonteCarloTree in parallel primitive arrays
+ * instead of one object per node. A node is just an index into the arrays,
+ * the children of a node lie next to each other, so a node only knows its
+ * first child and their amount. The arrays are allocated once with a fixed
+ * capacity and reused by the next search after reset, so a tree never takes
+ * more memory than its pool and hardly creates garbage.
+ *
+ * Nodes are allocated by several threads at once. The statistics of a node
+ * are only changed while holding its lock, but may be read without, as they
+ * only guide the search. The children of a node are published by setting its
+ * first child, after all of them are filled.
+ */
+public final class NodePool {
+
+    /**
+     * First child of a node whose children have not been created yet.
+     */
+    public static final int UNEXPANDED = -1;
+
+    /**
+     * Index returned by allocate if the pool is full.
+     */
+    public static final int FULL = -1;
+
+    // Amount of locks guarding the nodes, a power of two.
+    private static final int LOCKS = 256;
+
+    private final int capacity;
+    private final int[] parent;
+    private final AtomicIntegerArray firstChild;
+    private final int[] childCount;
+    private final int[] move;
+    // Player who performed the move leading to the node.
+    private final boolean[] computerMoved;
+    private final int[] visits;
+    // Rewards summed up as floats, exact for halves up to 2^23 visits.
+    private final float[] score;
+    private final int[] virtualLoss;
+    private final Object[] locks;
+    private final AtomicInteger next;
+
+    /**
+     * Constructor allocating the arrays of an empty pool.
+     *
+     * @param capacity the maximum amount of nodes.
+     */
+    public NodePool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("A pool needs room for at "
+                    + "least one node!");
+        }
+        this.capacity = capacity;
+        this.parent = new int[capacity];
+        this.firstChild = new AtomicIntegerArray(capacity);
+        this.childCount = new int[capacity];
+        this.move = new int[capacity];
+        this.computerMoved = new boolean[capacity];
+        this.visits = new int[capacity];
+        this.score = new float[capacity];
+        this.virtualLoss = new int[capacity];
+        this.locks = new Object[LOCKS];
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new Object();
+        }
+        this.next = new AtomicInteger();
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the maximum amount of nodes.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of nodes allocated since the last reset.
+     */
+    public int size() {
+        return Math.min(next.get(), capacity);
+    }
+
+    /**
+     * Gets the memory taken by the arrays of a pool, without the locks.
+     *
+     * @param capacity the maximum amount of nodes.
+     * @return the approximate amount of bytes.
+     */
+    public static long bytesFor(int capacity) {
+        // Four bytes per int and float, one per boolean.
+        return (long) capacity * (7 * Integer.BYTES + 1);
+    }
+
+    /**
+     * Frees all nodes at once, so the pool can be used by the next search.
+     * Must not be called while a search still works on the pool.
+     */
+    public void reset() {
+        next.set(0);
+    }
+
+    /**
+     * Allocates new, unvisited nodes next to each other.
+     *
+     * @param count the amount of nodes.
+     * @return the index of the first node, FULL if not enough room is left.
+     */
+    int allocate(int count) {
+        // Checked first, so failed attempts can not overflow the counter.
+        if (next.get() > capacity - count) {
+            return FULL;
+        }
+        int first = next.getAndAdd(count);
+        if (first > capacity - count) {
+            return FULL;
+        }
+        for (int node = first; node < first + count; node++) {
+            firstChild.set(node, UNEXPANDED);
+            childCount[node] = 0;
+            visits[node] = 0;
+            score[node] = 0;
+            virtualLoss[node] = 0;
+        }
+        return first;
+    }
+
+    /**
+     * Fills an allocated node before it is published.
+     *
+     * @param node the index of the node.
+     * @param parentNode the node before the move, -1 for the root.
+     * @param nodeMove the encoded move leading to the node.
+     * @param computer true if the computer performed the move.
+     */
+    void init(int node, int parentNode, int nodeMove, boolean computer) {
+        parent[node] = parentNode;
+        move[node] = nodeMove;
+        computerMoved[node] = computer;
+    }
+
+    /**
+     * Publishes the children of a node, filled beforehand.
+     *
+     * @param node the index of the node.
+     * @param first the index of the first child.
+     * @param count the amount of children.
+     */
+    void setChildren(int node, int first, int count) {
+        childCount[node] = count;
+        firstChild.set(node, first);
+    }
+
+    /**
+     * Gets the lock guarding the statistics and children of a node.
+     *
+     * @param node the index of the node.
+     * @return the lock, shared with other nodes.
+     */
+    Object lock(int node) {
+        return locks[node & (LOCKS - 1)];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return the node before the move, -1 for the root.
+     */
+    int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return the index of the first child, UNEXPANDED if not created yet.
+     */
+    int getFirstChild(int node) {
+        return firstChild.get(node);
+    }
+
+    /**
+     * Getter method, only valid after the children have been published.
+     *
+     * @param node the index of the node.
+     * @return the amount of children.
+     */
+    int getChildCount(int node) {
+        return childCount[node];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return the encoded move leading to the node.
+     */
+    int getMove(int node) {
+        return move[node];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return true if the computer performed the move leading to the node.
+     */
+    boolean isComputerMoved(int node) {
+        return computerMoved[node];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return the amount of finished playouts through the node.
+     */
+    int getVisits(int node) {
+        return visits[node];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return the summed rewards of the player who moved to the node.
+     */
+    float getScore(int node) {
+        return score[node];
+    }
+
+    /**
+     * Getter method.
+     *
+     * @param node the index of the node.
+     * @return the amount of playouts through the node still running.
+     */
+    int getVirtualLoss(int node) {
+        return virtualLoss[node];
+    }
+
+    /**
+     * Adds a running playout, to be called while holding the lock.
+     *
+     * @param node the index of the node.
+     */
+    void addVirtualLoss(int node) {
+        virtualLoss[node]++;
+    }
+
+    /**
+     * Adds the result of a playout, to be called while holding the lock.
+     *
+     * @param node the index of the node.
+     * @param reward the reward of the player who moved to the node.
+     * @param running true if the playout was counted as running before.
+     */
+    void addResult(int node, float reward, boolean running) {
+        visits[node]++;
+        score[node] += reward;
+        if (running) {
+            virtualLoss[node]--;
+        }
+    }
+}
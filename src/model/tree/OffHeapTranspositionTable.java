@@ -0,0 +1,88 @@
+package model.tree;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * TranspositionTable keeping its entries outside of the Java heap in direct
+ * buffers, so tables of several gigabytes neither enlarge the heap nor have
+ * to be scanned or moved by the garbage collector. A single buffer holds at
+ * most 2 GB, so the entries are split into segments of 1 GB each. The
+ * memory is given back once the table is no longer referenced and its
+ * buffers got collected.
+ */
+public class OffHeapTranspositionTable implements TranspositionTable {
+
+    // Entries per segment, 2^26 entries of 16 bytes each.
+    private static final int SEGMENT_BITS = 26;
+
+    private final ByteBuffer[] segments;
+    private final long mask;
+    private final int segmentMask;
+
+    /**
+     * Constructor allocating an empty table.
+     *
+     * @param entries the amount of entries, a power of two.
+     * @throws IllegalArgumentException if the amount is not a power of two.
+     */
+    public OffHeapTranspositionTable(long entries) {
+        if (entries < 1 || Long.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("Table needs a power of two "
+                    + "of entries!");
+        }
+        long perSegment = Math.min(entries, 1L << SEGMENT_BITS);
+        this.segments = new ByteBuffer[(int) (entries / perSegment)];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = ByteBuffer.allocateDirect((int) perSegment
+                    * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+        }
+        this.mask = entries - 1;
+        this.segmentMask = (int) perSegment - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long probe(long key, long absent) {
+        long index = key & mask;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_BITS)];
+        int offset = ((int) index & segmentMask) * ENTRY_BYTES;
+        long data = segment.getLong(offset + Long.BYTES);
+        return (segment.getLong(offset) ^ data) == key ? data : absent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void store(long key, long data) {
+        long index = key & mask;
+        ByteBuffer segment = segments[(int) (index >>> SEGMENT_BITS)];
+        int offset = ((int) index & segmentMask) * ENTRY_BYTES;
+        segment.putLong(offset, key ^ data);
+        segment.putLong(offset + Long.BYTES, data);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        for (ByteBuffer segment : segments) {
+            for (int offset = 0; offset < segment.capacity();
+                    offset += Long.BYTES) {
+                segment.putLong(offset, 0);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getEntries() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,19 @@
+package model.tree;
+
+/**
+ * Interface for watching a running search, e.g. to stop it after a time
+ * span, an amount of nodes or on request of the user. The search calls the
+ * monitor at checkpoints while it grows, and ends early if asked to. A
+ * monitor may also hold the search at a checkpoint for a while, e.g. to let
+ * other searches run first.
+ */
+public interface SearchMonitor {
+
+    /**
+     * Called by the search at a checkpoint, e.g. after expanding a node.
+     *
+     * @param nodes the amount of nodes created by the search so far.
+     * @return true to end the search now, false to go on.
+     */
+    boolean checkpoint(long nodes);
+}
@@ -0,0 +1,366 @@
+package model.tree;
+
+import model.board.PawnBoard;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scheduler sharing a fixed amount of slots, usually one per core, between
+ * the machine moves of many games. Each slot is a thread of its own taking
+ * the searches from a queue, so no more searches than slots run at once,
+ * and only their trees are alive. Searches with the least think time left
+ * come first, so interactive games answer quickly, searches without a time
+ * limit are served in the order they came.
+ *
+ * A search runs for slices of at most a given amount of nodes or time. At
+ * the end of a slice, checked at the checkpoints of its SearchMonitor, the
+ * search is aborted if a waiting search has less think time left, and
+ * queued again to start over later (preemption). Its tree is dropped, so a
+ * waiting search holds nothing but its situation. For the same reason the
+ * searches do not continue the tree of the previous turn, and no tree is
+ * kept once a search is done. Searches of the MonteCarloTree have no
+ * checkpoints and hold their slot until they are done.
+ *
+ * Each search may create at most a given amount of nodes, as its whole tree
+ * is kept in memory. A search going beyond fails with an
+ * IllegalArgumentException, so the slots together never hold more than
+ * their budgets, whatever the level and size of the games.
+ *
+ * The scheduler counts the searches, the preemptions and the time searches
+ * spent waiting for a slot, see getMetrics.
+ */
+public final class SearchScheduler implements AutoCloseable {
+
+    /**
+     * Think time of a search without a time limit.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private final long maxNodes;
+    private final long sliceNodes;
+    private final long sliceNanos;
+    // Start of the scheduler, deadlines are counted from here.
+    private final long origin;
+    private final ExecutorService threads;
+    private final ReentrantLock lock;
+    private final Condition queued;
+    private final PriorityQueue<Task> waiting;
+    private long sequence;
+
+    // Metrics, guarded by the lock.
+    private long submitted;
+    private long completed;
+    private long preemptions;
+    private long grants;
+    private long waitNanos;
+    private long maxWaitNanos;
+
+    /**
+     * Constructor for a scheduler with the given slots.
+     *
+     * @param slots the amount of searches running at once.
+     * @param maxNodes the nodes a single search may create.
+     * @param sliceNodes the nodes a search may create per slice.
+     * @param sliceMillis the time a search may run per slice.
+     */
+    public SearchScheduler(int slots, long maxNodes, long sliceNodes,
+                           long sliceMillis) {
+        if (slots < 1 || maxNodes < 1 || sliceNodes < 1 || sliceMillis < 1) {
+            throw new IllegalArgumentException("At least one slot, node per "
+                    + "search and node and millisecond per slice are "
+                    + "needed!");
+        }
+        this.maxNodes = maxNodes;
+        this.sliceNodes = sliceNodes;
+        this.sliceNanos = sliceMillis * 1_000_000;
+        this.origin = System.nanoTime();
+        this.threads = Executors.newFixedThreadPool(slots, search -> {
+            Thread thread = new Thread(search, "scheduled search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.lock = new ReentrantLock();
+        this.queued = lock.newCondition();
+        this.waiting = new PriorityQueue<>(Comparator
+                .comparingLong((Task task) -> task.deadline)
+                .thenComparingLong(task -> task.sequence));
+        for (int i = 0; i < slots; i++) {
+            threads.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues the machine move of a game.
+     *
+     * @param board the situation with the computer to move, not changed.
+     * @param thinkMillis the time the game has left for the move,
+     *                    UNLIMITED if none.
+     * @return the result, a new board with the move of the computer
+     * performed. Cancelling it ends the search. Fails with an
+     * IllegalArgumentException if the search exceeds its nodes.
+     */
+    public Future<PawnBoard> submit(PawnBoard board, long thinkMillis) {
+        lock.lock();
+        try {
+            // Limits beyond a century count as no limit.
+            long deadline = thinkMillis >= UNLIMITED / 4_000_000 ? UNLIMITED
+                    : System.nanoTime() - origin + thinkMillis * 1_000_000;
+            Task task = new Task(board, deadline, sequence++);
+            submitted++;
+            enqueue(task);
+            return task.result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of searches waiting for a slot.
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the mean time in milliseconds searches waited for a slot,
+     * counting every wait after a preemption separately.
+     */
+    public double getMeanWaitMillis() {
+        lock.lock();
+        try {
+            return grants == 0 ? 0 : waitNanos / 1e6 / grants;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Getter method.
+     *
+     * @return the longest time in milliseconds a search waited for a slot.
+     */
+    public double getMaxWaitMillis() {
+        lock.lock();
+        try {
+            return maxWaitNanos / 1e6;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Summarizes the metrics of the scheduler.
+     *
+     * @return a single line with the queue depth, the amount of submitted
+     * and completed searches and of preemptions, the mean and maximum wait.
+     */
+    public String getMetrics() {
+        lock.lock();
+        try {
+            return String.format(Locale.ROOT, "queue %d submitted %d "
+                    + "completed %d preemptions %d wait ms mean %.2f max "
+                    + "%.2f", waiting.size(), submitted, completed,
+                    preemptions, grants == 0 ? 0 : waitNanos / 1e6 / grants,
+                    maxWaitNanos / 1e6);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ends all searches, waiting or running.
+     */
+    @Override
+    public void close() {
+        threads.shutdownNow();
+        lock.lock();
+        try {
+            for (Task task : waiting) {
+                task.result.cancel(false);
+            }
+            waiting.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queues a task while holding the lock and wakes a free slot.
+     *
+     * @param task the task.
+     */
+    private void enqueue(Task task) {
+        task.queuedAt = System.nanoTime();
+        waiting.add(task);
+        queued.signal();
+    }
+
+    /**
+     * Runs the tasks of a single slot until the scheduler is closed.
+     */
+    private void work() {
+        while (true) {
+            Task task;
+            lock.lock();
+            try {
+                while (waiting.isEmpty()) {
+                    queued.await();
+                }
+                task = waiting.poll();
+                long waited = System.nanoTime() - task.queuedAt;
+                grants++;
+                waitNanos += waited;
+                maxWaitNanos = Math.max(maxWaitNanos, waited);
+            } catch (InterruptedException e) {
+                // Scheduler closed.
+                return;
+            } finally {
+                lock.unlock();
+            }
+            task.run();
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Search of a single machine move, watching its own slices.
+     */
+    private final class Task implements SearchMonitor {
+        private final PawnBoard board;
+        private final long deadline;
+        private final long sequence;
+        private final CompletableFuture<PawnBoard> result;
+        private long queuedAt;
+        private boolean preempted;
+        private boolean exceeded;
+        private long sliceStart;
+        private long sliceFirstNode;
+
+        /**
+         * Constructor for a task.
+         *
+         * @param board the situation with the computer to move, not
+         *              changed.
+         * @param deadline the time the move should be done, UNLIMITED if
+         *                 none.
+         * @param sequence the number of the task, for equal deadlines.
+         */
+        private Task(PawnBoard board, long deadline, long sequence) {
+            this.board = board;
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Runs the search from the start, completing the result unless the
+         * search is preempted, then the task is queued again.
+         */
+        private void run() {
+            if (result.isDone()) {
+                // Cancelled while waiting.
+                return;
+            }
+            preempted = false;
+            exceeded = false;
+            sliceStart = System.nanoTime();
+            sliceFirstNode = 0;
+            PawnBoard move;
+            try {
+                // The clone drops the tree of the previous turn and keeps
+                // the board unchanged for a search started over.
+                move = board.clone().machineMove(this).clone();
+            } catch (RuntimeException | OutOfMemoryError e) {
+                finish();
+                result.completeExceptionally(e);
+                return;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                result.cancel(false);
+            } else if (exceeded) {
+                finish();
+                result.completeExceptionally(new IllegalArgumentException(
+                        "Search exceeded " + maxNodes + " nodes, choose a "
+                        + "lower level or a smaller board!"));
+                return;
+            } else if (preempted && !result.isDone()) {
+                lock.lock();
+                try {
+                    enqueue(this);
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            finish();
+            result.complete(move);
+        }
+
+        /**
+         * Counts the task as completed.
+         */
+        private void finish() {
+            lock.lock();
+            try {
+                completed++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Ends the search if cancelled, beyond its nodes, or at the end
+         * of a slice if a waiting search has less think time left.
+         *
+         * @param nodes the amount of nodes created by the search so far.
+         * @return true if the search is to be ended.
+         */
+        @Override
+        public boolean checkpoint(long nodes) {
+            if (result.isDone() || Thread.currentThread().isInterrupted()) {
+                return true;
+            }
+            if (nodes > maxNodes) {
+                exceeded = true;
+                return true;
+            }
+            if (nodes - sliceFirstNode < sliceNodes
+                    && System.nanoTime() - sliceStart < sliceNanos) {
+                return false;
+            }
+            sliceFirstNode = nodes;
+            sliceStart = System.nanoTime();
+            lock.lock();
+            try {
+                Task first = waiting.peek();
+                if (first == null || first.deadline >= deadline) {
+                    return false;
+                }
+                preempted = true;
+                preemptions++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
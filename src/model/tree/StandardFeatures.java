@@ -0,0 +1,289 @@
+package model.tree;
+
+import model.board.PawnBoard;
+import model.player.Color;
+
+/**
+ * Class providing the terms the evaluation of the game was designed with,
+ * each one measured separately for the computer and the human:
+ * -amount of pawns.
+ * -amount of endangered pawns.
+ * -amount of isolated pawns.
+ * -distance the pawns have traversed.
+ */
+public final class StandardFeatures {
+
+    /**
+     * Creates the designed terms together with their designed weights: the
+     * terms of the human count 1.5 times as much as the ones of the
+     * computer.
+     *
+     * @return the set of the designed terms.
+     */
+    public static FeatureSet create() {
+        return new FeatureSet()
+                .with(new Pawns(true), 1)
+                .with(new Pawns(false), -1.5)
+                .with(new Endangered(true), -1.5)
+                .with(new Endangered(false), 1)
+                .with(new Isolated(true), -1.5)
+                .with(new Isolated(false), 1)
+                .with(new Distance(true), 1)
+                .with(new Distance(false), -1.5)
+                .asStandard();
+    }
+
+    /**
+     * Gets the symbol of the pawns of a player on the board.
+     *
+     * @param game the situation.
+     * @param computer true for the computer, false for the human.
+     * @return 'W' or 'B'.
+     */
+    private static char symbol(PawnBoard game, boolean computer) {
+        Color color = computer ? game.getComputerColor()
+                : game.getHumanColor();
+        return color == Color.WHITE ? 'W' : 'B';
+    }
+
+    /**
+     * Gets the suffix naming the player of a term.
+     *
+     * @param computer true for the computer, false for the human.
+     * @return the suffix.
+     */
+    private static String suffix(boolean computer) {
+        return computer ? ".computer" : ".human";
+    }
+
+    /**
+     * Term counting the pawns of a player.
+     */
+    private static final class Pawns implements Feature {
+        private final boolean computer;
+
+        /**
+         * Constructor for the term of a player.
+         *
+         * @param computer true for the computer, false for the human.
+         */
+        private Pawns(boolean computer) {
+            this.computer = computer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getName() {
+            return "pawns" + suffix(computer);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double extract(PawnBoard game) {
+            char own = symbol(game, computer);
+            int toReturn = 0;
+            for (char[] column : game.getBoard()) {
+                for (char tile : column) {
+                    if (tile == own) {
+                        toReturn++;
+                    }
+                }
+            }
+            return toReturn;
+        }
+    }
+
+    /**
+     * Term summing up the rows the pawns of a player have traversed.
+     */
+    private static final class Distance implements Feature {
+        private final boolean computer;
+
+        /**
+         * Constructor for the term of a player.
+         *
+         * @param computer true for the computer, false for the human.
+         */
+        private Distance(boolean computer) {
+            this.computer = computer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getName() {
+            return "distance" + suffix(computer);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double extract(PawnBoard game) {
+            char[][] board = game.getBoard();
+            char own = symbol(game, computer);
+            int size = game.getSize();
+            int toReturn = 0;
+            for (int col = 0; col < size; col++) {
+                for (int row = 0; row < size; row++) {
+                    if (board[col][row] == own) {
+                        toReturn += computer ? row : size - 1 - row;
+                    }
+                }
+            }
+            return toReturn;
+        }
+    }
+
+    /**
+     * Term counting the pawns of a player which may be beaten by the
+     * opponent with their move, while no own pawn covers them. Pawns on the
+     * goal row are never endangered.
+     */
+    private static final class Endangered implements Feature {
+        private final boolean computer;
+
+        /**
+         * Constructor for the term of a player.
+         *
+         * @param computer true for the computer, false for the human.
+         */
+        private Endangered(boolean computer) {
+            this.computer = computer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getName() {
+            return "endangered" + suffix(computer);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double extract(PawnBoard game) {
+            char[][] board = game.getBoard();
+            char own = symbol(game, computer);
+            char other = symbol(game, !computer);
+            int size = game.getSize();
+            int forward = computer ? 1 : -1;
+            int toReturn = 0;
+            for (int col = 0; col < size; col++) {
+                for (int row = 0; row < size; row++) {
+                    int ahead = row + forward;
+                    int behind = row - forward;
+                    if (board[col][row] != own || ahead < 0 || ahead >= size) {
+                        continue;
+                    }
+                    boolean danger = false;
+                    boolean cover = false;
+                    for (int side = col - 1; side <= col + 1; side += 2) {
+                        if (side >= 0 && side < size) {
+                            danger |= board[side][ahead] == other;
+                            cover |= behind >= 0 && behind < size
+                                    && board[side][behind] == own;
+                        }
+                    }
+                    if (danger && !cover) {
+                        toReturn++;
+                    }
+                }
+            }
+            return toReturn;
+        }
+    }
+
+    /**
+     * Term counting the pawns of a player without an own pawn on any of
+     * their neighbouring tiles. As designed, a pawn in one of the corners
+     * apart from column 0, row 0 only counts as isolated if all its
+     * neighbouring tiles are empty.
+     */
+    private static final class Isolated implements Feature {
+        private final boolean computer;
+
+        /**
+         * Constructor for the term of a player.
+         *
+         * @param computer true for the computer, false for the human.
+         */
+        private Isolated(boolean computer) {
+            this.computer = computer;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getName() {
+            return "isolated" + suffix(computer);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double extract(PawnBoard game) {
+            char[][] board = game.getBoard();
+            char own = symbol(game, computer);
+            int size = game.getSize();
+            int toReturn = 0;
+            for (int col = 0; col < size; col++) {
+                for (int row = 0; row < size; row++) {
+                    if (board[col][row] == own
+                            && isIsolated(board, col, row, size)) {
+                        toReturn++;
+                    }
+                }
+            }
+            return toReturn;
+        }
+
+        /**
+         * Checks the neighbouring tiles of a pawn.
+         *
+         * @param board the tiles of the situation.
+         * @param col the column of the pawn.
+         * @param row the row of the pawn.
+         * @param size the number of columns and rows.
+         * @return true if the pawn is isolated, false otherwise.
+         */
+        private static boolean isIsolated(char[][] board, int col, int row,
+                                          int size) {
+            char own = board[col][row];
+            boolean corner = (col == 0 || col == size - 1)
+                    && (row == 0 || row == size - 1);
+            boolean emptyNeeded = corner && (col != 0 || row != 0);
+            for (int c = Math.max(0, col - 1);
+                    c <= Math.min(size - 1, col + 1); c++) {
+                for (int r = Math.max(0, row - 1);
+                        r <= Math.min(size - 1, row + 1); r++) {
+                    if (c == col && r == row) {
+                        continue;
+                    }
+                    if (emptyNeeded ? board[c][r] != ' '
+                            : board[c][r] == own) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private StandardFeatures() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
@@ -0,0 +1,83 @@
+package model.tree;
+
+/**
+ * Interface for a table remembering results of a search by the Zobrist hash
+ * of the situation. Each entry holds a 64 bit key and 64 bits of data whose
+ * meaning is up to the search, e.g. an evaluation or a packed score, depth
+ * and move. The table has a fixed amount of entries, a newer entry replaces
+ * the older one at the same place.
+ *
+ * Entries are written without locks by several threads at once (lockless
+ * hashing): the key is stored exclusive or'ed with the data, so an entry
+ * torn by two threads writing at the same time no longer matches its key
+ * and is treated as missing.
+ */
+public interface TranspositionTable {
+
+    /**
+     * Size of an entry in bytes, key and data.
+     */
+    int ENTRY_BYTES = 2 * Long.BYTES;
+
+    /**
+     * Looks up the data stored for a situation.
+     *
+     * @param key the Zobrist hash of the situation.
+     * @param absent the value to return if nothing is stored.
+     * @return the stored data, absent if not found.
+     */
+    long probe(long key, long absent);
+
+    /**
+     * Stores data for a situation, replacing the entry at its place.
+     *
+     * @param key the Zobrist hash of the situation.
+     * @param data the data.
+     */
+    void store(long key, long data);
+
+    /**
+     * Removes all entries.
+     */
+    void clear();
+
+    /**
+     * Getter method.
+     *
+     * @return the amount of entries, a power of two.
+     */
+    long getEntries();
+
+    /**
+     * Gets the memory taken by the entries.
+     *
+     * @return the amount of bytes.
+     */
+    default long getBytes() {
+        return getEntries() * ENTRY_BYTES;
+    }
+
+    /**
+     * Creates a table of at most the given size, with the largest power of
+     * two of entries fitting in.
+     *
+     * @param bytes the maximum memory of the entries.
+     * @param offHeap true to keep the entries outside of the Java heap,
+     *                false to keep them in an array.
+     * @return the new, empty table.
+     * @throws IllegalArgumentException if not even one entry fits in.
+     */
+    static TranspositionTable allocate(long bytes, boolean offHeap) {
+        long entries = bytes / ENTRY_BYTES;
+        if (entries < 1) {
+            throw new IllegalArgumentException("Table is too small for a "
+                    + "single entry!");
+        }
+        entries = Long.highestOneBit(entries);
+        if (offHeap) {
+            return new OffHeapTranspositionTable(entries);
+        } else {
+            return new HeapTranspositionTable(entries);
+        }
+    }
+}
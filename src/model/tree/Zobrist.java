@@ -0,0 +1,149 @@
+package model.tree;
+
+import model.board.PawnBoard;
+import model.player.Color;
+
+import java.util.SplittableRandom;
+
+/**
+ * Class hashing situations into 64 bits for a TranspositionTable. Each pawn
+ * of each player on each tile has a fixed random key, the hash of a
+ * situation is the exclusive or of the keys of all its pawns, of its board
+ * size and of the player to move. A move therefore changes the hash by a few
+ * exclusive ors instead of hashing the whole board again. The keys are the
+ * same in every run, so hashes may be stored.
+ */
+public final class Zobrist {
+
+    // Seed of the keys, never to be changed as hashes may be stored.
+    private static final long SEED = 0x5A6F627269737400L;
+
+    // Keys of the pawns, indexed by player and col * MAX_SIZE + row.
+    private static final long[][] PAWNS =
+            new long[2][PawnBoard.MAX_SIZE * PawnBoard.MAX_SIZE];
+
+    private static final long[] SIZES = new long[PawnBoard.MAX_SIZE + 1];
+
+    private static final long COMPUTER_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : PAWNS) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < SIZES.length; i++) {
+            SIZES[i] = random.nextLong();
+        }
+        COMPUTER_TO_MOVE = random.nextLong();
+    }
+
+    /**
+     * Hashes a whole situation.
+     *
+     * @param game the situation.
+     * @return the hash.
+     */
+    public static long hash(PawnBoard game) {
+        int size = game.getSize();
+        char[][] board = game.getBoard();
+        char computer = symbol(game);
+        long toReturn = SIZES[size] ^ toMove(game);
+        for (int col = 0; col < size; col++) {
+            for (int row = 0; row < size; row++) {
+                char tile = board[col][row];
+                if (tile != ' ') {
+                    toReturn ^= pawn(col, row, tile == computer);
+                }
+            }
+        }
+        return toReturn;
+    }
+
+    /**
+     * Derives the hash of the situation after a move from the hash before.
+     *
+     * @param hash the hash of the situation before the move.
+     * @param before the situation before the move.
+     * @param after the situation after the move.
+     * @param colFrom the column of the moved pawn.
+     * @param rowFrom the row of the moved pawn.
+     * @param colTo the column of the target tile.
+     * @param rowTo the row of the target tile.
+     * @return the hash of the situation after the move.
+     */
+    public static long moved(long hash, PawnBoard before, PawnBoard after,
+                             int colFrom, int rowFrom, int colTo, int rowTo) {
+        char[][] board = before.getBoard();
+        boolean computer = board[colFrom][rowFrom] == symbol(before);
+        long toReturn = hash ^ pawn(colFrom, rowFrom, computer)
+                ^ pawn(colTo, rowTo, computer)
+                ^ toMove(before) ^ toMove(after);
+        if (board[colTo][rowTo] != ' ') {
+            toReturn ^= pawn(colTo, rowTo, !computer);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Gets the key of a pawn.
+     *
+     * @param col the column of the pawn.
+     * @param row the row of the pawn.
+     * @param computer true for a pawn of the computer, false for the human.
+     * @return the key.
+     */
+    public static long pawn(int col, int row, boolean computer) {
+        return PAWNS[computer ? 1 : 0][col * PawnBoard.MAX_SIZE + row];
+    }
+
+    /**
+     * Gets the key of a board size.
+     *
+     * @param size the number of columns and rows.
+     * @return the key.
+     */
+    public static long size(int size) {
+        return SIZES[size];
+    }
+
+    /**
+     * Gets the key of the player to move.
+     *
+     * @param computer true if the computer moves next.
+     * @return the key, 0 for the human.
+     */
+    public static long toMove(boolean computer) {
+        return computer ? COMPUTER_TO_MOVE : 0;
+    }
+
+    /**
+     * Gets the key of the player to move in a situation.
+     *
+     * @param game the situation.
+     * @return the key, 0 for the human.
+     */
+    private static long toMove(PawnBoard game) {
+        return toMove(game.getCurrentPlayer().getColor()
+                == game.getComputerColor());
+    }
+
+    /**
+     * Gets the symbol of the pawns of the computer on the board.
+     *
+     * @param game the situation.
+     * @return 'W' or 'B'.
+     */
+    private static char symbol(PawnBoard game) {
+        return game.getComputerColor() == Color.WHITE ? 'W' : 'B';
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private Zobrist() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
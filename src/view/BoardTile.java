@@ -10,6 +10,8 @@ import java.awt.RenderingHints;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
 import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Class representing a tile on the board to be played on. Changes its Icon
@@ -17,6 +19,22 @@ import java.awt.image.BufferedImage;
  * wanted.
  */
 public class BoardTile extends JButton {
+
+    // Icons kept at most; as the tiles of a grid differ in size by a pixel,
+    // this covers both colors in all sizes shown at once.
+    private static final int MAX_PAWN_ICONS = 16;
+
+    // Pawn icons by size and color, the least recently used size dropped
+    // first, so the sizes passed while resizing the window do not pile up.
+    private static final Map<Long, Icon> PAWN_ICONS =
+            new LinkedHashMap<>(2 * MAX_PAWN_ICONS, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Long, Icon> eldest) {
+                    return size() > MAX_PAWN_ICONS;
+                }
+            };
+
     private boolean occupied;
     private Color pawnColor;
     private ComponentListener listener;
@@ -76,12 +94,19 @@ public class BoardTile extends JButton {
 
     /**
      * Method executed when a new pawn gets moved onto the tile, or the pawn
-     * standing on it gets removed.
+     * standing on it gets removed. If the tile already shows that pawn, it
+     * is not painted again, so only changed tiles get repainted.
      *
      * @param pawn W if the new pawn is white, B if black, or ' ' otherwise.
      */
     public void moveNewPawnOnto(char pawn) {
-        if (pawn == 'B') {
+        if (shows(pawn)) {
+
+            // Enabled as if the pawn had just been moved onto the tile.
+            if (pawn != 'W') {
+                this.setEnabled(true);
+            }
+        } else if (pawn == 'B') {
             occupied = true;
             pawnColor = Color.BLACK;
             this.setEnabled(true);
@@ -105,27 +130,63 @@ public class BoardTile extends JButton {
     }
 
     /**
-     * Paints a pawn-like figure and sets it as the tiles icon.
+     * Checks if the tile already shows a pawn, painted in its current size.
+     *
+     * @param pawn W for a white pawn, B for a black one, or ' ' otherwise.
+     * @return true if nothing has to be painted for the pawn.
+     */
+    private boolean shows(char pawn) {
+        if (pawn == 'B' || pawn == 'W') {
+            Icon icon = getIcon();
+            return occupied && icon != null
+                    && pawnColor == (pawn == 'B' ? Color.BLACK : Color.WHITE)
+                    && icon.getIconWidth() == getWidth()
+                    && icon.getIconHeight() == getHeight();
+        }
+        return !occupied && getIcon() == null;
+    }
+
+    /**
+     * Sets a pawn-like figure as the tiles icon, painted once per color and
+     * size and shared by all tiles of that size.
      */
     public void paintPawn() {
         int w = getWidth();
         int h = getHeight();
+        boolean black = pawnColor == Color.BLACK;
+        Long key = (long) w << 32 | (long) h << 1 | (black ? 1 : 0);
+        Icon icon;
+        synchronized (PAWN_ICONS) {
+            icon = PAWN_ICONS.get(key);
+            if (icon == null) {
+                icon = createPawnIcon(w, h, black ? Color.BLACK
+                        : Color.WHITE);
+                PAWN_ICONS.put(key, icon);
+            }
+        }
+        this.setIcon(icon);
+        this.setDisabledIcon(icon);
+    }
+
+    /**
+     * Paints a pawn-like figure.
+     *
+     * @param w the width of the tile.
+     * @param h the height of the tile.
+     * @param color the color of the pawn.
+     * @return the figure as icon.
+     */
+    private static Icon createPawnIcon(int w, int h, Color color) {
         BufferedImage resizedImg =
                 new BufferedImage(w, h, BufferedImage.TRANSLUCENT);
         Graphics2D g2 = resizedImg.createGraphics();
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
                 RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-        if (pawnColor == Color.BLACK) {
-            g2.setColor(Color.BLACK);
-        } else if (pawnColor == Color.WHITE) {
-            g2.setColor(Color.WHITE);
-        }
+        g2.setColor(color);
         g2.fillOval(w / 4, 0, w / 2, h / 2);
         g2.fillOval(w / 60, h / 3, w, h);
-        Icon icon = new ImageIcon(resizedImg);
-        this.setIcon(icon);
-        this.setDisabledIcon(icon);
         g2.dispose();
+        return new ImageIcon(resizedImg);
     }
 
     /**
@@ -63,7 +63,7 @@ public class GUIView {
     private void setToolBar() {
         Border emptyBorder = BorderFactory.createEmptyBorder(10, 10, 10, 10);
         tools.setFloatable(false);
-        toolBarButtons = new JButton[4];
+        toolBarButtons = new JButton[5];
         JButton button = new JButton("New Game");
         button.setBorder(emptyBorder);
         tools.add(button);
@@ -80,6 +80,12 @@ public class GUIView {
         tools.add(button);
         toolBarButtons[2] = button;
 
+        button = new JButton("Redo");
+        button.setBorder(emptyBorder);
+        button.setEnabled(false);
+        tools.add(button);
+        toolBarButtons[3] = button;
+
         JLabel level = new JLabel("Level: ", SwingConstants.CENTER);
         Integer[] difficulties
                 = new Integer[] {1, 2, 3, 4, 5};
@@ -92,7 +98,7 @@ public class GUIView {
         button = new JButton("Quit");
         button.setBorder(emptyBorder);
         tools.add(button);
-        toolBarButtons[3] = button;
+        toolBarButtons[4] = button;
         addKeyStrokeListeners();
     }
 
@@ -102,9 +108,9 @@ public class GUIView {
      */
     private void addKeyStrokeListeners() {
         String[] actionNames = new String[] {"action_new", "action_switch",
-                "action_undo", "action_exit"};
+                "action_undo", "action_redo", "action_exit"};
         int[] events = new int[] {KeyEvent.VK_N, KeyEvent.VK_S, KeyEvent.VK_U,
-                KeyEvent.VK_Q};
+                KeyEvent.VK_R, KeyEvent.VK_Q};
         InputMap keyMap = new ComponentInputMap(tools);
         ActionMap actionMap = new ActionMapUIResource();
 
@@ -280,7 +286,7 @@ public class GUIView {
 
     /**
      * Changes the currently displayed pawns according to a given Array with
-     * the new positions.
+     * the new positions. Only the tiles whose pawn changes get repainted.
      *
      * @param board the 2D Array now to be displayed.
      */
@@ -491,6 +497,16 @@ public class GUIView {
         toolBarButtons[2].setEnabled(toEnable);
     }
 
+    /**
+     * Making the "redo" button available to click for the user, or locking
+     * the usage of it.
+     *
+     * @param toEnable true if the button shall be clickable, false otherwise.
+     */
+    public void enableRedo(boolean toEnable) {
+        toolBarButtons[3].setEnabled(toEnable);
+    }
+
     /**
      * Pops up a MessageDialog signalising the user he has to skip his turn.
      */
@@ -0,0 +1,56 @@
+package controller;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test searching every situation of the golden file of GoldenRegression
+ * again, which must give the golden move and score. The times of the file
+ * are left to GoldenRegression, as they depend on the machine.
+ */
+class GoldenRegressionTest {
+
+    /**
+     * Every situation gives its golden move and score.
+     *
+     * @throws IOException if the golden file cannot be read.
+     */
+    @Test
+    void playsAsGolden() throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(
+                GoldenRegression.DEFAULT_GOLDEN));
+        List<String> failures = new ArrayList<>();
+        int checked = 0;
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t");
+            assertEquals(5, fields.length, "line " + (i + 1)
+                    + " without golden values, run --mode update");
+            int level = Integer.parseInt(fields[0]);
+            PawnBoard board = PositionNotation.parse(fields[1], level);
+            String[] result = GoldenRegression.search(board, level);
+            if (!result[0].equals(fields[2])
+                    || !result[1].equals(fields[3])) {
+                failures.add("line " + (i + 1) + " " + fields[1]
+                        + " expected " + fields[2] + " " + fields[3]
+                        + " got " + result[0] + " " + result[1]);
+            }
+            checked++;
+        }
+        assertTrue(checked > 0, "no situations in the golden file");
+        assertEquals(List.of(), failures);
+    }
+}
@@ -0,0 +1,115 @@
+package model.board;
+
+import model.player.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of PositionNotation: situations and moves written and read back
+ * unchanged, on all sizes of the board.
+ */
+class PositionNotationTest {
+
+    /**
+     * The start of the 8 x 8 game is written as in the documentation.
+     */
+    @Test
+    void formatsStart() {
+        assertEquals("BBBBBBBB/8/8/8/8/8/8/WWWWWWWW w w w",
+                PositionNotation.format(new PawnBoard(0, 1, Color.WHITE)));
+    }
+
+    /**
+     * Every situation of random games is read back as written, including
+     * the player to move, the colors and the opener.
+     */
+    @Test
+    void parsesWhatItFormats() {
+        Random random = new Random(1);
+        for (int size = PawnBoard.MIN_SIZE; size <= PawnBoard.MAX_SIZE;
+             size++) {
+            for (int starter = 0; starter < 2; starter++) {
+                PawnBoard start = new PawnBoard(starter, 1, size % 2 == 0
+                        ? Color.WHITE : Color.BLACK, size);
+                checkRoundTrip(start);
+                for (PawnBoard board : RandomGames.play(start, random)) {
+                    checkRoundTrip(board);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every move between two tiles of the largest board is read back as
+     * written.
+     */
+    @Test
+    void parsesWhatItFormatsForMoves() {
+        int size = PawnBoard.MAX_SIZE;
+        for (int from = 0; from < size * size; from++) {
+            for (int to = 0; to < size * size; to += 7) {
+                int move = PositionNotation.packMove(from % size,
+                        from / size, to % size, to / size);
+                String text = PositionNotation.formatMove(move, size);
+                assertEquals(move, PositionNotation.parseMove(text, 0,
+                        text.length(), size), text);
+            }
+        }
+    }
+
+    /**
+     * The move found between two situations is the move played.
+     */
+    @Test
+    void findsPlayedMove() {
+        Random random = new Random(2);
+        PawnBoard board = new PawnBoard(0, 1, Color.WHITE, 6);
+        while (!board.isGameOver()) {
+            int move = RandomGames.randomMove(board, random);
+            PawnBoard next = PositionNotation.play(board, move);
+            assertEquals(move, PositionNotation.findMove(board, next));
+            board = next;
+        }
+    }
+
+    /**
+     * Invalid situations and moves are rejected.
+     */
+    @Test
+    void rejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.parse("BBBB/4/4/WWWW w w", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.parse("BBBB/4/4 w w w", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.parse("BBBB/4/4/WWWWW w w w", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.parse("BBBB/4/4/WWWW x w w", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.parseMove("a0a1", 0, 4, 8));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.parseMove("i1i2", 0, 4, 8));
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionNotation.play(new PawnBoard(0, 1,
+                        Color.WHITE), PositionNotation.parseMove("a1a4", 0,
+                        4, 8)));
+    }
+
+    /**
+     * Checks that a situation is read back as written.
+     *
+     * @param board the situation.
+     */
+    private static void checkRoundTrip(PawnBoard board) {
+        String text = PositionNotation.format(board);
+        PawnBoard parsed = PositionNotation.parse(text, 1);
+        assertEquals(text, PositionNotation.format(parsed));
+        assertEquals(board.getCurrentPlayer().getColor(),
+                parsed.getCurrentPlayer().getColor(), text);
+        assertEquals(board.isGameOver(), parsed.isGameOver(), text);
+    }
+}
@@ -0,0 +1,57 @@
+package model.board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Games of random legal moves for the tests, reproducible by the seed of
+ * the random generator.
+ */
+public final class RandomGames {
+
+    /**
+     * Plays random legal moves for both players until the game is over.
+     *
+     * @param start the situation to start at, not changed.
+     * @param random the generator choosing the moves.
+     * @return the situations after each move, the last one ending the game.
+     */
+    public static List<PawnBoard> play(PawnBoard start, Random random) {
+        List<PawnBoard> toReturn = new ArrayList<>();
+        PawnBoard board = start;
+        while (!board.isGameOver()) {
+            board = PositionNotation.play(board, randomMove(board, random));
+            toReturn.add(board);
+        }
+        return toReturn;
+    }
+
+    /**
+     * Chooses a random legal move of the player to move.
+     *
+     * @param board the situation, not over.
+     * @param random the generator choosing the move.
+     * @return the packed move, see PositionNotation.packMove.
+     */
+    public static int randomMove(PawnBoard board, Random random) {
+        List<Integer> moves = new ArrayList<>();
+        for (Map.Entry<List<Integer>, List<int[]>> pawn
+                : board.viablePawnMoves(board.getCurrentPlayer()).entrySet()) {
+            for (int[] target : pawn.getValue()) {
+                moves.add(PositionNotation.packMove(pawn.getKey().get(0),
+                        pawn.getKey().get(1), target[0], target[1]));
+            }
+        }
+        return moves.get(random.nextInt(moves.size()));
+    }
+
+    /**
+     * Utility class constructor preventing instantiation.
+     */
+    private RandomGames() {
+        throw new UnsupportedOperationException("Illegal calling of "
+                + "constructor!");
+    }
+}
@@ -0,0 +1,207 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.RandomGames;
+import model.player.Color;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of BinaryGameWriter and BinaryGameReader: games read back as
+ * written, in order or via the index, and archives whose writer was never
+ * closed.
+ */
+class BinaryGameReaderTest {
+
+    // Bytes of the end of a closed archive of a single index block.
+    private static final int END_BYTES = 3 * Long.BYTES + 2 * Integer.BYTES;
+
+    private final Path file;
+
+    /**
+     * Constructor creating the archive file of a test.
+     *
+     * @throws IOException if the file cannot be created.
+     */
+    BinaryGameReaderTest() throws IOException {
+        this.file = Files.createTempFile("games", ".pgb");
+    }
+
+    /**
+     * Deletes the archive file.
+     *
+     * @throws IOException if the file cannot be deleted.
+     */
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Games of all sizes, more than one index block, are read back in
+     * order and one by one via the index.
+     *
+     * @throws IOException if the archive cannot be written or read.
+     */
+    @Test
+    void readsWhatItWrites() throws IOException {
+        List<GameRecord> games = randomGames(BinaryGameWriter.BLOCK_GAMES
+                + 100, new Random(1));
+        write(games);
+        assertEquals(texts(games), readAll(file));
+        try (BinaryGameReader in = new BinaryGameReader(file)) {
+            assertEquals(games.size(), in.getGameCount());
+            for (int number : new int[] {games.size() - 1, 0,
+                    BinaryGameWriter.BLOCK_GAMES, 17,
+                    BinaryGameWriter.BLOCK_GAMES - 1}) {
+                assertEquals(text(games.get(number)),
+                        text(in.read(number)), "game " + number);
+            }
+            assertThrows(IndexOutOfBoundsException.class,
+                    () -> in.read(games.size()));
+        }
+    }
+
+    /**
+     * An archive cut off before its index, as if its writer was never
+     * closed, is scanned for its complete games; an incomplete last game
+     * is left out.
+     *
+     * @throws IOException if the archive cannot be written or read.
+     */
+    @Test
+    void scansArchiveOfUnclosedWriter() throws IOException {
+        List<GameRecord> games = randomGames(50, new Random(2));
+        write(games);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - END_BYTES));
+        assertEquals(texts(games), readAll(file));
+        try (BinaryGameReader in = new BinaryGameReader(file)) {
+            assertEquals(text(games.get(31)), text(in.read(31)));
+        }
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - END_BYTES
+                - 1));
+        assertEquals(texts(games.subList(0, games.size() - 1)),
+                readAll(file));
+
+        Files.write(file, Arrays.copyOf(bytes, Integer.BYTES + 1));
+        assertEquals(List.of(), readAll(file));
+    }
+
+    /**
+     * A file without the magic number is no archive.
+     *
+     * @throws IOException if the file cannot be written.
+     */
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6});
+        assertThrows(IOException.class, () -> new BinaryGameReader(file));
+    }
+
+    /**
+     * Writes games to the archive file and closes the writer.
+     *
+     * @param games the games.
+     * @throws IOException if the archive cannot be written.
+     */
+    private void write(List<GameRecord> games) throws IOException {
+        try (BinaryGameWriter out = new BinaryGameWriter(file)) {
+            for (GameRecord game : games) {
+                out.write(game);
+            }
+        }
+    }
+
+    /**
+     * Reads all games of an archive in order.
+     *
+     * @param archive the archive.
+     * @return the games, each written as by text.
+     * @throws IOException if the archive cannot be read.
+     */
+    private static List<String> readAll(Path archive) throws IOException {
+        List<String> toReturn = new ArrayList<>();
+        try (BinaryGameReader in = new BinaryGameReader(archive)) {
+            GameRecord game = in.next();
+            while (game != null) {
+                toReturn.add(text(game));
+                game = in.next();
+            }
+            assertNull(in.next());
+        }
+        return toReturn;
+    }
+
+    /**
+     * Plays random games on all sizes of the board, some of them cut off
+     * before their end.
+     *
+     * @param count the amount of games.
+     * @param random the generator choosing the moves.
+     * @return the games.
+     */
+    static List<GameRecord> randomGames(int count, Random random) {
+        List<GameRecord> toReturn = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int size = PawnBoard.MIN_SIZE + i % (PawnBoard.MAX_SIZE
+                    - PawnBoard.MIN_SIZE + 1);
+            PawnBoard start = new PawnBoard(i % 2, 1, i % 3 == 0
+                    ? Color.BLACK : Color.WHITE, size);
+            List<PawnBoard> situations = RandomGames.play(start, random);
+            if (i % 4 == 0) {
+                situations = situations.subList(0, random.nextInt(
+                        situations.size()));
+            }
+            toReturn.add(GameRecord.of(Map.of("Round", String.valueOf(i),
+                    "Event", "test \"" + i + "\""), start, situations));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Writes games as by text.
+     *
+     * @param games the games.
+     * @return the games, each written as by text.
+     */
+    static List<String> texts(List<GameRecord> games) {
+        List<String> toReturn = new ArrayList<>();
+        for (GameRecord game : games) {
+            toReturn.add(text(game));
+        }
+        return toReturn;
+    }
+
+    /**
+     * Writes a game as a line of all its parts, for comparing games.
+     *
+     * @param game the game.
+     * @return the tags, start situation, result and moves of the game.
+     */
+    static String text(GameRecord game) {
+        StringBuilder toReturn = new StringBuilder();
+        toReturn.append(game.getTags()).append(' ')
+                .append(game.getPosition()).append(' ')
+                .append(game.getResult());
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            toReturn.append(' ').append(game.getMove(i));
+        }
+        return toReturn.toString();
+    }
+}
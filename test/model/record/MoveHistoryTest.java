@@ -0,0 +1,137 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.board.RandomGames;
+import model.player.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of MoveHistory: situations rebuilt from the checkpoints, undo, redo
+ * and goto over games longer than several checkpoints.
+ */
+class MoveHistoryTest {
+
+    private static final int DIFFICULTY = 1;
+
+    /**
+     * Every ply of a long game is rebuilt as played, in any order.
+     */
+    @Test
+    void rebuildsEverySituation() {
+        List<String> played = new ArrayList<>();
+        MoveHistory history = longGame(new Random(4), played);
+        assertTrue(history.getLength() > 3 * MoveHistory.CHECKPOINT_PLIES,
+                "game of " + history.getLength() + " plies");
+        for (int ply = history.getLength(); ply >= 0; ply -= 5) {
+            assertEquals(played.get(ply), notation(history.jumpTo(ply,
+                    DIFFICULTY)), "ply " + ply);
+            assertEquals(ply, history.getPly());
+        }
+        for (int ply = 0; ply <= history.getLength(); ply++) {
+            assertEquals(played.get(ply), notation(history.situationAt(ply,
+                    DIFFICULTY)), "ply " + ply);
+        }
+        assertThrows(IndexOutOfBoundsException.class,
+                () -> history.jumpTo(history.getLength() + 1, DIFFICULTY));
+    }
+
+    /**
+     * Undo steps back to the situations before the moves of the human,
+     * redo forward to them and to the end.
+     */
+    @Test
+    void undoesAndRedoesTurnsOfHuman() {
+        List<String> played = new ArrayList<>();
+        MoveHistory history = longGame(new Random(5), played);
+        int length = history.getLength();
+        assertFalse(history.canRedo());
+
+        List<Integer> undone = new ArrayList<>();
+        while (history.canUndo()) {
+            PawnBoard board = history.undo(DIFFICULTY);
+            assertEquals(board.getHumanColor(),
+                    board.getCurrentPlayer().getColor());
+            assertEquals(played.get(history.getPly()), notation(board));
+            undone.add(0, history.getPly());
+        }
+        assertThrows(IllegalStateException.class,
+                () -> history.undo(DIFFICULTY));
+
+        for (int i = 1; i < undone.size(); i++) {
+            history.redo(DIFFICULTY);
+            assertEquals((int) undone.get(i), history.getPly());
+        }
+        assertEquals(played.get(length), notation(history.redo(
+                DIFFICULTY)));
+        assertEquals(length, history.getPly());
+        assertFalse(history.canRedo());
+    }
+
+    /**
+     * A move after goto replaces all moves after it, also those before
+     * the checkpoints dropped with them.
+     */
+    @Test
+    void dropsRedoneMovesOnNewMove() {
+        Random random = new Random(6);
+        List<String> played = new ArrayList<>();
+        MoveHistory history = longGame(random, played);
+        int ply = MoveHistory.CHECKPOINT_PLIES + 3;
+        PawnBoard board = history.jumpTo(ply, DIFFICULTY);
+        int move = RandomGames.randomMove(board, random);
+        PawnBoard next = PositionNotation.play(board, move);
+        history.add(move, true, next);
+
+        assertEquals(ply + 1, history.getLength());
+        assertFalse(history.canRedo());
+        assertEquals(move, history.getMove(ply));
+        assertEquals(notation(next), notation(history.situationAt(ply + 1,
+                DIFFICULTY)));
+        assertEquals(played.get(ply - 1), notation(history.situationAt(
+                ply - 1, DIFFICULTY)));
+    }
+
+    /**
+     * Plays a random game on the largest board, the human being white.
+     *
+     * @param random the generator choosing the moves.
+     * @param played gets the notation of the start and of the situation
+     *               after each move.
+     * @return the history of the game, at its end.
+     */
+    private static MoveHistory longGame(Random random, List<String> played) {
+        PawnBoard board = new PawnBoard(0, DIFFICULTY, Color.WHITE,
+                PawnBoard.MAX_SIZE);
+        MoveHistory history = new MoveHistory(board);
+        played.add(notation(board));
+        while (!board.isGameOver()) {
+            boolean byHuman = board.getCurrentPlayer().getColor()
+                    == board.getHumanColor();
+            int move = RandomGames.randomMove(board, random);
+            board = PositionNotation.play(board, move);
+            history.add(move, byHuman, board);
+            played.add(notation(board));
+        }
+        return history;
+    }
+
+    /**
+     * Writes a situation.
+     *
+     * @param board the situation.
+     * @return the notation of PositionNotation.
+     */
+    private static String notation(PawnBoard board) {
+        return PositionNotation.format(board);
+    }
+}
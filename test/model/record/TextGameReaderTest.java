@@ -0,0 +1,112 @@
+package model.record;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.player.Color;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of TextGameWriter and TextGameReader: games read back as written,
+ * games written by hand and corrupt input.
+ */
+class TextGameReaderTest {
+
+    /**
+     * Games of all sizes, including tags with quotes, are read back as
+     * written.
+     *
+     * @throws IOException if the games cannot be written or read.
+     */
+    @Test
+    void readsWhatItWrites() throws IOException {
+        List<GameRecord> games = BinaryGameReaderTest.randomGames(60,
+                new Random(3));
+        StringWriter text = new StringWriter();
+        try (TextGameWriter out = new TextGameWriter(text)) {
+            for (GameRecord game : games) {
+                out.write(game);
+            }
+        }
+        assertEquals(BinaryGameReaderTest.texts(games),
+                readAll(text.toString()));
+    }
+
+    /**
+     * A game without a Position tag starts at the 8 x 8 start, move
+     * numbers are skipped and the result ends the game.
+     *
+     * @throws IOException if the games cannot be read.
+     */
+    @Test
+    void readsGamesWrittenByHand() throws IOException {
+        String text = "[Event \"club\"]\n\n1. a1a3 h8h6 2. a3a4\n"
+                + "b8b7 1-0\n\n\n[Position \"BBBB/4/4/WWWW w w w\"]\n"
+                + "1. a1a2 *\n";
+        List<GameRecord> games = new ArrayList<>();
+        try (TextGameReader in = new TextGameReader(new BufferedReader(
+                new StringReader(text)))) {
+            GameRecord game = in.next();
+            while (game != null) {
+                games.add(game);
+                game = in.next();
+            }
+        }
+        assertEquals(2, games.size());
+        assertEquals("club", games.get(0).getTags().get("Event"));
+        assertEquals(PositionNotation.format(new PawnBoard(0, 1,
+                Color.WHITE)), games.get(0).getPosition());
+        assertEquals(4, games.get(0).getMoveCount());
+        assertEquals(GameRecord.WHITE_WINS, games.get(0).getResult());
+        assertEquals("a3a4", PositionNotation.formatMove(games.get(0)
+                .getMove(2), 8));
+        assertEquals(4, games.get(1).getSize());
+        assertEquals(GameRecord.UNKNOWN, games.get(1).getResult());
+        assertEquals("BBBB/4/W3/1WWW b w w", PositionNotation.format(
+                games.get(1).replay(1, 1)));
+    }
+
+    /**
+     * Malformed tags, moves off the board and unknown sizes are reported
+     * with their line.
+     */
+    @Test
+    void rejectsCorruptInput() {
+        IOException e = assertThrows(IOException.class,
+                () -> readAll("[Event \"x\"]\n1. a1a3 z9z9 *\n"));
+        assertEquals("Line 2: Invalid move z9z9!", e.getMessage());
+        assertThrows(IOException.class, () -> readAll("[Event x]\n*\n"));
+        assertThrows(IOException.class, () -> readAll(
+                "[Position \"BB/2 w w w\"]\n*\n"));
+    }
+
+    /**
+     * Reads all games of a text.
+     *
+     * @param text the games.
+     * @return the games, each written as by BinaryGameReaderTest.text.
+     * @throws IOException if the text is corrupt.
+     */
+    private static List<String> readAll(String text) throws IOException {
+        List<String> toReturn = new ArrayList<>();
+        try (TextGameReader in = new TextGameReader(new BufferedReader(
+                new StringReader(text)))) {
+            GameRecord game = in.next();
+            while (game != null) {
+                toReturn.add(BinaryGameReaderTest.text(game));
+                game = in.next();
+            }
+        }
+        return toReturn;
+    }
+}
@@ -0,0 +1,82 @@
+package model.tree;
+
+import model.board.PawnBoard;
+import model.board.PositionNotation;
+import model.player.Color;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of GameSolver on the 4 x 4 board, small enough to be solved in
+ * well under a second.
+ */
+class GameSolverTest {
+
+    private static final int SIZE = 4;
+
+    /**
+     * The 4 x 4 game is lost by the player opening it, whoever that is and
+     * wherever the table is kept.
+     */
+    @Test
+    void solvesStartAsLoss() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            for (int starter = 0; starter < 2; starter++) {
+                GameSolver solver = new GameSolver(SIZE,
+                        TranspositionTable.allocate(1 << 16, offHeap));
+                assertEquals(GameSolver.LOSS, solver.solve(start(starter)),
+                        "starter " + starter + " off heap " + offHeap);
+                assertTrue(solver.getPositions() > 0);
+            }
+        }
+    }
+
+    /**
+     * As the start is lost, every opening move wins for the opponent, also
+     * when solved by a solver reusing its table.
+     */
+    @Test
+    void solvesEveryOpeningAsWinOfOpponent() {
+        PawnBoard start = start(0);
+        GameSolver solver = new GameSolver(SIZE,
+                TranspositionTable.allocate(1 << 16, false));
+        assertEquals(GameSolver.LOSS, solver.solve(start));
+        for (Map.Entry<List<Integer>, List<int[]>> pawn : start
+                .viablePawnMoves(start.getCurrentPlayer()).entrySet()) {
+            for (int[] target : pawn.getValue()) {
+                int move = PositionNotation.packMove(pawn.getKey().get(0),
+                        pawn.getKey().get(1), target[0], target[1]);
+                PawnBoard next = PositionNotation.play(start, move);
+                assertEquals(GameSolver.WIN, solver.solve(next),
+                        PositionNotation.formatMove(move, SIZE));
+            }
+        }
+    }
+
+    /**
+     * A situation already over is lost by the player who would be to move.
+     */
+    @Test
+    void solvesEndedGame() {
+        PawnBoard over = PositionNotation.parse("W3/4/4/1WWW b w w", 1);
+        GameSolver solver = new GameSolver(SIZE,
+                TranspositionTable.allocate(1 << 10, false));
+        assertEquals(GameSolver.LOSS, solver.solve(over));
+        assertEquals(0, solver.getBestMove());
+    }
+
+    /**
+     * Creates the start of a 4 x 4 game, the human being white.
+     *
+     * @param starter the player to start with, 0 = human, 1 = bot.
+     * @return the situation.
+     */
+    private static PawnBoard start(int starter) {
+        return new PawnBoard(starter, 1, Color.WHITE, SIZE);
+    }
+}